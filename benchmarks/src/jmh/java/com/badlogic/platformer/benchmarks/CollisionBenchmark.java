@@ -0,0 +1,82 @@
+package com.badlogic.platformer.benchmarks;
+
+import com.badlogic.platformer.sim.BroadPhase;
+import com.badlogic.platformer.sim.MatchSimulation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Attack overlap checks: every attacking box against every other box, and the same through the broad phase. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark {
+
+    private static final float SIZE = 128f;
+
+    @Param({"2", "8", "32", "512", "2048"})
+    public int boxes;
+
+    private float[] x;
+    private float[] y;
+    private boolean[] attacking;
+    private BroadPhase broadPhase;
+
+    @Setup
+    public void setup() {
+        // Fixed seed so every run checks the same layout
+        Random random = new Random(42);
+        x = new float[boxes];
+        y = new float[boxes];
+        attacking = new boolean[boxes];
+        for (int i = 0; i < boxes; i++) {
+            x[i] = random.nextFloat() * 1920f;
+            y[i] = 150f + random.nextFloat() * 300f;
+            attacking[i] = random.nextBoolean();
+        }
+        broadPhase = new BroadPhase(1920f, 1080f, SIZE * 2, boxes);
+    }
+
+    @Benchmark
+    public int checkAttacks() {
+        int hits = 0;
+        for (int i = 0; i < boxes; i++) {
+            if (!attacking[i]) continue;
+            for (int j = 0; j < boxes; j++) {
+                if (i != j && MatchSimulation.overlaps(x[i], y[i], x[j], y[j], SIZE)) hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int checkAttacksBroadPhase() {
+        // Rebuilt every call like the simulation does every tick
+        broadPhase.clear();
+        for (int i = 0; i < boxes; i++) {
+            broadPhase.add(x[i], y[i], SIZE, SIZE);
+        }
+        broadPhase.build();
+        int pairs = broadPhase.findPairs();
+        int hits = 0;
+        for (int p = 0; p < pairs; p++) {
+            if (attacking[broadPhase.getPairA(p)]) hits++;
+            if (attacking[broadPhase.getPairB(p)]) hits++;
+        }
+        return hits;
+    }
+}
@@ -0,0 +1,58 @@
+package com.badlogic.platformer.benchmarks;
+
+import com.badlogic.platformer.sim.MatchConfig;
+import com.badlogic.platformer.sim.MatchSimulation;
+import com.badlogic.platformer.sim.PlayerInput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/** Simulation ticks per second as the number of fighters grows. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FighterScalingBenchmark {
+
+    @Param({"2", "4", "16", "64", "256", "1024"})
+    public int fighters;
+
+    private MatchSimulation simulation;
+    private int[] inputs;
+    private int tick;
+
+    @Setup
+    public void setup() {
+        MatchConfig config = new MatchConfig();
+        // Nobody should win during a measurement
+        config.maxHealth = Integer.MAX_VALUE;
+        simulation = new MatchSimulation(config, 60, fighters);
+        inputs = new int[fighters];
+    }
+
+    @Benchmark
+    public int tick() {
+        tick++;
+        // Cheap scripted inputs so the numbers are about the simulation, not about deciding what to press
+        for (int i = 0; i < fighters; i++) {
+            int phase = tick + i * 13;
+            int input = (phase / 60) % 2 == 0 ? PlayerInput.RIGHT : PlayerInput.LEFT;
+            if (phase % 9 == 0) input |= PlayerInput.ATTACK;
+            if (phase % 50 == 0) input |= PlayerInput.JUMP;
+            inputs[i] = input;
+        }
+        return simulation.step(inputs);
+    }
+}
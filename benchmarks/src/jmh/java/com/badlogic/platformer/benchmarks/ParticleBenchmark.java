@@ -0,0 +1,116 @@
+package com.badlogic.platformer.benchmarks;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.platformer.fx.ParticleSystem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One frame of a particle storm: {@code update} ages and moves every particle and respawns the ones that died,
+ * {@code draw} builds their quads through SpriteBatch against {@link StubGL}. Run with {@code -prof gc} to check
+ * that neither allocates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParticleBenchmark {
+
+    private static final float DELTA = 1f / 60f;
+
+    @Param({ "10000", "20000" })
+    public int particles;
+
+    private HeadlessApplication application;
+    private SpriteBatch batch;
+    private Texture texture;
+    private TextureRegion region;
+    private ParticleSystem system;
+
+    // Spawn values drawn up front so the benchmark measures the particles, not the random generator
+    private float[] spawnValues;
+    private int nextSpawn;
+
+    @Setup
+    public void setup() {
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        config.updatesPerSecond = 1; // Nothing to update, keep the application thread idle
+        application = new HeadlessApplication(new ApplicationAdapter() { }, config);
+        Gdx.gl = Gdx.gl20 = StubGL.create();
+
+        // The largest batch SpriteBatch allows, like a dedicated effects batch would use
+        batch = new SpriteBatch(8191);
+        Pixmap pixmap = new Pixmap(64, 64, Pixmap.Format.RGBA8888);
+        texture = new Texture(pixmap);
+        pixmap.dispose();
+        region = new TextureRegion(texture, 0, 0, 16, 16);
+
+        Random random = new Random(42);
+        spawnValues = new float[4096 * 4];
+        for (int i = 0; i < spawnValues.length; i++) {
+            spawnValues[i] = random.nextFloat();
+        }
+
+        system = new ParticleSystem(particles);
+        refill();
+        // Spread the ages so particles keep dying and respawning every frame
+        for (int frame = 0; frame < 60; frame++) {
+            system.update(DELTA);
+            refill();
+        }
+    }
+
+    private void refill() {
+        float[] values = spawnValues;
+        while (system.getCount() < particles) {
+            int i = nextSpawn;
+            nextSpawn = (nextSpawn + 4) % values.length;
+            system.spawn(values[i] * 1920f, 150f + values[i + 1] * 900f, (values[i + 2] - 0.5f) * 800f,
+                values[i + 3] * 600f, -1200f, 0.25f + values[i + 1], 16f, 2f, 0xFFE070);
+        }
+    }
+
+    @Benchmark
+    public int update() {
+        system.update(DELTA);
+        refill();
+        return system.getCount();
+    }
+
+    @Benchmark
+    public int draw() {
+        batch.begin();
+        system.draw(batch, region);
+        batch.end();
+        return batch.renderCalls;
+    }
+
+    @TearDown
+    public void tearDown() {
+        texture.dispose();
+        batch.dispose();
+        application.exit();
+    }
+}
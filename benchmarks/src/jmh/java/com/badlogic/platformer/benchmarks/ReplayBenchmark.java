@@ -0,0 +1,79 @@
+package com.badlogic.platformer.benchmarks;
+
+import com.badlogic.platformer.replay.ReplayPlayer;
+import com.badlogic.platformer.replay.ReplayRecorder;
+import com.badlogic.platformer.sim.MatchConfig;
+import com.badlogic.platformer.sim.MatchSimulation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Headless playback of a two minute replay from a memory mapped file, and seeking into its middle. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReplayBenchmark {
+
+    private static final int TICKS = 60 * 120;
+
+    private File file;
+    private ReplayPlayer player;
+
+    @Setup
+    public void setup() throws IOException {
+        // Attacks do no damage so the match lasts the whole two minutes
+        MatchConfig config = new MatchConfig();
+        config.attackDamage = 0;
+        MatchSimulation simulation = new MatchSimulation(config, 60);
+        ReplayRecorder recorder = new ReplayRecorder(simulation, 60, 0L, ReplayRecorder.DEFAULT_CHECKPOINT_INTERVAL);
+        recorder.begin();
+
+        // Players change what they hold every fifth of a second or so, with a fixed seed
+        Random random = new Random(42);
+        int[] inputs = new int[2];
+        for (int tick = 0; tick < TICKS; tick++) {
+            if (random.nextInt(12) == 0) inputs[0] = random.nextInt(16);
+            if (random.nextInt(12) == 0) inputs[1] = random.nextInt(16);
+            recorder.record(inputs);
+            simulation.step(inputs);
+        }
+
+        file = File.createTempFile("replay", ".rpl");
+        recorder.save(file);
+        player = new ReplayPlayer(file);
+    }
+
+    @TearDown
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public int playToEnd() {
+        player.seek(0);
+        return player.fastForward(TICKS);
+    }
+
+    @Benchmark
+    public int seekToMiddle() {
+        player.seek(0);
+        player.seek(TICKS / 2 + 17);
+        return player.getTick();
+    }
+}
@@ -0,0 +1,53 @@
+package com.badlogic.platformer.benchmarks;
+
+import com.badlogic.platformer.sim.MatchConfig;
+import com.badlogic.platformer.sim.MatchSimulation;
+import com.badlogic.platformer.sim.MatchState;
+import com.badlogic.platformer.sim.PlayerInput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/** A worst-case rollback: restore a snapshot and simulate the maximum prediction window again. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RollbackBenchmark {
+
+    private static final int FRAMES = 8;
+
+    private MatchSimulation simulation;
+    private MatchState snapshot;
+    private final int[] inputs = new int[2];
+
+    @Setup
+    public void setup() {
+        simulation = new MatchSimulation(new MatchConfig(), 60);
+        snapshot = new MatchState(2);
+        snapshot.set(simulation.getState());
+    }
+
+    @Benchmark
+    public int restoreAndResimulate() {
+        simulation.getState().set(snapshot);
+        int events = 0;
+        for (int i = 0; i < FRAMES; i++) {
+            inputs[0] = PlayerInput.RIGHT | (i == 3 ? PlayerInput.ATTACK : 0);
+            inputs[1] = PlayerInput.LEFT | (i == 5 ? PlayerInput.JUMP : 0);
+            events |= simulation.step(inputs);
+        }
+        return events;
+    }
+}
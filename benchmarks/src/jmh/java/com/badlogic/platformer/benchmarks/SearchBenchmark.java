@@ -0,0 +1,58 @@
+package com.badlogic.platformer.benchmarks;
+
+import com.badlogic.platformer.ai.LookaheadSearch;
+import com.badlogic.platformer.sim.MatchConfig;
+import com.badlogic.platformer.sim.MatchSimulation;
+import com.badlogic.platformer.sim.MatchState;
+import com.badlogic.platformer.sim.PlayerInput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one CPU opponent rollout: a deadline already in the past makes {@link LookaheadSearch#decide} play
+ * exactly one, so the budget of a difficulty divided by this is the rollouts it gets per decision.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchBenchmark {
+
+    // Rollout length in ticks, the horizons of the easy, normal and hard opponents at 60 ticks per second
+    @Param({"15", "30", "45"})
+    public int horizon;
+
+    private LookaheadSearch search;
+    private final MatchState root = new MatchState(2);
+
+    @Setup
+    public void setup() {
+        MatchConfig config = new MatchConfig();
+        MatchSimulation simulation = new MatchSimulation(config, 60);
+        // Start from the fighters walking into range of each other
+        int[] inputs = {PlayerInput.RIGHT, PlayerInput.LEFT};
+        for (int i = 0; i < 10; i++) simulation.step(inputs);
+        root.set(simulation.getState());
+
+        search = new LookaheadSearch(config, 60, 2, simulation.getMoves(), simulation.getPlatforms(), 1, 42L);
+        search.setHorizon(horizon, 6);
+    }
+
+    @Benchmark
+    public int rollout() {
+        return search.decide(root, System.nanoTime());
+    }
+}
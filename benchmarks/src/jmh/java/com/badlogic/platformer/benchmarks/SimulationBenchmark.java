@@ -0,0 +1,48 @@
+package com.badlogic.platformer.benchmarks;
+
+import com.badlogic.platformer.sim.MatchConfig;
+import com.badlogic.platformer.sim.MatchSimulation;
+import com.badlogic.platformer.sim.PlayerInput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/** Cost of one simulation tick: gravity, integration, floor and bounds clamp, input, attacks and game over. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimulationBenchmark {
+
+    private MatchSimulation simulation;
+    private final int[] inputs = new int[2];
+    private int tick;
+
+    @Setup
+    public void setup() {
+        simulation = new MatchSimulation(new MatchConfig(), 60);
+    }
+
+    @Benchmark
+    public int step() {
+        // Scripted inputs: both fighters walk into each other, jump and attack on different rhythms
+        tick++;
+        inputs[0] = PlayerInput.RIGHT | (tick % 7 == 0 ? PlayerInput.ATTACK : 0) | (tick % 45 == 0 ? PlayerInput.JUMP : 0);
+        inputs[1] = PlayerInput.LEFT | (tick % 11 == 0 ? PlayerInput.ATTACK : 0) | (tick % 30 == 0 ? PlayerInput.JUMP : 0);
+        if (simulation.getState().gameOver) {
+            simulation.reset();
+        }
+        return simulation.step(inputs);
+    }
+}
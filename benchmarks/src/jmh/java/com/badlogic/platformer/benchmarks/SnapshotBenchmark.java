@@ -0,0 +1,56 @@
+package com.badlogic.platformer.benchmarks;
+
+import com.badlogic.platformer.replay.MatchSnapshot;
+import com.badlogic.platformer.sim.MatchConfig;
+import com.badlogic.platformer.sim.MatchSimulation;
+import com.badlogic.platformer.sim.PlayerInput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/** Cost of taking and restoring a {@link MatchSnapshot}, paid on the simulation thread for every suspend save. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotBenchmark {
+
+    @Param({"2", "4"})
+    public int fighters;
+
+    private MatchSimulation simulation;
+    private MatchSnapshot snapshot;
+
+    @Setup
+    public void setup() {
+        simulation = new MatchSimulation(new MatchConfig(), 60, fighters);
+        int[] inputs = new int[fighters];
+        for (int i = 0; i < fighters; i++) inputs[i] = i % 2 == 0 ? PlayerInput.RIGHT : PlayerInput.LEFT;
+        for (int i = 0; i < 10; i++) simulation.step(inputs);
+        snapshot = new MatchSnapshot(fighters);
+        snapshot.capture(simulation, 60);
+    }
+
+    @Benchmark
+    public long capture() {
+        snapshot.capture(simulation, 60);
+        return snapshot.getTick();
+    }
+
+    @Benchmark
+    public boolean restore() {
+        return snapshot.restore(simulation, 60);
+    }
+}
@@ -0,0 +1,100 @@
+package com.badlogic.platformer.benchmarks;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU side of a full match frame through SpriteBatch: background, floor, two fighters, four health bar quads and
+ * the two HUD labels, all from one atlas-like texture. GL calls go to {@link StubGL}, so this measures vertex
+ * building and submission only.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpriteBatchBenchmark {
+
+    private HeadlessApplication application;
+    private SpriteBatch batch;
+    private Texture texture;
+    private Texture background;
+    private TextureRegion fighter;
+    private TextureRegion healthBar;
+    private TextureRegion floor;
+    private BitmapFont font;
+    private BitmapFontCache player1Label;
+    private BitmapFontCache player2Label;
+
+    @Setup
+    public void setup() {
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        config.updatesPerSecond = 1; // Nothing to update, keep the application thread idle
+        application = new HeadlessApplication(new ApplicationAdapter() { }, config);
+        Gdx.gl = Gdx.gl20 = StubGL.create();
+
+        batch = new SpriteBatch();
+        Pixmap pixmap = new Pixmap(1024, 1024, Pixmap.Format.RGBA8888);
+        texture = new Texture(pixmap);
+        background = new Texture(pixmap);
+        pixmap.dispose();
+        fighter = new TextureRegion(texture, 0, 0, 128, 128);
+        healthBar = new TextureRegion(texture, 0, 128, 200, 10);
+        floor = new TextureRegion(texture, 0, 140, 1000, 50);
+        font = new BitmapFont(); // libGDX's bundled font, loaded from the classpath
+
+        // Labels are laid out once, like the game's CachedText
+        player1Label = new BitmapFontCache(font);
+        player1Label.setText("Player 1: 80", 20, 1020);
+        player2Label = new BitmapFontCache(font);
+        player2Label.setText("Player 2: 60", 1600, 1020);
+    }
+
+    @Benchmark
+    public int frame() {
+        batch.begin();
+        batch.draw(background, 0, 0, 1920, 1080);
+        batch.draw(floor, 0, 0, 1920, 150);
+        batch.draw(fighter, 910, 150, 256, 256);
+        batch.draw(fighter, 1010, 150, 256, 256);
+        batch.draw(healthBar, 20, 1040, 300, 30);
+        batch.draw(healthBar, 20, 1040, 240, 30);
+        batch.draw(healthBar, 1600, 1040, 300, 30);
+        batch.draw(healthBar, 1600, 1040, 180, 30);
+        player1Label.draw(batch);
+        player2Label.draw(batch);
+        batch.end();
+        return batch.renderCalls;
+    }
+
+    @TearDown
+    public void tearDown() {
+        font.dispose();
+        texture.dispose();
+        background.dispose();
+        batch.dispose();
+        application.exit();
+    }
+}
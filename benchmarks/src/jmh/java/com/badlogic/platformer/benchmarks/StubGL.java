@@ -0,0 +1,44 @@
+package com.badlogic.platformer.benchmarks;
+
+import com.badlogic.gdx.graphics.GL20;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.IntBuffer;
+
+/**
+ * GL20 that accepts every call and does nothing, so SpriteBatch can build and submit vertices without a window.
+ * Shaders and programs report success so the default SpriteBatch shader "compiles".
+ */
+final class StubGL {
+
+    private StubGL() { }
+
+    static GL20 create() {
+        InvocationHandler handler = new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                String name = method.getName();
+                if (name.equals("glCreateShader") || name.equals("glCreateProgram")) {
+                    return 1;
+                }
+                if (name.equals("glGetShaderiv") || name.equals("glGetProgramiv")) {
+                    int parameter = (Integer) args[1];
+                    IntBuffer result = (IntBuffer) args[2];
+                    // Compile and link succeed, the program reports no active attributes or uniforms
+                    boolean status = parameter == GL20.GL_COMPILE_STATUS || parameter == GL20.GL_LINK_STATUS;
+                    result.put(0, status ? 1 : 0);
+                    return null;
+                }
+                Class<?> type = method.getReturnType();
+                if (type == int.class) return 0;
+                if (type == boolean.class) return false;
+                if (type == float.class) return 0f;
+                if (type == String.class) return "";
+                return null;
+            }
+        };
+        return (GL20) Proxy.newProxyInstance(StubGL.class.getClassLoader(), new Class<?>[] {GL20.class}, handler);
+    }
+}
@@ -0,0 +1,250 @@
+package com.badlogic.platformer.ai;
+
+import com.badlogic.platformer.input.InputBindings;
+import com.badlogic.platformer.input.InputRing;
+import com.badlogic.platformer.input.InputSource;
+import com.badlogic.platformer.input.SimulatedDevice;
+import com.badlogic.platformer.sim.MatchSimulation;
+import com.badlogic.platformer.sim.MatchState;
+import com.badlogic.platformer.sim.MoveTable;
+import com.badlogic.platformer.sim.PlayerInput;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A CPU player that drives one fighter through the same input path as a keyboard. The thread stepping the match
+ * publishes its state after every tick; a worker thread picks up the latest one, runs a {@link LookaheadSearch} within the
+ * difficulty's time budget and queues the resulting presses and releases on its own device, which
+ * {@link com.badlogic.platformer.input.TickInputSampler} consumes like any other. Neither direction takes a lock:
+ * states travel through a triple buffer swapped with one atomic exchange, presses through the device's
+ * single-producer ring. Nothing is allocated once the worker runs.
+ */
+public class AiOpponent implements InputSource {
+
+    public static final int OFF = -1;
+    public static final int EASY = 0;
+    public static final int NORMAL = 1;
+    public static final int HARD = 2;
+    public static final String[] DIFFICULTY_NAMES = {"Easy", "Normal", "Hard"};
+
+    // Device id of the CPU's buttons, the highest one so real controllers keep the low ids
+    public static final int DEVICE = InputBindings.MAX_DEVICES - 1;
+
+    // Per difficulty: search time per decision, time between decisions and how far rollouts look ahead
+    private static final long[] BUDGET_NANOS = {1_000_000L, 3_000_000L, 8_000_000L};
+    private static final long[] DECISION_INTERVAL_NANOS = {180_000_000L, 90_000_000L, 40_000_000L};
+    private static final float[] HORIZON_SECONDS = {0.25f, 0.5f, 0.75f};
+    private static final float COMMIT_SECONDS = 0.1f;
+    // A decision finishing later than this past its budget counts as an overrun
+    private static final long OVERRUN_TOLERANCE_NANOS = 250_000L;
+    // How long the worker sleeps at most while waiting for a state
+    private static final long IDLE_PARK_NANOS = 5_000_000L;
+
+    private static final int FRESH = 1 << 2;
+    private static final int INDEX = FRESH - 1;
+
+    private final int player;
+    private final int tickRate;
+    private final LookaheadSearch search;
+    private final SimulatedDevice device = new SimulatedDevice(DEVICE);
+
+    // Triple buffer: the game thread fills one snapshot, the worker searches another and the third is the latest
+    // published one, with FRESH set until the worker takes it
+    private final MatchState[] snapshots = new MatchState[3];
+    private final AtomicInteger latest = new AtomicInteger(2);
+    private int writing = 0;
+    private int reading = 1;
+
+    private volatile int difficulty = OFF;
+    private volatile MoveTable pendingMoves;
+    private volatile boolean running;
+    private Thread worker;
+
+    // Buttons the worker has reported down, worker thread only while it runs
+    private int held;
+
+    private final AtomicLong decisions = new AtomicLong();
+    private final AtomicLong rollouts = new AtomicLong();
+    private final AtomicLong overruns = new AtomicLong();
+    private volatile long lastSearchNanos;
+
+    /** An opponent for fighter {@code player} of {@code simulation}'s match, off until a difficulty is set. */
+    public AiOpponent(MatchSimulation simulation, int tickRate, int player) {
+        this.player = player;
+        this.tickRate = tickRate;
+        int count = simulation.getState().fighters.count;
+        for (int i = 0; i < snapshots.length; i++) snapshots[i] = new MatchState(count);
+        search = new LookaheadSearch(simulation.getConfig(), tickRate, count, simulation.getMoves(),
+            simulation.getPlatforms(), player, System.nanoTime());
+    }
+
+    /** The difficulty {@code name} stands for in {@link #DIFFICULTY_NAMES}, {@link #OFF} for anything else. */
+    public static int parseDifficulty(String name) {
+        if (name == null) return OFF;
+        for (int i = 0; i < DIFFICULTY_NAMES.length; i++) {
+            if (DIFFICULTY_NAMES[i].equalsIgnoreCase(name)) return i;
+        }
+        return OFF;
+    }
+
+    /** Binds this opponent's buttons to its fighter, one button per {@link PlayerInput} bit. */
+    public void bind(InputBindings bindings) {
+        for (int bit = 0; bit < PlayerInput.BITS; bit++) {
+            bindings.bind(player, DEVICE, bit, 1 << bit);
+        }
+    }
+
+    /** Starts or stops the worker; stopping also waits for it to finish. Game thread only. */
+    public void setDifficulty(int difficulty) {
+        this.difficulty = difficulty;
+        if (difficulty == OFF) {
+            stop();
+        } else {
+            start();
+        }
+    }
+
+    public int getDifficulty() {
+        return difficulty;
+    }
+
+    /** Hands the state after a tick to the worker, replacing an older one it has not picked up yet. */
+    public void publish(MatchState state) {
+        if (!running) return;
+        snapshots[writing].set(state);
+        writing = latest.getAndSet(writing | FRESH) & INDEX;
+        LockSupport.unpark(worker);
+    }
+
+    /** Moves the worker switches to before its next decision, e.g. after the move file was reloaded. */
+    public void setMoves(MoveTable moves) {
+        pendingMoves = moves;
+    }
+
+    /**
+     * Stops the worker until {@link #resume()}, so the input sampler can drop this device's events without the
+     * worker queuing new ones in between. Game thread only.
+     */
+    public void pause() {
+        stop();
+    }
+
+    /** Restarts the worker after {@link #pause()} with no buttons held, unless the difficulty is off. */
+    public void resume() {
+        if (difficulty != OFF) start();
+    }
+
+    private void start() {
+        if (running) return;
+        running = true;
+        worker = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                search();
+            }
+        }, "ai-opponent");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private void search() {
+        long nextDecision = System.nanoTime();
+        while (running) {
+            long wait = nextDecision - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(this, wait);
+                continue;
+            }
+            if ((latest.get() & FRESH) == 0) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                continue;
+            }
+            reading = latest.getAndSet(reading) & INDEX;
+
+            MoveTable moves = pendingMoves;
+            if (moves != null) {
+                pendingMoves = null;
+                search.setMoves(moves);
+            }
+
+            int level = difficulty;
+            if (level == OFF) continue;
+            search.setHorizon(Math.round(HORIZON_SECONDS[level] * tickRate), Math.round(COMMIT_SECONDS * tickRate));
+            long start = System.nanoTime();
+            int action = search.decide(snapshots[reading], start + BUDGET_NANOS[level]);
+            long end = System.nanoTime();
+            press(action, end);
+
+            lastSearchNanos = end - start;
+            decisions.lazySet(decisions.get() + 1);
+            rollouts.lazySet(rollouts.get() + search.getRollouts());
+            if (end - start > BUDGET_NANOS[level] + OVERRUN_TOLERANCE_NANOS) overruns.lazySet(overruns.get() + 1);
+            nextDecision = start + DECISION_INTERVAL_NANOS[level];
+        }
+    }
+
+    /** Queues the changes from the buttons held so far; jump and attack are tapped since they act on a press. */
+    private void press(int action, long timeNanos) {
+        for (int bit = 0; bit < PlayerInput.BITS; bit++) {
+            int button = 1 << bit;
+            boolean down = (action & button) != 0;
+            if ((button & LookaheadSearch.HELD) == 0) {
+                if (down) device.tap(bit, timeNanos, 1L);
+            } else if (down != ((held & button) != 0)) {
+                boolean queued = down ? device.press(bit, timeNanos) : device.release(bit, timeNanos);
+                // A full queue keeps the old state so the change is retried next decision
+                if (queued) held ^= button;
+            }
+        }
+    }
+
+    private void stop() {
+        if (!running) return;
+        running = false;
+        LockSupport.unpark(worker);
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        worker = null;
+        held = PlayerInput.NONE;
+    }
+
+    /** Decisions made so far, for the metrics overlay. */
+    public long getDecisions() {
+        return decisions.get();
+    }
+
+    /** Rollouts played so far over all decisions. */
+    public long getRollouts() {
+        return rollouts.get();
+    }
+
+    /** Decisions that ran past their time budget. */
+    public long getOverruns() {
+        return overruns.get();
+    }
+
+    /** Wall time of the last search. */
+    public long getLastSearchNanos() {
+        return lastSearchNanos;
+    }
+
+    @Override
+    public int getDevice() {
+        return DEVICE;
+    }
+
+    @Override
+    public InputRing getEvents() {
+        return device.getEvents();
+    }
+
+    /** Stops the worker. */
+    public void dispose() {
+        stop();
+    }
+}
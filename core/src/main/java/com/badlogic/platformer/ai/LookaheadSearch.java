@@ -0,0 +1,170 @@
+package com.badlogic.platformer.ai;
+
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.platformer.sim.FighterStore;
+import com.badlogic.platformer.sim.MatchConfig;
+import com.badlogic.platformer.sim.MatchSimulation;
+import com.badlogic.platformer.sim.MatchState;
+import com.badlogic.platformer.sim.MoveTable;
+import com.badlogic.platformer.sim.Platforms;
+import com.badlogic.platformer.sim.PlayerInput;
+import com.badlogic.platformer.sim.ScriptedBot;
+
+/**
+ * Picks the next action of one fighter by playing the match forward on a private simulation. Each rollout copies
+ * the root state, commits to one candidate action for a few ticks, then continues with random actions while the
+ * other fighters follow {@link ScriptedBot}. Rollouts are spread over the candidates with UCB1 until the deadline,
+ * and the most tried candidate wins, so a larger budget means more rollouts and a steadier choice. Nothing is
+ * allocated per decision.
+ */
+public class LookaheadSearch {
+
+    // Candidate actions; jump and attack only act on a fresh press, so they are pressed on the first tick only
+    static final int[] ACTIONS = {
+        PlayerInput.NONE,
+        PlayerInput.LEFT,
+        PlayerInput.RIGHT,
+        PlayerInput.JUMP,
+        PlayerInput.ATTACK,
+        PlayerInput.LEFT | PlayerInput.JUMP,
+        PlayerInput.RIGHT | PlayerInput.JUMP,
+        PlayerInput.LEFT | PlayerInput.ATTACK,
+        PlayerInput.RIGHT | PlayerInput.ATTACK,
+    };
+    static final int HELD = PlayerInput.LEFT | PlayerInput.RIGHT;
+
+    private static final float EXPLORATION = 1.4f;
+    // Health lost counts a little more than health taken, winning or losing outweighs both
+    private static final float DAMAGE_TAKEN_WEIGHT = 1.2f;
+    private static final float GAME_OVER_SCORE = 2f;
+    // Small pull towards the nearest opponent so an even trade still walks into range
+    private static final float DISTANCE_WEIGHT = 0.1f;
+
+    private final MatchConfig config;
+    private final MatchSimulation simulation;
+    private final int self;
+    private final int[] inputs;
+    private final RandomXS128 random;
+
+    private final float[] totals = new float[ACTIONS.length];
+    private final int[] visits = new int[ACTIONS.length];
+
+    private int horizonTicks;
+    private int commitTicks;
+    private int rollouts;
+
+    public LookaheadSearch(MatchConfig config, int tickRate, int fighterCount, MoveTable moves, Platforms platforms,
+                           int self, long seed) {
+        this.config = new MatchConfig(config);
+        this.simulation = new MatchSimulation(this.config, tickRate, fighterCount, moves);
+        this.simulation.setPlatforms(platforms);
+        this.self = self;
+        this.inputs = new int[fighterCount];
+        this.random = new RandomXS128(seed);
+        setHorizon(tickRate / 2, Math.max(1, tickRate / 10));
+    }
+
+    /** Ticks each rollout looks ahead, and how many of them the candidate action is held for. */
+    public void setHorizon(int horizonTicks, int commitTicks) {
+        this.horizonTicks = Math.max(1, horizonTicks);
+        this.commitTicks = Math.max(1, Math.min(this.horizonTicks, commitTicks));
+    }
+
+    public void setMoves(MoveTable moves) {
+        simulation.setMoves(moves);
+    }
+
+    /**
+     * Searches from {@code root} until {@code deadlineNanos} on the {@link System#nanoTime()} clock and returns the
+     * {@link PlayerInput} bits to press. At least one rollout runs, so the deadline can be overshot by one.
+     */
+    public int decide(MatchState root, long deadlineNanos) {
+        rollouts = 0;
+        if (root.gameOver || root.fighters.health[self] <= 0) return PlayerInput.NONE;
+
+        for (int a = 0; a < ACTIONS.length; a++) {
+            totals[a] = 0f;
+            visits[a] = 0;
+        }
+        do {
+            // Every candidate once, then the best upper bound
+            int a = rollouts < ACTIONS.length ? rollouts : select();
+            totals[a] += rollout(root, ACTIONS[a]);
+            visits[a]++;
+            rollouts++;
+        } while (System.nanoTime() - deadlineNanos < 0);
+
+        int best = 0;
+        for (int a = 1; a < ACTIONS.length; a++) {
+            if (visits[a] > visits[best]
+                || (visits[a] == visits[best] && visits[a] > 0 && totals[a] / visits[a] > totals[best] / visits[best])) {
+                best = a;
+            }
+        }
+        return ACTIONS[best];
+    }
+
+    private int select() {
+        float logTotal = (float) Math.log(rollouts);
+        int best = 0;
+        float bestBound = -Float.MAX_VALUE;
+        for (int a = 0; a < ACTIONS.length; a++) {
+            float bound = totals[a] / visits[a] + EXPLORATION * (float) Math.sqrt(logTotal / visits[a]);
+            if (bound > bestBound) {
+                bestBound = bound;
+                best = a;
+            }
+        }
+        return best;
+    }
+
+    /** Plays one line from {@code root} and scores where it ends, between 0 and 1. */
+    private float rollout(MatchState root, int action) {
+        MatchState state = simulation.getState();
+        state.set(root);
+        int current = action;
+        for (int t = 0; t < horizonTicks && !state.gameOver; t++) {
+            int segmentTick = t % commitTicks;
+            if (t > 0 && segmentTick == 0) current = ACTIONS[random.nextInt(ACTIONS.length)];
+            for (int i = 0; i < inputs.length; i++) {
+                if (i == self) {
+                    inputs[i] = segmentTick == 0 ? current : current & HELD;
+                } else {
+                    inputs[i] = ScriptedBot.think(state, config, i);
+                }
+            }
+            simulation.step(inputs);
+        }
+        return score(root, state);
+    }
+
+    private float score(MatchState root, MatchState end) {
+        FighterStore before = root.fighters;
+        FighterStore after = end.fighters;
+        float maxHealth = config.maxHealth;
+
+        float score = -DAMAGE_TAKEN_WEIGHT * (before.health[self] - after.health[self]) / maxHealth;
+        float nearest = Float.MAX_VALUE;
+        for (int i = 0; i < after.count; i++) {
+            if (i == self) continue;
+            score += (before.health[i] - after.health[i]) / maxHealth;
+            if (after.health[i] > 0) nearest = Math.min(nearest, Math.abs(after.x[i] - after.x[self]));
+        }
+        if (nearest != Float.MAX_VALUE) score -= DISTANCE_WEIGHT * Math.min(1f, nearest / config.arenaWidth);
+
+        if (end.gameOver) {
+            if (end.winner == self) {
+                score += GAME_OVER_SCORE;
+            } else if (end.winner >= 0) {
+                score -= GAME_OVER_SCORE;
+            }
+        }
+        // Squash into 0..1 for the exploration term
+        return 0.5f + 0.5f * score / (Math.abs(score) + 1f);
+    }
+
+    /** Rollouts run by the last {@link #decide}. */
+    public int getRollouts() {
+        return rollouts;
+    }
+}
@@ -0,0 +1,56 @@
+package com.badlogic.platformer.balance;
+
+import com.badlogic.platformer.sim.MatchConfig;
+import com.badlogic.platformer.sim.MatchState;
+import com.badlogic.platformer.sim.PlayerInput;
+import com.badlogic.platformer.sim.ScriptedBot;
+
+/**
+ * {@link ScriptedBot} with seeded noise, so that matches between two bots don't all play out the same. With the
+ * given probability per tick it holds a random input instead of the scripted one for a few ticks. The generator is
+ * a plain xorshift held in a field, so reseeding for the next match allocates nothing.
+ */
+public class BalanceBot {
+
+    private final float mistakeChance;
+    private long random;
+    private int mistakeTicks;
+    private int mistakeInput;
+
+    public BalanceBot(float mistakeChance) {
+        this.mistakeChance = mistakeChance;
+    }
+
+    public void reset(long seed) {
+        // Mix the seed so neighbouring match indices don't start with similar sequences
+        long z = seed + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        random = (z ^ (z >>> 31)) | 1;
+        mistakeTicks = 0;
+    }
+
+    public int think(MatchState state, MatchConfig config, int self) {
+        if (mistakeTicks > 0) {
+            mistakeTicks--;
+            return mistakeInput;
+        }
+        if (nextFloat() < mistakeChance) {
+            mistakeInput = (int) (next() & PlayerInput.MASK);
+            mistakeTicks = 1 + (int) (next() & 15);
+            return mistakeInput;
+        }
+        return ScriptedBot.think(state, config, self);
+    }
+
+    private long next() {
+        random ^= random << 13;
+        random ^= random >>> 7;
+        random ^= random << 17;
+        return random;
+    }
+
+    private float nextFloat() {
+        return (next() >>> 40) * 0x1.0p-24f;
+    }
+}
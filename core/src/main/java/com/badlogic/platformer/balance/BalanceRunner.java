@@ -0,0 +1,297 @@
+package com.badlogic.platformer.balance;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.platformer.sim.FighterStore;
+import com.badlogic.platformer.sim.FixedTimestep;
+import com.badlogic.platformer.sim.MatchConfig;
+import com.badlogic.platformer.sim.MatchSimulation;
+import com.badlogic.platformer.sim.MatchState;
+import com.badlogic.platformer.sim.MoveTable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Plays large numbers of bot-vs-bot matches headless to see how the match constants affect the game. Matches are
+ * split over every core with a fork-join pool; each leaf task reuses one simulation and two bots for all of its
+ * matches, so a run makes almost no garbage, and merges its totals as soon as it is done so progress can be
+ * reported while the run continues.
+ *
+ * <p>Usage: {@code BalanceRunner [matches=N] [moves=path] [gravity=a,b,..] [moveSpeed=..] [jumpSpeed=..]
+ * [damage.<move>=..] [attackDuration=..] [attackDamage=..] [mistakes=..]}. Every combination of the listed values
+ * is run in turn and printed as CSV.
+ *
+ * <p>Matches use the move file the game plays with, {@code assets/moves.json} by default, and {@code damage.jab}
+ * and the like sweep the damage of single moves in it. {@code moves=none} plays the built-in single attack
+ * instead, which is the only case {@code attackDuration} and {@code attackDamage} apply to.
+ */
+public class BalanceRunner {
+
+    // Matches played by one leaf task before it reports back
+    private static final int BATCH = 512;
+    // Matches still running after 99 seconds count as timeouts
+    private static final int MAX_SECONDS = 99;
+
+    // Relative to the project root, where the balance task runs
+    private static final String DEFAULT_MOVES = "assets/moves.json";
+    private static final String NO_MOVES = "none";
+    private static final String DAMAGE_PREFIX = "damage.";
+    // gravity, moveSpeed, jumpSpeed, attackDuration and attackDamage, the damage.<move> parameters follow
+    private static final int FIXED_PARAMETERS = 5;
+
+    private final MatchConfig config;
+    private final MoveTable moves;
+    private final int tickRate;
+    private final int matches;
+    private final float mistakeChance;
+    private final long seed;
+
+    // Totals merged in by finished batches
+    private final BalanceStats total = new BalanceStats();
+
+    /** Plays with {@code moves}, or the built-in attack of {@code config} if null. */
+    public BalanceRunner(MatchConfig config, MoveTable moves, int tickRate, int matches, float mistakeChance,
+                         long seed) {
+        this.config = new MatchConfig(config);
+        this.moves = moves != null ? moves : MoveTable.defaults(this.config, tickRate);
+        this.tickRate = tickRate;
+        this.matches = matches;
+        this.mistakeChance = mistakeChance;
+        this.seed = seed;
+    }
+
+    /** Starts the run on {@code pool} and returns immediately; poll {@link #snapshot(BalanceStats)} for progress. */
+    public ForkJoinTask<Void> start(ForkJoinPool pool) {
+        total.clear();
+        return pool.submit(new MatchRange(0, matches));
+    }
+
+    /** Copies the totals merged so far into {@code out}. */
+    public void snapshot(BalanceStats out) {
+        synchronized (total) {
+            out.set(total);
+        }
+    }
+
+    private void merge(BalanceStats batch) {
+        synchronized (total) {
+            total.add(batch);
+        }
+    }
+
+    private class MatchRange extends RecursiveAction {
+        private final int from;
+        private final int to;
+
+        MatchRange(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > BATCH) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new MatchRange(from, middle), new MatchRange(middle, to));
+                return;
+            }
+
+            // The move table is only read, every batch shares it
+            MatchSimulation simulation = new MatchSimulation(config, tickRate, 2, moves);
+            BalanceBot bot1 = new BalanceBot(mistakeChance);
+            BalanceBot bot2 = new BalanceBot(mistakeChance);
+            BalanceStats stats = new BalanceStats();
+            int[] inputs = new int[2];
+            int[] health = new int[2];
+            for (int match = from; match < to; match++) {
+                bot1.reset(seed + match * 2L);
+                bot2.reset(seed + match * 2L + 1);
+                playMatch(simulation, bot1, bot2, inputs, health, stats);
+            }
+            merge(stats);
+        }
+    }
+
+    private void playMatch(MatchSimulation simulation, BalanceBot bot1, BalanceBot bot2, int[] inputs, int[] health,
+                           BalanceStats stats) {
+        simulation.reset();
+        MatchState state = simulation.getState();
+        FighterStore fighters = state.fighters;
+        int maxTicks = MAX_SECONDS * tickRate;
+
+        int tick = 0;
+        while (!state.gameOver && tick < maxTicks) {
+            inputs[0] = bot1.think(state, config, 0);
+            inputs[1] = bot2.think(state, config, 1);
+            health[0] = fighters.health[0];
+            health[1] = fighters.health[1];
+            simulation.step(inputs);
+            tick++;
+
+            // Every drop in health is one landed hit
+            for (int i = 0; i < 2; i++) {
+                int lost = health[i] - fighters.health[i];
+                if (lost > 0) {
+                    stats.hits++;
+                    stats.damage += lost;
+                }
+            }
+        }
+
+        stats.matches++;
+        stats.ticks += tick;
+        if (!state.gameOver) {
+            stats.timeouts++;
+            stats.draws++;
+        } else if (state.winner == 0) {
+            stats.player1Wins++;
+        } else if (state.winner == 1) {
+            stats.player2Wins++;
+        } else {
+            stats.draws++;
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int matches = 1000000;
+        float[] mistakes = { 0.05f };
+        String movesPath = DEFAULT_MOVES;
+        boolean attackGiven = false;
+        MatchConfig base = new MatchConfig();
+        List<float[]> values = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        names.add("gravity");
+        names.add("moveSpeed");
+        names.add("jumpSpeed");
+        names.add("attackDuration");
+        names.add("attackDamage");
+        values.add(new float[] { base.gravity });
+        values.add(new float[] { base.moveSpeed });
+        values.add(new float[] { base.jumpSpeed });
+        values.add(new float[] { base.attackDuration });
+        values.add(new float[] { base.attackDamage });
+
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 0) throw new IllegalArgumentException("Expected name=value[,value...]: " + arg);
+            String name = arg.substring(0, separator);
+            if (name.equals("moves")) {
+                movesPath = arg.substring(separator + 1);
+                continue;
+            }
+            float[] parsed = parseList(arg.substring(separator + 1));
+            if (name.equals("matches")) {
+                matches = (int) parsed[0];
+            } else if (name.equals("mistakes")) {
+                mistakes = parsed;
+            } else if (name.startsWith(DAMAGE_PREFIX)) {
+                names.add(name);
+                values.add(parsed);
+            } else {
+                int index = names.indexOf(name);
+                if (index < 0) throw new IllegalArgumentException("Unknown parameter: " + name);
+                values.set(index, parsed);
+                attackGiven |= name.equals("attackDuration") || name.equals("attackDamage");
+            }
+        }
+
+        // Read once, compiled again for every row so the damage overrides start from the file's values
+        String movesJson = movesPath.equals(NO_MOVES) ? null : readMoves(movesPath);
+        if (movesJson != null && attackGiven) {
+            throw new IllegalArgumentException("attackDuration and attackDamage only apply with moves=" + NO_MOVES);
+        }
+        if (movesJson == null && names.size() > FIXED_PARAMETERS) {
+            throw new IllegalArgumentException("damage.<move> needs a move file");
+        }
+
+        ForkJoinPool pool = new ForkJoinPool();
+        System.out.println("# " + matches + " matches per row on " + pool.getParallelism() + " threads");
+        System.out.println("# moves: " + (movesJson == null ? "built-in attack" : movesPath));
+        System.out.println(String.join(",", names) + ",mistakes," + BalanceStats.header() + ",matches_per_second");
+
+        // Every combination of the given values, first parameter varying slowest
+        int[] choice = new int[names.size()];
+        MatchConfig config = new MatchConfig();
+        BalanceStats progress = new BalanceStats();
+        do {
+            config.gravity = values.get(0)[choice[0]];
+            config.moveSpeed = values.get(1)[choice[1]];
+            config.jumpSpeed = values.get(2)[choice[2]];
+            config.attackDuration = values.get(3)[choice[3]];
+            config.attackDamage = (int) values.get(4)[choice[4]];
+            MoveTable moves = null;
+            StringBuilder moveColumns = new StringBuilder();
+            if (movesJson != null) {
+                moves = MoveTable.parse(movesJson, config);
+                for (int i = FIXED_PARAMETERS; i < names.size(); i++) {
+                    int damage = (int) values.get(i)[choice[i]];
+                    moves.damage[findMove(moves, names.get(i).substring(DAMAGE_PREFIX.length()))] = damage;
+                    moveColumns.append(',').append(damage);
+                }
+            }
+            for (float mistakeChance : mistakes) {
+                String row = String.format(Locale.ROOT, "%s,%s,%s,%s,%d%s,%s", config.gravity, config.moveSpeed,
+                    config.jumpSpeed, config.attackDuration, config.attackDamage, moveColumns, mistakeChance);
+                BalanceRunner runner = new BalanceRunner(config, moves, FixedTimestep.DEFAULT_TICK_RATE, matches,
+                    mistakeChance, 0x5EEDL);
+                long start = System.nanoTime();
+                ForkJoinTask<Void> task = runner.start(pool);
+
+                // Stream the partial totals while the batches come in
+                while (!task.isDone()) {
+                    Thread.sleep(1000);
+                    runner.snapshot(progress);
+                    if (!task.isDone()) System.err.println("# " + row + "," + progress.toCsv(FixedTimestep.DEFAULT_TICK_RATE));
+                }
+                task.join();
+
+                runner.snapshot(progress);
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.println(row + "," + progress.toCsv(FixedTimestep.DEFAULT_TICK_RATE) + ","
+                    + Math.round(progress.matches / seconds));
+            }
+        } while (nextCombination(choice, values));
+        pool.shutdown();
+    }
+
+    private static boolean nextCombination(int[] choice, List<float[]> values) {
+        for (int i = choice.length - 1; i >= 0; i--) {
+            if (++choice[i] < values.get(i).length) return true;
+            choice[i] = 0;
+        }
+        return false;
+    }
+
+    private static float[] parseList(String list) {
+        String[] parts = list.split(",");
+        float[] parsed = new float[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            parsed[i] = Float.parseFloat(parts[i]);
+        }
+        return parsed;
+    }
+
+    private static String readMoves(String path) {
+        try {
+            return new String(Files.readAllBytes(Paths.get(path)), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Could not read move file " + path + ", moves=" + NO_MOVES
+                + " plays the built-in attack", e);
+        }
+    }
+
+    private static int findMove(MoveTable moves, String name) {
+        for (int i = 0; i < moves.moveCount; i++) {
+            if (moves.names[i].equals(name)) return i;
+        }
+        throw new IllegalArgumentException("No move named " + name + " in the move file");
+    }
+}
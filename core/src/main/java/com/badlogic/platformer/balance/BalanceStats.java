@@ -0,0 +1,60 @@
+package com.badlogic.platformer.balance;
+
+/**
+ * Running totals over many matches. Each worker fills its own instance without locking and merges it into the
+ * shared one with {@link #add(BalanceStats)} once it has finished a batch.
+ */
+public class BalanceStats {
+
+    public long matches;
+    public long player1Wins;
+    public long player2Wins;
+    public long draws;
+    // Matches stopped at the tick limit, also counted as draws
+    public long timeouts;
+    public long ticks;
+    public long hits;
+    public long damage;
+
+    public void add(BalanceStats other) {
+        matches += other.matches;
+        player1Wins += other.player1Wins;
+        player2Wins += other.player2Wins;
+        draws += other.draws;
+        timeouts += other.timeouts;
+        ticks += other.ticks;
+        hits += other.hits;
+        damage += other.damage;
+    }
+
+    public void set(BalanceStats other) {
+        clear();
+        add(other);
+    }
+
+    public void clear() {
+        matches = player1Wins = player2Wins = draws = timeouts = ticks = hits = damage = 0;
+    }
+
+    public static String header() {
+        return "matches,p1_win_rate,p2_win_rate,draw_rate,timeout_rate,avg_seconds,hits_per_match,damage_per_second";
+    }
+
+    /** One CSV line matching {@link #header()}. */
+    public String toCsv(int tickRate) {
+        double perMatch = Math.max(1, matches);
+        double seconds = (double) ticks / tickRate;
+        return matches
+            + "," + format(player1Wins / perMatch)
+            + "," + format(player2Wins / perMatch)
+            + "," + format(draws / perMatch)
+            + "," + format(timeouts / perMatch)
+            + "," + format(seconds / perMatch)
+            + "," + format(hits / perMatch)
+            + "," + format(seconds > 0 ? damage / seconds : 0);
+    }
+
+    private static String format(double value) {
+        return String.format(java.util.Locale.ROOT, "%.3f", value);
+    }
+}
@@ -0,0 +1,97 @@
+package com.badlogic.platformer.fx;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
+
+/**
+ * Hit sparks, dust and screen flashes on top of one {@link ParticleSystem}. Effects are only particles and a flash
+ * timer, so triggering them allocates nothing. Particle counts are scaled by the effect density, which the frame
+ * governor lowers when frames run long.
+ */
+public class MatchEffects {
+
+    private static final int SPARK_COUNT = 24;
+    private static final int SPARK_COLOR = 0xFFE070;
+    private static final int DUST_COUNT = 10;
+    private static final int DUST_COLOR = 0xB8A890;
+    private static final float DUST_GRAVITY = 200f;
+    private static final float SPARK_GRAVITY = -2400f;
+
+    private static final float FLASH_DURATION = 0.08f;
+    private static final float FLASH_ALPHA = 0.35f;
+
+    private final ParticleSystem particles;
+    private float density = 1f;
+    private float flashTime;
+
+    public MatchEffects(int capacity) {
+        particles = new ParticleSystem(capacity);
+    }
+
+    /** Sparks flying out of a hit, mostly in {@code direction} (-1 left, 1 right). */
+    public void hitSpark(float x, float y, float direction) {
+        int count = scaled(SPARK_COUNT);
+        for (int i = 0; i < count; i++) {
+            float angle = MathUtils.random(-60f, 60f);
+            float speed = MathUtils.random(400f, 1200f);
+            float velocityX = MathUtils.cosDeg(angle) * speed * direction;
+            float velocityY = MathUtils.sinDeg(angle) * speed + 300f;
+            particles.spawn(x, y, velocityX, velocityY, SPARK_GRAVITY, MathUtils.random(0.15f, 0.35f),
+                MathUtils.random(10f, 18f), 2f, SPARK_COLOR);
+        }
+    }
+
+    /** A puff of dust along the floor, for jumps and landings. */
+    public void dust(float x, float y) {
+        int count = scaled(DUST_COUNT);
+        for (int i = 0; i < count; i++) {
+            float velocityX = MathUtils.random(-260f, 260f);
+            float velocityY = MathUtils.random(20f, 120f);
+            particles.spawn(x + MathUtils.random(-20f, 20f), y, velocityX, velocityY, DUST_GRAVITY,
+                MathUtils.random(0.3f, 0.5f), MathUtils.random(12f, 20f), 36f, DUST_COLOR);
+        }
+    }
+
+    /** Briefly whitens the whole screen. */
+    public void flash() {
+        flashTime = FLASH_DURATION;
+    }
+
+    private int scaled(int count) {
+        return Math.max(1, Math.round(count * density));
+    }
+
+    public void update(float delta) {
+        particles.update(delta);
+        flashTime = Math.max(0f, flashTime - delta);
+    }
+
+    /** Draws the particles, then the flash over the given area, into a begun batch. */
+    public void draw(Batch batch, TextureRegion particle, TextureRegion white, float x, float y, float width,
+                     float height) {
+        particles.draw(batch, particle);
+        if (flashTime > 0f) {
+            float previousColor = batch.getPackedColor();
+            int alpha = (int) (255 * FLASH_ALPHA * flashTime / FLASH_DURATION);
+            batch.setPackedColor(Color.toFloatBits(255, 255, 255, alpha));
+            batch.draw(white, x, y, width, height);
+            batch.setPackedColor(previousColor);
+        }
+    }
+
+    /** Share of particles to spawn, from 0 to 1. */
+    public void setDensity(float density) {
+        this.density = MathUtils.clamp(density, 0f, 1f);
+    }
+
+    public void clear() {
+        particles.clear();
+        flashTime = 0f;
+    }
+
+    public ParticleSystem getParticles() {
+        return particles;
+    }
+}
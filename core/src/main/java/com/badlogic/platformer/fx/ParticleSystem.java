@@ -0,0 +1,133 @@
+package com.badlogic.platformer.fx;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/**
+ * Fixed pool of particles stored as one primitive array per field. Spawning writes the next free slot and dead
+ * particles are swapped with the last live one, so after construction nothing is allocated and updating walks
+ * the live particles front to back. Every particle is a tinted, fading quad of one region, drawn into the
+ * caller's batch without a flush.
+ */
+public class ParticleSystem {
+
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private final int capacity;
+    private int count;
+    private long dropped;
+
+    private final float[] x;
+    private final float[] y;
+    private final float[] velocityX;
+    private final float[] velocityY;
+    private final float[] gravity;
+    private final float[] age;
+    private final float[] lifetime;
+    private final float[] startSize;
+    private final float[] endSize;
+    // 0xRRGGBB, alpha fades from 1 to 0 over the lifetime
+    private final int[] color;
+
+    public ParticleSystem() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ParticleSystem(int capacity) {
+        this.capacity = capacity;
+        x = new float[capacity];
+        y = new float[capacity];
+        velocityX = new float[capacity];
+        velocityY = new float[capacity];
+        gravity = new float[capacity];
+        age = new float[capacity];
+        lifetime = new float[capacity];
+        startSize = new float[capacity];
+        endSize = new float[capacity];
+        color = new int[capacity];
+    }
+
+    /** Adds a particle, or counts it as dropped when the pool is full. */
+    public boolean spawn(float x, float y, float velocityX, float velocityY, float gravity, float lifetime,
+                         float startSize, float endSize, int rgb) {
+        if (count == capacity) {
+            dropped++;
+            return false;
+        }
+        int i = count++;
+        this.x[i] = x;
+        this.y[i] = y;
+        this.velocityX[i] = velocityX;
+        this.velocityY[i] = velocityY;
+        this.gravity[i] = gravity;
+        this.age[i] = 0f;
+        this.lifetime[i] = lifetime;
+        this.startSize[i] = startSize;
+        this.endSize[i] = endSize;
+        this.color[i] = rgb;
+        return true;
+    }
+
+    public void update(float delta) {
+        int i = 0;
+        while (i < count) {
+            float a = age[i] + delta;
+            if (a >= lifetime[i]) {
+                // Fill the hole with the last particle and look at this slot again
+                remove(i);
+                continue;
+            }
+            age[i] = a;
+            velocityY[i] += gravity[i] * delta;
+            x[i] += velocityX[i] * delta;
+            y[i] += velocityY[i] * delta;
+            i++;
+        }
+    }
+
+    private void remove(int i) {
+        int last = --count;
+        x[i] = x[last];
+        y[i] = y[last];
+        velocityX[i] = velocityX[last];
+        velocityY[i] = velocityY[last];
+        gravity[i] = gravity[last];
+        age[i] = age[last];
+        lifetime[i] = lifetime[last];
+        startSize[i] = startSize[last];
+        endSize[i] = endSize[last];
+        color[i] = color[last];
+    }
+
+    /** Draws every live particle with {@code region}; the batch must be begun and keeps its color. */
+    public void draw(Batch batch, TextureRegion region) {
+        float previousColor = batch.getPackedColor();
+        for (int i = 0; i < count; i++) {
+            float t = age[i] / lifetime[i];
+            float size = startSize[i] + (endSize[i] - startSize[i]) * t;
+            int rgb = color[i];
+            batch.setPackedColor(Color.toFloatBits(rgb >>> 16 & 0xFF, rgb >>> 8 & 0xFF, rgb & 0xFF,
+                (int) ((1f - t) * 255)));
+            batch.draw(region, x[i] - size / 2, y[i] - size / 2, size, size);
+        }
+        batch.setPackedColor(previousColor);
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /** Spawns refused because the pool was full. */
+    public long getDropped() {
+        return dropped;
+    }
+}
@@ -0,0 +1,115 @@
+package com.badlogic.platformer.input;
+
+import com.badlogic.gdx.Input;
+import com.badlogic.platformer.sim.PlayerInput;
+
+import java.util.Arrays;
+
+/**
+ * Which player and {@link PlayerInput} action each device button stands for. A button drives at most one action of
+ * one player; binding it again replaces the old binding. Bindings can be saved as a short string, see
+ * {@link #write()} and {@link #read(String)}.
+ */
+public class InputBindings {
+
+    public static final int KEYBOARD = 0;
+    public static final int MAX_DEVICES = 8;
+    // Covers every libGDX key code and controller button
+    public static final int MAX_CODES = 256;
+    public static final int MAX_PLAYERS = 8;
+
+    // (player + 1) << PlayerInput.BITS | action per device and button, 0 when unbound
+    private final int[] table = new int[MAX_DEVICES * MAX_CODES];
+
+    /** The original keyboard layout: arrows and NUMPAD_0 for player 1, WASD and SPACE for player 2. */
+    public static InputBindings defaults() {
+        InputBindings bindings = new InputBindings();
+        bindings.bind(0, KEYBOARD, Input.Keys.LEFT, PlayerInput.LEFT);
+        bindings.bind(0, KEYBOARD, Input.Keys.RIGHT, PlayerInput.RIGHT);
+        bindings.bind(0, KEYBOARD, Input.Keys.UP, PlayerInput.JUMP);
+        bindings.bind(0, KEYBOARD, Input.Keys.NUMPAD_0, PlayerInput.ATTACK);
+        bindings.bind(1, KEYBOARD, Input.Keys.A, PlayerInput.LEFT);
+        bindings.bind(1, KEYBOARD, Input.Keys.D, PlayerInput.RIGHT);
+        bindings.bind(1, KEYBOARD, Input.Keys.W, PlayerInput.JUMP);
+        bindings.bind(1, KEYBOARD, Input.Keys.SPACE, PlayerInput.ATTACK);
+        return bindings;
+    }
+
+    /** Copies every binding of {@code other}. */
+    public InputBindings set(InputBindings other) {
+        System.arraycopy(other.table, 0, table, 0, table.length);
+        return this;
+    }
+
+    public void bind(int player, int device, int code, int action) {
+        if (player < 0 || player >= MAX_PLAYERS) throw new IllegalArgumentException("Invalid player: " + player);
+        if (action == PlayerInput.NONE || (action & ~PlayerInput.MASK) != 0) {
+            throw new IllegalArgumentException("Invalid action: " + action);
+        }
+        table[index(device, code)] = (player + 1) << PlayerInput.BITS | action;
+    }
+
+    public void unbind(int device, int code) {
+        table[index(device, code)] = 0;
+    }
+
+    /** Removes every button bound to {@code action} of {@code player}, e.g. before binding a new one. */
+    public void unbindAction(int player, int action) {
+        for (int i = 0; i < table.length; i++) {
+            if (table[i] != 0 && player(table[i]) == player && (action(table[i]) & action) != 0) table[i] = 0;
+        }
+    }
+
+    /** Packed player and action of a button, 0 when it is unbound or out of range. */
+    public int lookup(int device, int code) {
+        if (device < 0 || device >= MAX_DEVICES || code < 0 || code >= MAX_CODES) return 0;
+        return table[device * MAX_CODES + code];
+    }
+
+    /** First button of {@code device} bound to {@code action} of {@code player}, or -1. */
+    public int findCode(int player, int device, int action) {
+        for (int code = 0; code < MAX_CODES; code++) {
+            int binding = table[device * MAX_CODES + code];
+            if (binding != 0 && player(binding) == player && action(binding) == action) return code;
+        }
+        return -1;
+    }
+
+    public static int player(int binding) {
+        return (binding >>> PlayerInput.BITS) - 1;
+    }
+
+    public static int action(int binding) {
+        return binding & PlayerInput.MASK;
+    }
+
+    /** Every binding as {@code player:device:code:action} entries separated by commas. */
+    public String write() {
+        StringBuilder out = new StringBuilder(128);
+        for (int i = 0; i < table.length; i++) {
+            if (table[i] == 0) continue;
+            if (out.length() > 0) out.append(',');
+            out.append(player(table[i])).append(':').append(i / MAX_CODES).append(':')
+                .append(i % MAX_CODES).append(':').append(action(table[i]));
+        }
+        return out.toString();
+    }
+
+    /** Replaces all bindings with the ones in a {@link #write()} string. */
+    public void read(String bindings) {
+        Arrays.fill(table, 0);
+        if (bindings.isEmpty()) return;
+        for (String entry : bindings.split(",")) {
+            String[] parts = entry.split(":");
+            if (parts.length != 4) throw new IllegalArgumentException("Invalid binding: " + entry);
+            bind(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]),
+                Integer.parseInt(parts[3]));
+        }
+    }
+
+    private static int index(int device, int code) {
+        if (device < 0 || device >= MAX_DEVICES) throw new IllegalArgumentException("Invalid device: " + device);
+        if (code < 0 || code >= MAX_CODES) throw new IllegalArgumentException("Invalid button: " + code);
+        return device * MAX_CODES + code;
+    }
+}
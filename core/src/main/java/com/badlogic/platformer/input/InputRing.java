@@ -0,0 +1,97 @@
+package com.badlogic.platformer.input;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed size single-producer, single-consumer queue of timestamped button events. The device thread offers, the
+ * thread running the simulation polls; neither locks nor allocates. Events are kept as a timestamp plus one packed
+ * int holding device, button code and whether it went down or up.
+ */
+public final class InputRing {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final long[] times;
+    private final int[] events;
+    private final int mask;
+
+    // Next slot to read, only written by the consumer
+    private final AtomicLong head = new AtomicLong();
+    // Next slot to write, only written by the producer
+    private final AtomicLong tail = new AtomicLong();
+    private long dropped;
+
+    public InputRing() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public InputRing(int capacity) {
+        if (capacity <= 0 || (capacity & (capacity - 1)) != 0) {
+            throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+        }
+        times = new long[capacity];
+        events = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    /** Producer side. Returns false, and counts the event as dropped, when the ring is full. */
+    public boolean offer(long timeNanos, int device, int code, boolean down) {
+        long t = tail.get();
+        if (t - head.get() > mask) {
+            dropped++;
+            return false;
+        }
+        int slot = (int) t & mask;
+        times[slot] = timeNanos;
+        events[slot] = pack(device, code, down);
+        // Publishes the slot to the consumer
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /** Consumer side. */
+    public boolean isEmpty() {
+        return head.get() == tail.get();
+    }
+
+    /** Timestamp of the oldest event, only valid when the ring is not empty. */
+    public long peekTime() {
+        return times[(int) head.get() & mask];
+    }
+
+    /** Packed oldest event, only valid when the ring is not empty. */
+    public int peek() {
+        return events[(int) head.get() & mask];
+    }
+
+    /** Drops the oldest event after it was peeked. */
+    public void remove() {
+        head.lazySet(head.get() + 1);
+    }
+
+    /** Consumer side, throws away everything queued so far. */
+    public void clear() {
+        head.lazySet(tail.get());
+    }
+
+    /** Events the producer could not queue, read from the producer thread. */
+    public long getDropped() {
+        return dropped;
+    }
+
+    static int pack(int device, int code, boolean down) {
+        return device << 16 | code << 1 | (down ? 1 : 0);
+    }
+
+    public static int device(int event) {
+        return event >>> 16;
+    }
+
+    public static int code(int event) {
+        return (event >>> 1) & 0x7FFF;
+    }
+
+    public static boolean isDown(int event) {
+        return (event & 1) != 0;
+    }
+}
@@ -0,0 +1,14 @@
+package com.badlogic.platformer.input;
+
+/**
+ * A keyboard, controller or scripted device that queues timestamped button events for {@link TickInputSampler}.
+ * Timestamps use the {@link System#nanoTime()} clock. Each source produces from one thread only.
+ */
+public interface InputSource {
+
+    /** Device id the events carry, {@link InputBindings} maps buttons per device. */
+    int getDevice();
+
+    /** Events not yet consumed, oldest first. */
+    InputRing getEvents();
+}
@@ -0,0 +1,43 @@
+package com.badlogic.platformer.input;
+
+/**
+ * A controller without hardware: buttons are pressed and released from code, with the time of your choosing.
+ * Stands in for a real pad when checking bindings and tick assignment, from any one thread.
+ */
+public class SimulatedDevice implements InputSource {
+
+    private final int device;
+    private final InputRing events;
+
+    public SimulatedDevice(int device) {
+        this(device, InputRing.DEFAULT_CAPACITY);
+    }
+
+    public SimulatedDevice(int device, int capacity) {
+        this.device = device;
+        this.events = new InputRing(capacity);
+    }
+
+    public boolean press(int button, long timeNanos) {
+        return events.offer(timeNanos, device, button, true);
+    }
+
+    public boolean release(int button, long timeNanos) {
+        return events.offer(timeNanos, device, button, false);
+    }
+
+    /** A press and a release {@code holdNanos} apart, e.g. a tap shorter than one tick. */
+    public boolean tap(int button, long timeNanos, long holdNanos) {
+        return press(button, timeNanos) && release(button, timeNanos + holdNanos);
+    }
+
+    @Override
+    public int getDevice() {
+        return device;
+    }
+
+    @Override
+    public InputRing getEvents() {
+        return events;
+    }
+}
@@ -0,0 +1,89 @@
+package com.badlogic.platformer.input;
+
+import com.badlogic.platformer.sim.PlayerInput;
+
+import java.util.Arrays;
+
+/**
+ * Turns queued button events into per-tick {@link PlayerInput} masks. Each tick consumes the events stamped up to
+ * the end of that tick, so what is pressed between two frames lands on the tick it happened in rather than on the
+ * next frame. A press always shows up for at least one tick, even when the button is released again before the
+ * tick ends.
+ */
+public class TickInputSampler {
+
+    private final InputBindings bindings;
+    private InputSource[] sources = new InputSource[0];
+
+    // How many bound buttons are down per player and action bit, two keys for one action must both be released
+    private final int[][] downCounts;
+    // Actions pressed during the current tick, held for it even if already released
+    private final int[] pressed;
+
+    public TickInputSampler(InputBindings bindings, int players) {
+        this.bindings = bindings;
+        downCounts = new int[players][PlayerInput.BITS];
+        pressed = new int[players];
+    }
+
+    public void addSource(InputSource source) {
+        InputSource[] grown = new InputSource[sources.length + 1];
+        System.arraycopy(sources, 0, grown, 0, sources.length);
+        grown[sources.length] = source;
+        sources = grown;
+    }
+
+    /**
+     * Consumes every event stamped up to {@code tickEndNanos} and writes the actions of each player for that tick
+     * into {@code out}. Ticks must be sampled in order.
+     */
+    public void sample(long tickEndNanos, int[] out) {
+        for (InputSource source : sources) {
+            InputRing events = source.getEvents();
+            while (!events.isEmpty() && events.peekTime() - tickEndNanos <= 0) {
+                apply(events.peek());
+                events.remove();
+            }
+        }
+
+        int players = Math.min(out.length, pressed.length);
+        for (int player = 0; player < players; player++) {
+            out[player] = held(player) | pressed[player];
+            pressed[player] = PlayerInput.NONE;
+        }
+    }
+
+    private void apply(int event) {
+        int binding = bindings.lookup(InputRing.device(event), InputRing.code(event));
+        int player = InputBindings.player(binding);
+        if (binding == 0 || player >= pressed.length) return;
+
+        int action = InputBindings.action(binding);
+        int bit = Integer.numberOfTrailingZeros(action);
+        if (InputRing.isDown(event)) {
+            downCounts[player][bit]++;
+            pressed[player] |= action;
+        } else if (downCounts[player][bit] > 0) {
+            // A release without a press comes from a key that was already down when sampling started
+            downCounts[player][bit]--;
+        }
+    }
+
+    private int held(int player) {
+        int held = PlayerInput.NONE;
+        int[] counts = downCounts[player];
+        for (int bit = 0; bit < counts.length; bit++) {
+            if (counts[bit] > 0) held |= 1 << bit;
+        }
+        return held;
+    }
+
+    /** Drops queued events and forgets held buttons, e.g. when a match starts or resumes. */
+    public void reset() {
+        for (InputSource source : sources) source.getEvents().clear();
+        for (int player = 0; player < pressed.length; player++) {
+            Arrays.fill(downCounts[player], 0);
+            pressed[player] = PlayerInput.NONE;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.badlogic.platformer.net;
+
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * In-process stand-in for a network link, for trying rollback on one machine. Packets sent on one end arrive at
+ * the other after a fixed latency, and a share of them is dropped. Time comes from a {@link Clock} so headless
+ * runs can drive latency in simulated time.
+ */
+public class LoopbackTransport implements Transport {
+
+    /** Source of the current time in nanoseconds. */
+    public interface Clock {
+        long nanoTime();
+    }
+
+    public static final Clock SYSTEM_CLOCK = new Clock() {
+        @Override
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+    };
+
+    private static class Packet {
+        final byte[] data;
+        final int length;
+        final long deliverAt;
+
+        Packet(byte[] data, int length, long deliverAt) {
+            this.data = data;
+            this.length = length;
+            this.deliverAt = deliverAt;
+        }
+    }
+
+    private final ConcurrentLinkedQueue<Packet> inbox = new ConcurrentLinkedQueue<>();
+    private final Clock clock;
+    private final long latencyNanos;
+    private final float lossRate;
+    private final Random random;
+    private LoopbackTransport peer;
+
+    private long sent;
+    private long dropped;
+
+    private LoopbackTransport(Clock clock, long latencyNanos, float lossRate, long seed) {
+        this.clock = clock;
+        this.latencyNanos = latencyNanos;
+        this.lossRate = lossRate;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Creates two connected ends. Latency and loss apply in both directions.
+     *
+     * @param latencyMillis one-way delay
+     * @param lossRate share of packets dropped, from 0 to 1
+     */
+    public static LoopbackTransport[] createPair(long latencyMillis, float lossRate, long seed, Clock clock) {
+        long latencyNanos = latencyMillis * 1_000_000L;
+        LoopbackTransport a = new LoopbackTransport(clock, latencyNanos, lossRate, seed);
+        LoopbackTransport b = new LoopbackTransport(clock, latencyNanos, lossRate, seed + 1);
+        a.peer = b;
+        b.peer = a;
+        return new LoopbackTransport[] {a, b};
+    }
+
+    public static LoopbackTransport[] createPair(long latencyMillis, float lossRate) {
+        return createPair(latencyMillis, lossRate, 0L, SYSTEM_CLOCK);
+    }
+
+    @Override
+    public void send(byte[] data, int length) {
+        sent++;
+        if (random.nextFloat() < lossRate) {
+            dropped++;
+            return;
+        }
+        byte[] copy = new byte[length];
+        System.arraycopy(data, 0, copy, 0, length);
+        // Constant latency keeps the queue ordered by delivery time
+        peer.inbox.add(new Packet(copy, length, clock.nanoTime() + latencyNanos));
+    }
+
+    @Override
+    public int receive(byte[] buffer) {
+        Packet packet = inbox.peek();
+        if (packet == null || packet.deliverAt > clock.nanoTime()) return 0;
+        inbox.poll();
+        int length = Math.min(packet.length, buffer.length);
+        System.arraycopy(packet.data, 0, buffer, 0, length);
+        return length;
+    }
+
+    public long getSent() {
+        return sent;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    @Override
+    public void close() {
+        inbox.clear();
+    }
+}
@@ -0,0 +1,295 @@
+package com.badlogic.platformer.net;
+
+import com.badlogic.platformer.sim.MatchConfig;
+import com.badlogic.platformer.sim.MatchSimulation;
+import com.badlogic.platformer.sim.MatchState;
+import com.badlogic.platformer.sim.PlayerInput;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+/**
+ * Rollback netcode for a two-player match. Every frame the local input is scheduled {@code inputDelay} frames
+ * ahead and sent to the peer together with all inputs it has not acknowledged yet. Frames whose remote input has
+ * not arrived are simulated with a prediction (the last confirmed remote input). When the real input turns out to
+ * differ, the match state is restored from the snapshot taken before that frame and the frames since are simulated
+ * again, all within the same call.
+ * <p>
+ * Snapshots are {@link MatchState} copies kept in a ring buffer, so saving and restoring never allocate.
+ * If the peer falls more than {@link #MAX_PREDICTION} frames behind, {@link #advanceFrame(int)} stalls instead of
+ * predicting further.
+ * <p>
+ * Every packet carries a hash of the match rules: config, move table and platforms. Nothing is simulated until a
+ * packet with the same hash arrives, and a peer playing by other rules is reported by {@link #isRulesMismatch()}
+ * instead of desyncing.
+ */
+public class RollbackSession {
+
+    public static final int MAX_PREDICTION = 8;
+    public static final int DEFAULT_INPUT_DELAY = 2;
+
+    // Ring buffers indexed by frame; must hold more frames than prediction plus input delay
+    private static final int BUFFER_SIZE = 64;
+    private static final int BUFFER_MASK = BUFFER_SIZE - 1;
+
+    // Packet layout: magic, rules hash, generation, ack frame, first input frame, input count, inputs (one byte each)
+    private static final byte MAGIC = 'R';
+    private static final int HEADER_SIZE = 1 + 4 + 1 + 4 + 4 + 1;
+    private static final int MAX_INPUTS_PER_PACKET = BUFFER_SIZE;
+
+    private final MatchSimulation simulation;
+    private final Transport transport;
+    private final int localPlayer;
+    private final int remotePlayer;
+    private final int inputDelay;
+    private final int rulesHash;
+
+    private final int[] localInputs = new int[BUFFER_SIZE];
+    private final int[] remoteInputs = new int[BUFFER_SIZE];
+    // Remote input each frame was last simulated with, to detect mispredictions
+    private final int[] usedRemoteInputs = new int[BUFFER_SIZE];
+    // State at the start of each frame
+    private final MatchState[] snapshots = new MatchState[BUFFER_SIZE];
+    private final int[] stepInputs = new int[2];
+
+    private final byte[] packet = new byte[Transport.MAX_PACKET_SIZE];
+    private final ByteBuffer packetBuffer = ByteBuffer.wrap(packet);
+
+    // Next frame to simulate
+    private int frame;
+    // Every remote input up to and including this frame is known
+    private int confirmedRemoteFrame;
+    // Highest local frame the peer has confirmed, older local inputs need not be sent again
+    private int remoteAck;
+    // Earliest frame that was simulated with a wrong prediction, -1 if none
+    private int rollbackFrame = -1;
+    // Bumped on every rematch; packets of another match are ignored
+    private byte generation;
+    // Set by the first packet with our rules hash, until then nothing is simulated
+    private boolean connected;
+    private boolean rulesMismatch;
+
+    // Stats
+    private long rollbacks;
+    private long resimulatedFrames;
+    private long stalls;
+    private long lastRollbackNanos;
+
+    public RollbackSession(MatchSimulation simulation, Transport transport, int localPlayer, int inputDelay) {
+        if (localPlayer != 0 && localPlayer != 1) throw new IllegalArgumentException("localPlayer must be 0 or 1: " + localPlayer);
+        if (inputDelay < 0 || inputDelay >= BUFFER_SIZE - MAX_PREDICTION - 1) {
+            throw new IllegalArgumentException("inputDelay out of range: " + inputDelay);
+        }
+        this.simulation = simulation;
+        this.transport = transport;
+        this.localPlayer = localPlayer;
+        this.remotePlayer = 1 - localPlayer;
+        this.inputDelay = inputDelay;
+        this.rulesHash = rulesHash(simulation);
+        for (int i = 0; i < BUFFER_SIZE; i++) {
+            snapshots[i] = new MatchState(simulation.getState().fighters.count);
+        }
+        resetFrames();
+    }
+
+    /** Starts a new match. Both peers must call this; until the peer does, this side stalls. */
+    public void reset() {
+        simulation.reset();
+        generation++;
+        resetFrames();
+    }
+
+    /** CRC32 of the tick duration, fighter count, config, move table and platforms, the same on both peers. */
+    public static int rulesHash(MatchSimulation simulation) {
+        int fighterCount = simulation.getState().fighters.count;
+        ByteBuffer rules = ByteBuffer.allocate(4 + 4 + MatchConfig.byteSize()
+            + simulation.getMoves().byteSize() + simulation.getPlatforms().byteSize());
+        rules.putFloat(simulation.getTickDuration());
+        rules.putInt(fighterCount);
+        simulation.getConfig().write(rules);
+        simulation.getMoves().write(rules);
+        simulation.getPlatforms().write(rules);
+        rules.flip();
+        CRC32 crc = new CRC32();
+        crc.update(rules);
+        return (int) crc.getValue();
+    }
+
+    private void resetFrames() {
+        frame = 0;
+        rollbackFrame = -1;
+        remoteAck = -1;
+        // Both sides start with inputDelay empty frames, those never need to be sent
+        for (int i = 0; i < BUFFER_SIZE; i++) {
+            localInputs[i] = PlayerInput.NONE;
+            remoteInputs[i] = PlayerInput.NONE;
+            usedRemoteInputs[i] = PlayerInput.NONE;
+        }
+        confirmedRemoteFrame = inputDelay - 1;
+    }
+
+    /**
+     * Advances the match by one frame with {@code localInput}, rolling back first if a misprediction was detected.
+     *
+     * @return the {@code MatchSimulation.EVENT_*} flags of the new frame, plus game over if a re-simulated frame
+     *     ended the match
+     */
+    public int advanceFrame(int localInput) {
+        receive();
+
+        if (!connected) {
+            // No word from the peer yet, or it plays by other rules
+            send();
+            return 0;
+        }
+
+        if (frame - confirmedRemoteFrame > MAX_PREDICTION) {
+            // Too far ahead of the peer, wait for its inputs instead of predicting further
+            stalls++;
+            send();
+            return 0;
+        }
+
+        localInputs[(frame + inputDelay) & BUFFER_MASK] = localInput;
+        send();
+
+        int events = 0;
+        if (rollbackFrame >= 0) {
+            events |= rollback() & MatchSimulation.EVENT_GAME_OVER;
+        }
+
+        events |= simulateFrame(frame);
+        frame++;
+        return events;
+    }
+
+    private int rollback() {
+        long start = System.nanoTime();
+        int events = 0;
+        simulation.getState().set(snapshots[rollbackFrame & BUFFER_MASK]);
+        for (int f = rollbackFrame; f < frame; f++) {
+            events |= simulateFrame(f);
+            resimulatedFrames++;
+        }
+        rollbacks++;
+        rollbackFrame = -1;
+        lastRollbackNanos = System.nanoTime() - start;
+        return events;
+    }
+
+    private int simulateFrame(int f) {
+        int index = f & BUFFER_MASK;
+        // Predict that the peer keeps holding whatever it held in its last confirmed frame
+        int remote = f <= confirmedRemoteFrame ? remoteInputs[index] : remoteInputs[confirmedRemoteFrame & BUFFER_MASK];
+        usedRemoteInputs[index] = remote;
+        snapshots[index].set(simulation.getState());
+
+        stepInputs[localPlayer] = localInputs[index];
+        stepInputs[remotePlayer] = remote;
+        return simulation.step(stepInputs);
+    }
+
+    private void send() {
+        int first = Math.max(remoteAck + 1, inputDelay);
+        int last = frame + inputDelay;
+        if (frame - confirmedRemoteFrame > MAX_PREDICTION) {
+            // Stalled, we did not schedule an input for this frame
+            last--;
+        }
+        int count = Math.max(0, Math.min(last - first + 1, MAX_INPUTS_PER_PACKET));
+
+        packetBuffer.clear();
+        packetBuffer.put(MAGIC);
+        packetBuffer.putInt(rulesHash);
+        packetBuffer.put(generation);
+        packetBuffer.putInt(confirmedRemoteFrame);
+        packetBuffer.putInt(first);
+        packetBuffer.put((byte) count);
+        for (int i = 0; i < count; i++) {
+            packetBuffer.put((byte) localInputs[(first + i) & BUFFER_MASK]);
+        }
+        transport.send(packet, HEADER_SIZE + count);
+    }
+
+    private void receive() {
+        int length;
+        while ((length = transport.receive(packet)) > 0) {
+            if (length < HEADER_SIZE) continue;
+            packetBuffer.clear();
+            packetBuffer.limit(length);
+            if (packetBuffer.get() != MAGIC) continue;
+            if (packetBuffer.getInt() != rulesHash) {
+                rulesMismatch = true;
+                continue;
+            }
+            connected = true;
+            if (packetBuffer.get() != generation) continue;
+
+            remoteAck = Math.max(remoteAck, packetBuffer.getInt());
+            int first = packetBuffer.getInt();
+            int count = packetBuffer.get() & 0xFF;
+            if (length < HEADER_SIZE + count) continue;
+
+            for (int i = 0; i < count; i++) {
+                int f = first + i;
+                int input = packetBuffer.get() & PlayerInput.MASK;
+                // Inputs are accepted in order only; gaps are filled by the redundant copies in later packets
+                if (f != confirmedRemoteFrame + 1 || f - frame >= BUFFER_SIZE - MAX_PREDICTION) continue;
+
+                int index = f & BUFFER_MASK;
+                remoteInputs[index] = input;
+                confirmedRemoteFrame = f;
+                if (f < frame && usedRemoteInputs[index] != input && (rollbackFrame < 0 || f < rollbackFrame)) {
+                    rollbackFrame = f;
+                }
+            }
+        }
+    }
+
+    /** True when every frame simulated so far used confirmed inputs, i.e. the shown state cannot be rolled back. */
+    public boolean isSettled() {
+        return frame - 1 <= confirmedRemoteFrame && rollbackFrame < 0;
+    }
+
+    /** True once a packet from the peer arrived with other rules; such a session never starts. */
+    public boolean isRulesMismatch() {
+        return rulesMismatch;
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    public int getFrame() {
+        return frame;
+    }
+
+    public int getConfirmedRemoteFrame() {
+        return confirmedRemoteFrame;
+    }
+
+    public int getInputDelay() {
+        return inputDelay;
+    }
+
+    public long getRollbacks() {
+        return rollbacks;
+    }
+
+    public long getResimulatedFrames() {
+        return resimulatedFrames;
+    }
+
+    public long getStalls() {
+        return stalls;
+    }
+
+    /** Wall time of the most recent rollback, restore plus re-simulation. */
+    public long getLastRollbackNanos() {
+        return lastRollbackNanos;
+    }
+
+    public void close() {
+        transport.close();
+    }
+}
@@ -0,0 +1,18 @@
+package com.badlogic.platformer.net;
+
+/**
+ * Unreliable, unordered datagram link to the other player. Implementations must never block:
+ * {@link #receive(byte[])} returns 0 when nothing has arrived yet.
+ */
+public interface Transport {
+
+    /** Largest datagram the rollback protocol sends. */
+    int MAX_PACKET_SIZE = 512;
+
+    void send(byte[] data, int length);
+
+    /** Copies the next pending datagram into {@code buffer} and returns its length, or 0 if there is none. */
+    int receive(byte[] buffer);
+
+    void close();
+}
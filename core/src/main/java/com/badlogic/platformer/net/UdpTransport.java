@@ -0,0 +1,67 @@
+package com.badlogic.platformer.net;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.PortUnreachableException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+/** {@link Transport} over a connected, non-blocking UDP socket. */
+public class UdpTransport implements Transport {
+
+    private final DatagramChannel channel;
+    // Reused for every datagram so sending and receiving do not allocate
+    private final ByteBuffer sendBuffer = ByteBuffer.allocateDirect(MAX_PACKET_SIZE);
+    private final ByteBuffer receiveBuffer = ByteBuffer.allocateDirect(MAX_PACKET_SIZE);
+
+    public UdpTransport(int localPort, String remoteHost, int remotePort) {
+        try {
+            channel = DatagramChannel.open();
+            channel.configureBlocking(false);
+            channel.bind(new InetSocketAddress(localPort));
+            channel.connect(new InetSocketAddress(remoteHost, remotePort));
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Could not open UDP transport on port " + localPort, e);
+        }
+    }
+
+    @Override
+    public void send(byte[] data, int length) {
+        sendBuffer.clear();
+        sendBuffer.put(data, 0, length);
+        sendBuffer.flip();
+        try {
+            channel.write(sendBuffer);
+        } catch (PortUnreachableException e) {
+            // The other side is not listening yet, the next packet repeats everything anyway
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Could not send packet", e);
+        }
+    }
+
+    @Override
+    public int receive(byte[] buffer) {
+        receiveBuffer.clear();
+        try {
+            if (channel.read(receiveBuffer) <= 0) return 0;
+        } catch (PortUnreachableException e) {
+            return 0;
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Could not receive packet", e);
+        }
+        receiveBuffer.flip();
+        int length = Math.min(receiveBuffer.remaining(), buffer.length);
+        receiveBuffer.get(buffer, 0, length);
+        return length;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.badlogic.platformer.replay;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.platformer.net.RollbackSession;
+import com.badlogic.platformer.sim.MatchSimulation;
+import com.badlogic.platformer.sim.MatchState;
+import com.badlogic.platformer.sim.MoveTable;
+import com.badlogic.platformer.sim.Platforms;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The complete state of a running match in one reusable direct buffer, for suspending, resuming and rematches.
+ * Layout, big endian: magic, version (short), tick rate (short), fighter count (int), rules hash (int), the match
+ * config, then the {@link MatchState}. The rules hash is {@link RollbackSession#rulesHash}, so a snapshot taken
+ * with another move table or other platforms is refused. Capturing and restoring only copy primitives between the
+ * simulation and the buffer, so neither allocates once the hash is known; the buffer can be written to or read
+ * from a file as is.
+ */
+public class MatchSnapshot {
+
+    static final int MAGIC = 0x504C534E; // "PLSN"
+    static final int VERSION = 3;
+    static final int HEADER_SIZE = 4 + 2 + 2 + 4 + 4;
+
+    private final int fighterCount;
+    private final ByteBuffer buffer;
+    // The config of the simulation being restored, written here to compare it with the captured one
+    private final ByteBuffer configScratch = ByteBuffer.allocateDirect(ReplayFormat.CONFIG_SIZE);
+    // Rules hash of the last simulation seen, recomputed only when its moves or platforms are swapped
+    private MatchSimulation hashedSimulation;
+    private MoveTable hashedMoves;
+    private Platforms hashedPlatforms;
+    private int rulesHash;
+
+    public MatchSnapshot(int fighterCount) {
+        this.fighterCount = fighterCount;
+        buffer = ByteBuffer.allocateDirect(byteSize(fighterCount));
+    }
+
+    public static int byteSize(int fighterCount) {
+        return HEADER_SIZE + ReplayFormat.CONFIG_SIZE + MatchState.byteSize(fighterCount);
+    }
+
+    /** Copies the simulation's state, replacing whatever this snapshot held. */
+    public void capture(MatchSimulation simulation, int tickRate) {
+        buffer.clear();
+        buffer.putInt(MAGIC);
+        buffer.putShort((short) VERSION);
+        buffer.putShort((short) tickRate);
+        buffer.putInt(fighterCount);
+        buffer.putInt(rulesHash(simulation));
+        simulation.getConfig().write(buffer);
+        simulation.getState().write(buffer);
+        buffer.flip();
+    }
+
+    /**
+     * Puts the captured state back into {@code simulation}. Returns false and leaves the simulation alone if this
+     * snapshot is empty or was taken from a match with another version, tick rate, fighter count, config, move
+     * table or platforms.
+     */
+    public boolean restore(MatchSimulation simulation, int tickRate) {
+        if (!matches(simulation, tickRate)) return false;
+        buffer.position(HEADER_SIZE + ReplayFormat.CONFIG_SIZE);
+        simulation.getState().read(buffer);
+        buffer.rewind();
+        // The hash can collide, and the state is read without bounds checks
+        simulation.dropUnknownMoves();
+        return true;
+    }
+
+    private boolean matches(MatchSimulation simulation, int tickRate) {
+        if (buffer.limit() != buffer.capacity()) return false;
+        if (buffer.getInt(0) != MAGIC || buffer.getShort(4) != VERSION) return false;
+        if (buffer.getShort(6) != tickRate || buffer.getInt(8) != fighterCount) return false;
+        if (buffer.getInt(12) != rulesHash(simulation)) return false;
+        configScratch.clear();
+        simulation.getConfig().write(configScratch);
+        for (int i = 0; i < ReplayFormat.CONFIG_SIZE; i++) {
+            if (configScratch.get(i) != buffer.get(HEADER_SIZE + i)) return false;
+        }
+        return true;
+    }
+
+    private int rulesHash(MatchSimulation simulation) {
+        if (simulation != hashedSimulation || simulation.getMoves() != hashedMoves
+            || simulation.getPlatforms() != hashedPlatforms) {
+            hashedSimulation = simulation;
+            hashedMoves = simulation.getMoves();
+            hashedPlatforms = simulation.getPlatforms();
+            rulesHash = RollbackSession.rulesHash(simulation);
+        }
+        return rulesHash;
+    }
+
+    /** Copies another snapshot of the same fighter count, e.g. to hand it to a thread that writes it out. */
+    public void set(MatchSnapshot other) {
+        buffer.clear();
+        buffer.put(other.buffer);
+        other.buffer.rewind();
+        buffer.flip();
+    }
+
+    /** Tick of the captured state. */
+    public long getTick() {
+        // The state ends with the tick, the game over flag and the winner
+        return buffer.getLong(buffer.capacity() - (8 + 1 + 4));
+    }
+
+    /**
+     * Writes the snapshot next to {@code file} and then moves it over it, so a crash while writing leaves the
+     * previous snapshot intact.
+     */
+    public void save(File file) {
+        File temp = new File(file.getPath() + ".tmp");
+        try (FileChannel channel = new FileOutputStream(temp).getChannel()) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Could not write snapshot " + temp, e);
+        } finally {
+            buffer.rewind();
+        }
+        try {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Could not replace snapshot " + file, e);
+        }
+    }
+
+    /** Reads a snapshot written by {@link #save(File)}, false if there is none or it has the wrong size. */
+    public boolean load(File file) {
+        if (file.length() != buffer.capacity()) return false;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            buffer.clear();
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Keep reading until full or the file ends
+            }
+            buffer.flip();
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Could not read snapshot " + file, e);
+        }
+        return buffer.limit() == buffer.capacity();
+    }
+}
@@ -0,0 +1,50 @@
+package com.badlogic.platformer.replay;
+
+import com.badlogic.platformer.sim.MatchConfig;
+import com.badlogic.platformer.sim.PlayerInput;
+
+/**
+ * Layout of a replay file, all values big endian:
+ * <ul>
+ * <li>header: magic, version (short), tick rate (short), seed (long), fighter count (int), the match config,
+ * tick count, checkpoint interval, checkpoint count, input length, move table length and platforms length (ints)</li>
+ * <li>moves and platforms: the compiled move table and the stage platforms the match was played with</li>
+ * <li>inputs: runs of identical ticks, each a varint run length followed by one packed frame with
+ * {@link PlayerInput#BITS} bits per fighter</li>
+ * <li>checkpoints: tick and input offset (ints) followed by the match state at the start of that tick</li>
+ * </ul>
+ * Runs always break on checkpoint ticks, so playback can start reading inputs at any checkpoint.
+ */
+final class ReplayFormat {
+
+    static final int MAGIC = 0x52504C59; // "RPLY"
+    static final int VERSION = 4;
+
+    // Magic, version, tick rate, seed and fighter count before the config; six ints after it
+    static final int CONFIG_OFFSET = 4 + 2 + 2 + 8 + 4;
+    static final int CONFIG_SIZE = MatchConfig.byteSize();
+    static final int HEADER_SIZE = CONFIG_OFFSET + CONFIG_SIZE + 6 * 4;
+
+    private ReplayFormat() { }
+
+    static int frameBytes(int fighterCount) {
+        return (fighterCount * PlayerInput.BITS + 7) / 8;
+    }
+
+    static void pack(int[] inputs, int fighterCount, byte[] frame) {
+        for (int b = 0; b < frame.length; b++) {
+            frame[b] = 0;
+        }
+        for (int i = 0; i < fighterCount; i++) {
+            int bit = i * PlayerInput.BITS;
+            frame[bit >> 3] |= (inputs[i] & PlayerInput.MASK) << (bit & 7);
+        }
+    }
+
+    static void unpack(byte[] frame, int fighterCount, int[] inputs) {
+        for (int i = 0; i < fighterCount; i++) {
+            int bit = i * PlayerInput.BITS;
+            inputs[i] = (frame[bit >> 3] >> (bit & 7)) & PlayerInput.MASK;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.badlogic.platformer.replay;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.platformer.sim.MatchConfig;
+import com.badlogic.platformer.sim.MatchSimulation;
+import com.badlogic.platformer.sim.MatchState;
+import com.badlogic.platformer.sim.MoveTable;
+import com.badlogic.platformer.sim.Platforms;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Plays back a file written by {@link ReplayRecorder} on its own simulation. The file is memory mapped and read in
+ * place, so playback costs little more than the simulation itself: step once per tick to watch at normal speed, or
+ * call {@link #fastForward(int)} to run headless as fast as the CPU allows. {@link #seek(int)} restores the
+ * closest earlier checkpoint and simulates forward from there.
+ */
+public class ReplayPlayer {
+
+    private final MappedByteBuffer data;
+    private final int tickRate;
+    private final long seed;
+    private final int fighterCount;
+    private final int tickCount;
+    private final int inputStart;
+    private final int checkpointStart;
+    private final int checkpointCount;
+    private final int checkpointSize;
+
+    private final MatchSimulation simulation;
+    private final int[] inputs;
+    private final byte[] frame;
+
+    // Read position in the input runs and how many ticks the current run still covers
+    private int position;
+    private int runRemaining;
+    private int tick;
+
+    public ReplayPlayer(File file) {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Could not open replay " + file, e);
+        }
+
+        if (data.capacity() < ReplayFormat.HEADER_SIZE || data.getInt(0) != ReplayFormat.MAGIC) {
+            throw new GdxRuntimeException("Not a replay file: " + file);
+        }
+        int version = data.getShort(4);
+        if (version != ReplayFormat.VERSION) {
+            throw new GdxRuntimeException("Unsupported replay version " + version + ": " + file);
+        }
+        tickRate = data.getShort(6);
+        seed = data.getLong(8);
+        fighterCount = data.getInt(16);
+        if (fighterCount <= 0) {
+            throw new GdxRuntimeException("Invalid fighter count " + fighterCount + " in replay " + file);
+        }
+
+        ByteBuffer header = data.duplicate();
+        header.position(ReplayFormat.CONFIG_OFFSET);
+        MatchConfig config = new MatchConfig().read(header);
+        tickCount = header.getInt();
+        header.getInt(); // Checkpoint interval, the checkpoints themselves are listed below
+        checkpointCount = header.getInt();
+        int inputLength = header.getInt();
+        int movesLength = header.getInt();
+        int platformsLength = header.getInt();
+        MoveTable moves = MoveTable.read(header, config);
+        Platforms platforms = Platforms.read(header);
+
+        inputStart = ReplayFormat.HEADER_SIZE + movesLength + platformsLength;
+        checkpointStart = inputStart + inputLength;
+        checkpointSize = 8 + MatchState.byteSize(fighterCount);
+
+        simulation = new MatchSimulation(config, tickRate, fighterCount, moves);
+        simulation.setPlatforms(platforms);
+        inputs = new int[fighterCount];
+        frame = new byte[ReplayFormat.frameBytes(fighterCount)];
+        restore(0);
+    }
+
+    /** Advances one tick and returns the simulation's events, or 0 once the replay is over. */
+    public int step() {
+        if (isFinished()) return 0;
+        if (runRemaining == 0) readRun();
+        runRemaining--;
+        tick++;
+        return simulation.step(inputs);
+    }
+
+    /** Advances up to {@code ticks} ticks without stopping and returns all events raised on the way. */
+    public int fastForward(int ticks) {
+        int events = 0;
+        for (int i = 0; i < ticks && !isFinished(); i++) {
+            events |= step();
+        }
+        return events;
+    }
+
+    /** Jumps to {@code target}, clamped to the replay, by restoring a checkpoint and simulating the rest. */
+    public void seek(int target) {
+        target = Math.max(0, Math.min(tickCount, target));
+
+        // Latest checkpoint at or before the target; the recorder always writes one at tick 0
+        int checkpoint = 0;
+        while (checkpoint + 1 < checkpointCount && checkpointTick(checkpoint + 1) <= target) {
+            checkpoint++;
+        }
+
+        // Simulating on from the current tick is cheaper than restoring a checkpoint it has already passed
+        if (target < tick || (checkpointCount > 0 && checkpointTick(checkpoint) > tick)) {
+            restore(checkpoint);
+        }
+        fastForward(target - tick);
+    }
+
+    private void restore(int checkpoint) {
+        if (checkpointCount == 0) {
+            simulation.reset();
+            tick = 0;
+            position = inputStart;
+        } else {
+            int offset = checkpointStart + checkpoint * checkpointSize;
+            tick = data.getInt(offset);
+            position = inputStart + data.getInt(offset + 4);
+            ByteBuffer state = data.duplicate();
+            state.position(offset + 8);
+            simulation.getState().read(state);
+        }
+        runRemaining = 0;
+    }
+
+    private int checkpointTick(int checkpoint) {
+        return data.getInt(checkpointStart + checkpoint * checkpointSize);
+    }
+
+    private void readRun() {
+        int length = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data.get(position++);
+            length |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+
+        for (int i = 0; i < frame.length; i++) {
+            frame[i] = data.get(position++);
+        }
+        ReplayFormat.unpack(frame, fighterCount, inputs);
+        runRemaining = length;
+    }
+
+    public boolean isFinished() {
+        return tick >= tickCount;
+    }
+
+    public MatchSimulation getSimulation() {
+        return simulation;
+    }
+
+    public int getTick() {
+        return tick;
+    }
+
+    public int getTickCount() {
+        return tickCount;
+    }
+
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+}
@@ -0,0 +1,160 @@
+package com.badlogic.platformer.replay;
+
+import com.badlogic.gdx.utils.ByteArray;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.platformer.sim.MatchSimulation;
+import com.badlogic.platformer.sim.MatchState;
+import com.badlogic.platformer.sim.MoveTable;
+import com.badlogic.platformer.sim.Platforms;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Records the inputs of every tick of a match so it can be played back with {@link ReplayPlayer}. Identical ticks
+ * are stored as one run and a copy of the match state is kept every few seconds for seeking, which keeps a
+ * minute of play at a few KB. Call {@link #record(int[])} with the inputs right before each
+ * {@link MatchSimulation#step(int[])}. The file carries the simulation's move table as it is when saved, so begin
+ * again after {@link MatchSimulation#setMoves} swaps it.
+ */
+public class ReplayRecorder {
+
+    // One checkpoint every five seconds at 60 ticks per second
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 300;
+
+    private final MatchSimulation simulation;
+    private final int tickRate;
+    private final long seed;
+    private final int checkpointInterval;
+    private final int fighterCount;
+
+    private final ByteArray inputData = new ByteArray();
+    private final IntArray checkpointTicks = new IntArray();
+    private final IntArray checkpointOffsets = new IntArray();
+    private final ByteArray checkpointStates = new ByteArray();
+    private final ByteBuffer stateBuffer;
+
+    // Current run of identical frames, written once a different frame arrives
+    private final byte[] frame;
+    private final byte[] runFrame;
+    private int runLength;
+    private int tickCount;
+
+    /**
+     * @param seed stored in the header for anything random a match may use; the simulation itself is deterministic
+     */
+    public ReplayRecorder(MatchSimulation simulation, int tickRate, long seed, int checkpointInterval) {
+        if (checkpointInterval <= 0) throw new IllegalArgumentException("checkpointInterval must be positive: " + checkpointInterval);
+        this.simulation = simulation;
+        this.tickRate = tickRate;
+        this.seed = seed;
+        this.checkpointInterval = checkpointInterval;
+        this.fighterCount = simulation.getState().fighters.count;
+        stateBuffer = ByteBuffer.allocate(MatchState.byteSize(fighterCount));
+        frame = new byte[ReplayFormat.frameBytes(fighterCount)];
+        runFrame = new byte[frame.length];
+    }
+
+    /** Drops everything recorded so far, call it whenever the simulation is reset. */
+    public void begin() {
+        inputData.clear();
+        checkpointTicks.clear();
+        checkpointOffsets.clear();
+        checkpointStates.clear();
+        runLength = 0;
+        tickCount = 0;
+    }
+
+    public void record(int[] inputs) {
+        if (tickCount % checkpointInterval == 0) {
+            flushRun();
+            addCheckpoint();
+        }
+
+        ReplayFormat.pack(inputs, fighterCount, frame);
+        if (runLength > 0 && Arrays.equals(frame, runFrame)) {
+            runLength++;
+        } else {
+            flushRun();
+            System.arraycopy(frame, 0, runFrame, 0, frame.length);
+            runLength = 1;
+        }
+        tickCount++;
+    }
+
+    private void addCheckpoint() {
+        checkpointTicks.add(tickCount);
+        checkpointOffsets.add(inputData.size);
+        stateBuffer.clear();
+        simulation.getState().write(stateBuffer);
+        checkpointStates.addAll(stateBuffer.array(), 0, stateBuffer.position());
+    }
+
+    private void flushRun() {
+        if (runLength == 0) return;
+
+        // Unsigned varint, seven bits per byte
+        int value = runLength;
+        while (value >= 0x80) {
+            inputData.add((byte) (value | 0x80));
+            value >>>= 7;
+        }
+        inputData.add((byte) value);
+        inputData.addAll(runFrame, 0, runFrame.length);
+        runLength = 0;
+    }
+
+    /** Writes everything recorded since {@link #begin()} to {@code file}, replacing it. */
+    public void save(File file) {
+        flushRun();
+        MatchSimulation simulation = this.simulation;
+        int checkpoints = checkpointTicks.size;
+        MoveTable moves = simulation.getMoves();
+        int movesSize = moves.byteSize();
+        Platforms platforms = simulation.getPlatforms();
+        int platformsSize = platforms.byteSize();
+        ByteBuffer buffer = ByteBuffer.allocate(ReplayFormat.HEADER_SIZE + movesSize + platformsSize + inputData.size
+            + checkpoints * 8 + checkpointStates.size);
+
+        buffer.putInt(ReplayFormat.MAGIC);
+        buffer.putShort((short) ReplayFormat.VERSION);
+        buffer.putShort((short) tickRate);
+        buffer.putLong(seed);
+        buffer.putInt(fighterCount);
+        simulation.getConfig().write(buffer);
+        buffer.putInt(tickCount);
+        buffer.putInt(checkpointInterval);
+        buffer.putInt(checkpoints);
+        buffer.putInt(inputData.size);
+        buffer.putInt(movesSize);
+        buffer.putInt(platformsSize);
+
+        moves.write(buffer);
+        platforms.write(buffer);
+        buffer.put(inputData.items, 0, inputData.size);
+        int stateSize = MatchState.byteSize(fighterCount);
+        for (int i = 0; i < checkpoints; i++) {
+            buffer.putInt(checkpointTicks.get(i));
+            buffer.putInt(checkpointOffsets.get(i));
+            buffer.put(checkpointStates.items, i * stateSize, stateSize);
+        }
+        buffer.flip();
+
+        try (FileChannel channel = new FileOutputStream(file).getChannel()) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Could not write replay " + file, e);
+        }
+    }
+
+    public int getTickCount() {
+        return tickCount;
+    }
+}
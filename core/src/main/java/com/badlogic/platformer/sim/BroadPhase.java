@@ -0,0 +1,190 @@
+package com.badlogic.platformer.sim;
+
+import java.util.Arrays;
+
+/**
+ * Uniform grid broad phase for axis-aligned boxes. Boxes are added every tick, {@link #build()} sorts them into
+ * cells with a counting sort, and {@link #findPairs()} lists each pair of boxes sharing a cell exactly once.
+ * The grid covers a fixed area; anything outside is clamped into the border cells, which costs some precision but
+ * never loses a pair. All arrays are reused between ticks and only grow if a tick needs more room than any before.
+ */
+public class BroadPhase {
+
+    private final float cellSize;
+    private final float inverseCellSize;
+    private final int columns;
+    private final int rows;
+
+    // Boxes added this tick
+    private int boxCount;
+    private float[] minX;
+    private float[] minY;
+    private float[] maxX;
+    private float[] maxY;
+
+    // Box indices sorted by cell: cell c holds cellEntries[cellStart[c] .. cellStart[c + 1])
+    private final int[] cellStart;
+    private final int[] cellFill;
+    private int[] cellEntries;
+    private int entryCount;
+
+    // Candidate pairs found by the last findPairs()
+    private int pairCount;
+    private int[] pairA;
+    private int[] pairB;
+
+    public BroadPhase(float worldWidth, float worldHeight, float cellSize, int expectedBoxes) {
+        this.cellSize = cellSize;
+        this.inverseCellSize = 1f / cellSize;
+        this.columns = Math.max(1, (int) Math.ceil(worldWidth / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(worldHeight / cellSize));
+        cellStart = new int[columns * rows + 1];
+        cellFill = new int[columns * rows];
+
+        int capacity = Math.max(4, expectedBoxes);
+        minX = new float[capacity];
+        minY = new float[capacity];
+        maxX = new float[capacity];
+        maxY = new float[capacity];
+        cellEntries = new int[capacity * 4];
+        pairA = new int[capacity * 2];
+        pairB = new int[capacity * 2];
+    }
+
+    public void clear() {
+        boxCount = 0;
+        entryCount = 0;
+        pairCount = 0;
+    }
+
+    /** Adds a box and returns its index, which is what pairs refer to. */
+    public int add(float x, float y, float width, float height) {
+        if (boxCount == minX.length) growBoxes();
+        int box = boxCount++;
+        minX[box] = x;
+        minY[box] = y;
+        maxX[box] = x + width;
+        maxY[box] = y + height;
+        return box;
+    }
+
+    /** Sorts the boxes added since {@link #clear()} into their cells. */
+    public void build() {
+        int cells = columns * rows;
+        for (int c = 0; c < cells; c++) {
+            cellFill[c] = 0;
+        }
+
+        // Count how many boxes touch each cell
+        int entries = 0;
+        for (int box = 0; box < boxCount; box++) {
+            int column0 = column(minX[box]), column1 = column(maxX[box]);
+            int row0 = row(minY[box]), row1 = row(maxY[box]);
+            for (int row = row0; row <= row1; row++) {
+                for (int column = column0; column <= column1; column++) {
+                    cellFill[row * columns + column]++;
+                    entries++;
+                }
+            }
+        }
+        if (entries > cellEntries.length) cellEntries = new int[entries * 2];
+        entryCount = entries;
+
+        // Prefix sums give each cell its slice, then fill the slices
+        int offset = 0;
+        for (int c = 0; c < cells; c++) {
+            cellStart[c] = offset;
+            offset += cellFill[c];
+            cellFill[c] = cellStart[c];
+        }
+        cellStart[cells] = offset;
+        for (int box = 0; box < boxCount; box++) {
+            int column0 = column(minX[box]), column1 = column(maxX[box]);
+            int row0 = row(minY[box]), row1 = row(maxY[box]);
+            for (int row = row0; row <= row1; row++) {
+                for (int column = column0; column <= column1; column++) {
+                    cellEntries[cellFill[row * columns + column]++] = box;
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds every pair of boxes that share a cell and whose bounds overlap, and returns how many there are.
+     * Read them with {@link #getPairA(int)} / {@link #getPairB(int)}; {@code a < b} always holds.
+     */
+    public int findPairs() {
+        pairCount = 0;
+        int cells = columns * rows;
+        for (int c = 0; c < cells; c++) {
+            int start = cellStart[c];
+            int end = cellStart[c + 1];
+            for (int i = start; i < end; i++) {
+                int a = cellEntries[i];
+                for (int j = i + 1; j < end; j++) {
+                    int b = cellEntries[j];
+                    if (!boundsOverlap(a, b)) continue;
+                    // A pair spanning several shared cells is only reported from the cell holding the
+                    // lower-left corner of the overlap
+                    float cornerX = Math.max(minX[a], minX[b]);
+                    float cornerY = Math.max(minY[a], minY[b]);
+                    if (row(cornerY) * columns + column(cornerX) != c) continue;
+                    addPair(Math.min(a, b), Math.max(a, b));
+                }
+            }
+        }
+        return pairCount;
+    }
+
+    private boolean boundsOverlap(int a, int b) {
+        return minX[a] < maxX[b] && maxX[a] > minX[b] && minY[a] < maxY[b] && maxY[a] > minY[b];
+    }
+
+    private void addPair(int a, int b) {
+        if (pairCount == pairA.length) {
+            pairA = Arrays.copyOf(pairA, pairCount * 2);
+            pairB = Arrays.copyOf(pairB, pairCount * 2);
+        }
+        pairA[pairCount] = a;
+        pairB[pairCount] = b;
+        pairCount++;
+    }
+
+    private int column(float x) {
+        int column = (int) Math.floor(x * inverseCellSize);
+        return Math.max(0, Math.min(columns - 1, column));
+    }
+
+    private int row(float y) {
+        int row = (int) Math.floor(y * inverseCellSize);
+        return Math.max(0, Math.min(rows - 1, row));
+    }
+
+    private void growBoxes() {
+        int capacity = minX.length * 2;
+        minX = Arrays.copyOf(minX, capacity);
+        minY = Arrays.copyOf(minY, capacity);
+        maxX = Arrays.copyOf(maxX, capacity);
+        maxY = Arrays.copyOf(maxY, capacity);
+    }
+
+    public int getPairA(int pair) {
+        return pairA[pair];
+    }
+
+    public int getPairB(int pair) {
+        return pairB[pair];
+    }
+
+    public int getBoxCount() {
+        return boxCount;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    public float getCellSize() {
+        return cellSize;
+    }
+}
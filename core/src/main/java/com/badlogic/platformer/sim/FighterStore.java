@@ -0,0 +1,75 @@
+package com.badlogic.platformer.sim;
+
+/**
+ * State of every fighter in a match, stored as one primitive array per field (struct of arrays).
+ * A simulation pass walks one or two arrays front to back, which keeps it cache friendly for any number of
+ * fighters, and copying the whole store is a handful of {@code System.arraycopy} calls.
+ */
+public class FighterStore {
+
+    public final int count;
+
+    public final float[] x;
+    public final float[] y;
+    public final float[] velocityX;
+    public final float[] velocityY;
+    public final int[] health;
+    // Move being performed, MoveTable.NO_MOVE when idle, and the frame it is on
+    public final int[] move;
+    public final int[] moveFrame;
+    // The current move already hit someone and can't hit again
+    public final boolean[] moveHit;
+    // Ticks left being knocked back, no control meanwhile
+    public final int[] hitstun;
+    public final boolean[] facingLeft;
+    // Input of the previous tick, used to turn held buttons into "just pressed" edges
+    public final int[] previousInput;
+
+    public FighterStore(int count) {
+        this.count = count;
+        x = new float[count];
+        y = new float[count];
+        velocityX = new float[count];
+        velocityY = new float[count];
+        health = new int[count];
+        move = new int[count];
+        moveFrame = new int[count];
+        moveHit = new boolean[count];
+        hitstun = new int[count];
+        facingLeft = new boolean[count];
+        previousInput = new int[count];
+    }
+
+    public boolean isAttacking(int fighter) {
+        return move[fighter] != MoveTable.NO_MOVE;
+    }
+
+    public void reset(int fighter, float x, float y, int health, boolean facingLeft) {
+        this.x[fighter] = x;
+        this.y[fighter] = y;
+        velocityX[fighter] = 0;
+        velocityY[fighter] = 0;
+        this.health[fighter] = health;
+        move[fighter] = MoveTable.NO_MOVE;
+        moveFrame[fighter] = 0;
+        moveHit[fighter] = false;
+        hitstun[fighter] = 0;
+        this.facingLeft[fighter] = facingLeft;
+        previousInput[fighter] = PlayerInput.NONE;
+    }
+
+    /** Copies {@code other} into this store without allocating. Both stores must have the same count. */
+    public void set(FighterStore other) {
+        System.arraycopy(other.x, 0, x, 0, count);
+        System.arraycopy(other.y, 0, y, 0, count);
+        System.arraycopy(other.velocityX, 0, velocityX, 0, count);
+        System.arraycopy(other.velocityY, 0, velocityY, 0, count);
+        System.arraycopy(other.health, 0, health, 0, count);
+        System.arraycopy(other.move, 0, move, 0, count);
+        System.arraycopy(other.moveFrame, 0, moveFrame, 0, count);
+        System.arraycopy(other.moveHit, 0, moveHit, 0, count);
+        System.arraycopy(other.hitstun, 0, hitstun, 0, count);
+        System.arraycopy(other.facingLeft, 0, facingLeft, 0, count);
+        System.arraycopy(other.previousInput, 0, previousInput, 0, count);
+    }
+}
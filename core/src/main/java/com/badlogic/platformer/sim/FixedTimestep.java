@@ -0,0 +1,60 @@
+package com.badlogic.platformer.sim;
+
+/**
+ * Turns variable render deltas into a whole number of fixed-length simulation ticks.
+ * Leftover time is kept in an accumulator so the simulation runs at the same rate on any frame rate.
+ */
+public class FixedTimestep {
+
+    public static final int DEFAULT_TICK_RATE = 60;
+    // Upper bound on ticks per frame so a long stall does not snowball into ever longer frames
+    public static final int DEFAULT_MAX_TICKS_PER_FRAME = 8;
+
+    private final int tickRate;
+    private final float tickDuration;
+    private final int maxTicksPerFrame;
+    private float accumulator;
+
+    public FixedTimestep() {
+        this(DEFAULT_TICK_RATE, DEFAULT_MAX_TICKS_PER_FRAME);
+    }
+
+    public FixedTimestep(int tickRate, int maxTicksPerFrame) {
+        if (tickRate <= 0) throw new IllegalArgumentException("tickRate must be positive: " + tickRate);
+        if (maxTicksPerFrame <= 0) throw new IllegalArgumentException("maxTicksPerFrame must be positive: " + maxTicksPerFrame);
+        this.tickRate = tickRate;
+        this.tickDuration = 1f / tickRate;
+        this.maxTicksPerFrame = maxTicksPerFrame;
+    }
+
+    /** Adds {@code delta} seconds and returns how many ticks should be simulated this frame. */
+    public int advance(float delta) {
+        accumulator += delta;
+        int ticks = (int) (accumulator / tickDuration);
+        if (ticks > maxTicksPerFrame) {
+            // Drop the time we cannot catch up on instead of running slower and slower
+            ticks = maxTicksPerFrame;
+            accumulator = 0f;
+        } else {
+            accumulator -= ticks * tickDuration;
+        }
+        return ticks;
+    }
+
+    /** How far the simulation is between the last tick and the next one, from 0 to 1. */
+    public float alpha() {
+        return accumulator / tickDuration;
+    }
+
+    public void reset() {
+        accumulator = 0f;
+    }
+
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    public float getTickDuration() {
+        return tickDuration;
+    }
+}
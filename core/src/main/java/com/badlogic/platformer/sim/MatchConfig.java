@@ -0,0 +1,93 @@
+package com.badlogic.platformer.sim;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Tunable rules of a match. The defaults are the values that used to be hard-coded in GameScreen,
+ * so a default config plays like the original game apart from the pushboxes it never had.
+ */
+public class MatchConfig {
+
+    public float gravity = -4500f;
+    public float moveSpeed = 1200f;
+    public float jumpSpeed = 2000f;
+    // The built-in attack, used when no move file is loaded, see MoveTable.defaults
+    public float attackDuration = 0.1f; // Duration of attack animation in seconds
+    public int attackDamage = 10;
+    public int maxHealth = 100;
+
+    // Arena
+    public float arenaWidth = 1920f;
+    public float floorHeight = 150f;
+    public float arenaHeight = 1080f;
+
+    // Fighters share one square body box; the world is clamped using 1.5x that size like before
+    public float fighterSize = 128f;
+    public float boundsScale = 1.5f;
+    public float spawnOffset = 50f;
+
+    // Narrower box centered in the body that fighters can't walk through; 0 lets them overlap freely
+    public float pushboxWidth = 64f;
+
+    public MatchConfig() { }
+
+    public MatchConfig(MatchConfig other) {
+        set(other);
+    }
+
+    public MatchConfig set(MatchConfig other) {
+        gravity = other.gravity;
+        moveSpeed = other.moveSpeed;
+        jumpSpeed = other.jumpSpeed;
+        attackDuration = other.attackDuration;
+        attackDamage = other.attackDamage;
+        maxHealth = other.maxHealth;
+        arenaWidth = other.arenaWidth;
+        floorHeight = other.floorHeight;
+        arenaHeight = other.arenaHeight;
+        fighterSize = other.fighterSize;
+        boundsScale = other.boundsScale;
+        spawnOffset = other.spawnOffset;
+        pushboxWidth = other.pushboxWidth;
+        return this;
+    }
+
+    /** Bytes written by {@link #write(ByteBuffer)}. */
+    public static int byteSize() {
+        return 13 * 4;
+    }
+
+    /** Writes every field, in declaration order, for files that must replay under the same rules. */
+    public void write(ByteBuffer buffer) {
+        buffer.putFloat(gravity);
+        buffer.putFloat(moveSpeed);
+        buffer.putFloat(jumpSpeed);
+        buffer.putFloat(attackDuration);
+        buffer.putInt(attackDamage);
+        buffer.putInt(maxHealth);
+        buffer.putFloat(arenaWidth);
+        buffer.putFloat(floorHeight);
+        buffer.putFloat(arenaHeight);
+        buffer.putFloat(fighterSize);
+        buffer.putFloat(boundsScale);
+        buffer.putFloat(spawnOffset);
+        buffer.putFloat(pushboxWidth);
+    }
+
+    public MatchConfig read(ByteBuffer buffer) {
+        gravity = buffer.getFloat();
+        moveSpeed = buffer.getFloat();
+        jumpSpeed = buffer.getFloat();
+        attackDuration = buffer.getFloat();
+        attackDamage = buffer.getInt();
+        maxHealth = buffer.getInt();
+        arenaWidth = buffer.getFloat();
+        floorHeight = buffer.getFloat();
+        arenaHeight = buffer.getFloat();
+        fighterSize = buffer.getFloat();
+        boundsScale = buffer.getFloat();
+        spawnOffset = buffer.getFloat();
+        pushboxWidth = buffer.getFloat();
+        return this;
+    }
+}
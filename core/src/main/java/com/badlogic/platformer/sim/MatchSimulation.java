@@ -0,0 +1,411 @@
+package com.badlogic.platformer.sim;
+
+import java.util.Arrays;
+
+/**
+ * Deterministic fixed-timestep match logic: gravity, platforms, movement, jumping, moves, pushboxes and game over.
+ * It has no dependency on Gdx statics, so it can run headless (tools, tests, servers) as fast as the CPU allows.
+ * Each call to {@link #step(int[])} advances exactly one tick and reports what happened as event flags,
+ * leaving sounds and drawing to the caller.
+ */
+public class MatchSimulation {
+
+    // Event flags returned by step()
+    public static final int EVENT_JUMP = 1;
+    public static final int EVENT_ATTACK = 1 << 1;
+    public static final int EVENT_HIT = 1 << 2;
+    public static final int EVENT_GAME_OVER = 1 << 3;
+
+    private final MatchConfig config;
+    private final MatchState state;
+    private final float tickDuration;
+    private final BroadPhase broadPhase;
+    private boolean[] landed;
+    private MoveTable moves;
+    private Platforms platforms = Platforms.NONE;
+
+    // Hits found this tick, applied once all of them are known
+    private int hitCount;
+    private int[] hitAttacker;
+    private int[] hitTarget;
+    private int[] hitMove;
+
+    public MatchSimulation(MatchConfig config, int tickRate) {
+        this(config, tickRate, 2);
+    }
+
+    public MatchSimulation(MatchConfig config, int tickRate, int fighterCount) {
+        this(config, tickRate, fighterCount, MoveTable.defaults(config, tickRate));
+    }
+
+    public MatchSimulation(MatchConfig config, int tickRate, int fighterCount, MoveTable moves) {
+        if (tickRate <= 0) throw new IllegalArgumentException("tickRate must be positive: " + tickRate);
+        this.config = config;
+        this.state = new MatchState(fighterCount);
+        this.tickDuration = 1f / tickRate;
+        this.broadPhase = new BroadPhase(config.arenaWidth, config.arenaHeight, config.fighterSize * 2, fighterCount);
+        this.landed = new boolean[fighterCount];
+        this.hitAttacker = new int[fighterCount * 2];
+        this.hitTarget = new int[fighterCount * 2];
+        this.hitMove = new int[fighterCount * 2];
+        this.moves = moves;
+        reset();
+    }
+
+    /** Puts every fighter back on the floor at full health and clears the game over flag. */
+    public void reset() {
+        FighterStore fighters = state.fighters;
+        int count = fighters.count;
+        float center = config.arenaWidth / 2;
+        for (int i = 0; i < count; i++) {
+            float x;
+            if (count <= 2) {
+                // Two fighters start 50 px either side of the center
+                x = center + (i == 0 ? -config.spawnOffset : config.spawnOffset);
+            } else {
+                // Bigger matches spread out evenly over the arena
+                x = config.arenaWidth * (i + 0.5f) / count - config.fighterSize / 2;
+            }
+            fighters.reset(i, x, config.floorHeight, config.maxHealth, x + config.fighterSize / 2 > center);
+        }
+        state.tick = 0;
+        state.gameOver = false;
+        state.winner = MatchState.WINNER_NONE;
+    }
+
+    /**
+     * Advances the match by one tick.
+     *
+     * @param inputs one {@link PlayerInput} bitmask per fighter
+     * @return the {@code EVENT_*} flags raised during this tick
+     */
+    public int step(int[] inputs) {
+        if (state.gameOver) return 0;
+
+        integrate();
+        int events = applyInputs(inputs);
+        events |= checkCollisions();
+        events |= checkGameOver();
+        state.tick++;
+        return events;
+    }
+
+    private void integrate() {
+        FighterStore f = state.fighters;
+        int count = f.count;
+        float delta = tickDuration;
+        float gravityStep = config.gravity * delta;
+        float floor = config.floorHeight;
+        float halfSize = config.fighterSize / 2;
+        float maxX = config.arenaWidth - config.fighterSize * config.boundsScale;
+        Platforms platforms = this.platforms;
+        float[] x = f.x;
+        float[] y = f.y;
+        float[] velocityX = f.velocityX;
+        float[] velocityY = f.velocityY;
+
+        for (int i = 0; i < count; i++) {
+            // Apply gravity and update position
+            float previousY = y[i];
+            velocityY[i] += gravityStep;
+            x[i] += velocityX[i] * delta;
+            y[i] += velocityY[i] * delta;
+
+            // Collision with floor, then with the top of any platform fallen onto this tick
+            if (y[i] <= floor) {
+                y[i] = floor;
+                velocityY[i] = 0;
+            } else if (velocityY[i] <= 0 && platforms.count > 0) {
+                int landing = platforms.findLanding(x[i] + halfSize, previousY, y[i]);
+                if (landing >= 0) {
+                    y[i] = platforms.top[landing];
+                    velocityY[i] = 0;
+                }
+            }
+
+            // Prevent fighters from moving out of bounds
+            x[i] = Math.max(0, Math.min(maxX, x[i]));
+        }
+    }
+
+    private int applyInputs(int[] inputs) {
+        FighterStore f = state.fighters;
+        MoveTable moves = this.moves;
+        int count = f.count;
+        int events = 0;
+
+        for (int i = 0; i < count; i++) {
+            int input = inputs[i];
+            int previous = f.previousInput[i];
+            f.previousInput[i] = input;
+
+            // The current move plays out whatever is held
+            if (f.move[i] != MoveTable.NO_MOVE && ++f.moveFrame[i] >= moves.frameCount[f.move[i]]) {
+                f.move[i] = MoveTable.NO_MOVE;
+            }
+
+            // Knocked back fighters keep their velocity and can't act
+            if (f.hitstun[i] > 0) {
+                f.hitstun[i]--;
+                continue;
+            }
+
+            // Movement (Left/Right), left wins when both are held like the original key checks
+            if (PlayerInput.isHeld(input, PlayerInput.LEFT)) {
+                f.velocityX[i] = -config.moveSpeed;
+            } else if (PlayerInput.isHeld(input, PlayerInput.RIGHT)) {
+                f.velocityX[i] = config.moveSpeed;
+            } else {
+                f.velocityX[i] = 0;
+            }
+
+            // Turning around waits for the current move to finish
+            if (f.move[i] == MoveTable.NO_MOVE && f.velocityX[i] != 0) {
+                f.facingLeft[i] = f.velocityX[i] < 0;
+            }
+
+            // Jumping only from the floor or a platform
+            boolean grounded = isGrounded(i);
+            if (PlayerInput.justPressed(input, previous, PlayerInput.JUMP) && grounded) {
+                f.velocityY[i] = config.jumpSpeed;
+                events |= EVENT_JUMP;
+                grounded = false;
+            }
+
+            // Attack, a new move only starts once the last one recovered
+            if (PlayerInput.justPressed(input, previous, PlayerInput.ATTACK) && f.move[i] == MoveTable.NO_MOVE) {
+                f.move[i] = grounded ? moves.groundAttack : moves.airAttack;
+                f.moveFrame[i] = 0;
+                f.moveHit[i] = false;
+                events |= EVENT_ATTACK;
+            }
+        }
+        return events;
+    }
+
+    private int checkCollisions() {
+        FighterStore f = state.fighters;
+        int count = f.count;
+        float size = config.fighterSize;
+
+        // Body boxes, widened by the longest reach of any move, go through the broad phase; box index == fighter index
+        float reach = moves.getReach();
+        broadPhase.clear();
+        for (int i = 0; i < count; i++) {
+            broadPhase.add(f.x[i] - reach, f.y[i] - reach, size + reach * 2, size + reach * 2);
+        }
+        broadPhase.build();
+        int pairs = broadPhase.findPairs();
+
+        int events = checkAttacks(pairs);
+        resolvePushboxes(pairs);
+        return events;
+    }
+
+    private int checkAttacks(int pairs) {
+        FighterStore f = state.fighters;
+        int count = f.count;
+        boolean[] landed = this.landed;
+        for (int i = 0; i < count; i++) {
+            landed[i] = false;
+        }
+
+        // Every hit of this tick is found before any is applied, so trades hit both ways
+        hitCount = 0;
+        for (int p = 0; p < pairs; p++) {
+            int a = broadPhase.getPairA(p);
+            int b = broadPhase.getPairB(p);
+            if (hits(a, b)) addHit(a, b);
+            if (hits(b, a)) addHit(b, a);
+        }
+        for (int h = 0; h < hitCount; h++) {
+            landHit(hitAttacker[h], hitTarget[h], hitMove[h]);
+            landed[hitAttacker[h]] = true;
+        }
+
+        int events = 0;
+        for (int i = 0; i < count; i++) {
+            if (landed[i]) {
+                // A move only connects once
+                f.moveHit[i] = true;
+                events |= EVENT_HIT;
+            }
+        }
+        return events;
+    }
+
+    private void addHit(int attacker, int target) {
+        if (hitCount == hitAttacker.length) {
+            hitAttacker = Arrays.copyOf(hitAttacker, hitCount * 2);
+            hitTarget = Arrays.copyOf(hitTarget, hitCount * 2);
+            hitMove = Arrays.copyOf(hitMove, hitCount * 2);
+        }
+        // The move is kept since an earlier hit of the same tick may interrupt it
+        hitAttacker[hitCount] = attacker;
+        hitTarget[hitCount] = target;
+        hitMove[hitCount] = state.fighters.move[attacker];
+        hitCount++;
+    }
+
+    /** True if the active hitbox of {@code attacker} overlaps the hurtbox of {@code target} this tick. */
+    private boolean hits(int attacker, int target) {
+        FighterStore f = state.fighters;
+        int move = f.move[attacker];
+        if (move == MoveTable.NO_MOVE || f.moveHit[attacker]) return false;
+
+        MoveTable moves = this.moves;
+        int hit = moves.firstRow[move] + f.moveFrame[attacker];
+        float hitWidth = moves.hitWidth[hit];
+        if (hitWidth <= 0) return false;
+        float hitX = boxX(attacker, moves.hitX[hit], hitWidth);
+        float hitY = f.y[attacker] + moves.hitY[hit];
+
+        // Idle fighters are hurt anywhere on the body
+        float hurtX;
+        float hurtY;
+        float hurtWidth;
+        float hurtHeight;
+        int targetMove = f.move[target];
+        if (targetMove == MoveTable.NO_MOVE) {
+            hurtX = f.x[target];
+            hurtY = f.y[target];
+            hurtWidth = config.fighterSize;
+            hurtHeight = config.fighterSize;
+        } else {
+            int hurt = moves.firstRow[targetMove] + f.moveFrame[target];
+            hurtWidth = moves.hurtWidth[hurt];
+            hurtHeight = moves.hurtHeight[hurt];
+            hurtX = boxX(target, moves.hurtX[hurt], hurtWidth);
+            hurtY = f.y[target] + moves.hurtY[hurt];
+        }
+        return hitX < hurtX + hurtWidth && hitX + hitWidth > hurtX
+            && hitY < hurtY + hurtHeight && hitY + moves.hitHeight[hit] > hurtY;
+    }
+
+    /** World x of a box given facing right, mirrored inside the body box when the fighter faces left. */
+    private float boxX(int fighter, float x, float width) {
+        FighterStore f = state.fighters;
+        return f.facingLeft[fighter] ? f.x[fighter] + config.fighterSize - x - width : f.x[fighter] + x;
+    }
+
+    private void landHit(int attacker, int target, int move) {
+        FighterStore f = state.fighters;
+        MoveTable moves = this.moves;
+        f.health[target] = Math.max(0, f.health[target] - moves.damage[move]);
+
+        int hitstun = moves.hitstun[move];
+        if (hitstun > 0) {
+            // Knockback pushes away from the attacker and interrupts whatever the target was doing
+            f.velocityX[target] = f.facingLeft[attacker] ? -moves.knockbackX[move] : moves.knockbackX[move];
+            if (moves.knockbackY[move] != 0) f.velocityY[target] = moves.knockbackY[move];
+            f.hitstun[target] = hitstun;
+            f.move[target] = MoveTable.NO_MOVE;
+        }
+    }
+
+    private void resolvePushboxes(int pairs) {
+        float width = config.pushboxWidth;
+        if (width <= 0) return;
+
+        FighterStore f = state.fighters;
+        float[] x = f.x;
+        float maxX = config.arenaWidth - config.fighterSize * config.boundsScale;
+        for (int p = 0; p < pairs; p++) {
+            int a = broadPhase.getPairA(p);
+            int b = broadPhase.getPairB(p);
+            // Pushboxes share the body center; the broad phase boxes include move reach, so check height first
+            if (Math.abs(f.y[b] - f.y[a]) >= config.fighterSize) continue;
+            float gap = x[b] - x[a];
+            float overlap = width - Math.abs(gap);
+            if (overlap <= 0) continue;
+
+            // Each fighter gives way by half; the lower index goes left when they are exactly stacked
+            float push = gap < 0 ? -overlap / 2 : overlap / 2;
+            x[a] = Math.max(0, Math.min(maxX, x[a] - push));
+            x[b] = Math.max(0, Math.min(maxX, x[b] + push));
+        }
+    }
+
+    private int checkGameOver() {
+        int[] health = state.fighters.health;
+        int alive = 0;
+        int lastAlive = MatchState.WINNER_NONE;
+        for (int i = 0; i < health.length; i++) {
+            if (health[i] > 0) {
+                alive++;
+                lastAlive = i;
+            }
+        }
+        if (alive > 1) return 0;
+
+        state.gameOver = true;
+        state.winner = alive == 0 ? MatchState.WINNER_DRAW : lastAlive;
+        return EVENT_GAME_OVER;
+    }
+
+    /** Same test as {@code Rectangle.overlaps} for two equally sized square boxes. */
+    public static boolean overlaps(float ax, float ay, float bx, float by, float size) {
+        return ax < bx + size && ax + size > bx && ay < by + size && ay + size > by;
+    }
+
+    /**
+     * Swaps in another move table between ticks, e.g. after the move file was edited. Fighters in a move the new
+     * table does not have go back to idle.
+     */
+    public void setMoves(MoveTable moves) {
+        this.moves = moves;
+        dropUnknownMoves();
+    }
+
+    /**
+     * Sends fighters whose move or move frame the current table does not have back to idle. Call after copying
+     * in state from elsewhere, e.g. a saved match, so a stale move index cannot reach {@link #step(int[])}.
+     */
+    public void dropUnknownMoves() {
+        FighterStore f = state.fighters;
+        for (int i = 0; i < f.count; i++) {
+            int move = f.move[i];
+            if (move == MoveTable.NO_MOVE) continue;
+            if (move < 0 || move >= moves.moveCount || f.moveFrame[i] < 0 || f.moveFrame[i] >= moves.frameCount[move]) {
+                f.move[i] = MoveTable.NO_MOVE;
+            }
+        }
+    }
+
+    /** True if the fighter stands on the floor or on a platform. */
+    public boolean isGrounded(int fighter) {
+        return isGrounded(state, fighter);
+    }
+
+    /** {@link #isGrounded(int)} for a copy of this match's state, e.g. a render snapshot. */
+    public boolean isGrounded(MatchState state, int fighter) {
+        FighterStore f = state.fighters;
+        float y = f.y[fighter];
+        return y == config.floorHeight || platforms.isOnPlatform(f.x[fighter] + config.fighterSize / 2, y);
+    }
+
+    /** Sets the stage's platforms, before the match starts. */
+    public void setPlatforms(Platforms platforms) {
+        this.platforms = platforms;
+    }
+
+    public Platforms getPlatforms() {
+        return platforms;
+    }
+
+    public MoveTable getMoves() {
+        return moves;
+    }
+
+    public MatchState getState() {
+        return state;
+    }
+
+    public MatchConfig getConfig() {
+        return config;
+    }
+
+    public float getTickDuration() {
+        return tickDuration;
+    }
+}
@@ -0,0 +1,74 @@
+package com.badlogic.platformer.sim;
+
+import java.nio.ByteBuffer;
+
+/** Everything needed to continue a match from a given tick. Contains no references to rendering or audio. */
+public class MatchState {
+
+    public static final int WINNER_NONE = -1;
+    public static final int WINNER_DRAW = -2;
+
+    public final FighterStore fighters;
+    public long tick;
+    public boolean gameOver;
+    public int winner = WINNER_NONE;
+
+    public MatchState(int fighterCount) {
+        fighters = new FighterStore(fighterCount);
+    }
+
+    /** Copies {@code other} into this state without allocating. Both states must hold the same number of fighters. */
+    public void set(MatchState other) {
+        fighters.set(other.fighters);
+        tick = other.tick;
+        gameOver = other.gameOver;
+        winner = other.winner;
+    }
+
+    /** Size in bytes of {@link #write(ByteBuffer)} for a match with {@code fighterCount} fighters. */
+    public static int byteSize(int fighterCount) {
+        // Four floats, the health int, three shorts and two bytes per fighter, then tick, game over and winner
+        return fighterCount * (4 * 4 + 4 + 3 * 2 + 2) + 8 + 1 + 4;
+    }
+
+    public void write(ByteBuffer buffer) {
+        FighterStore f = fighters;
+        for (int i = 0; i < f.count; i++) {
+            buffer.putFloat(f.x[i]);
+            buffer.putFloat(f.y[i]);
+            buffer.putFloat(f.velocityX[i]);
+            buffer.putFloat(f.velocityY[i]);
+            buffer.putInt(f.health[i]);
+            buffer.putShort((short) f.move[i]);
+            buffer.putShort((short) f.moveFrame[i]);
+            buffer.putShort((short) f.hitstun[i]);
+            buffer.put((byte) ((f.moveHit[i] ? 1 : 0) | (f.facingLeft[i] ? 2 : 0)));
+            buffer.put((byte) f.previousInput[i]);
+        }
+        buffer.putLong(tick);
+        buffer.put((byte) (gameOver ? 1 : 0));
+        buffer.putInt(winner);
+    }
+
+    /** Reads a state written by {@link #write(ByteBuffer)} for the same number of fighters. */
+    public void read(ByteBuffer buffer) {
+        FighterStore f = fighters;
+        for (int i = 0; i < f.count; i++) {
+            f.x[i] = buffer.getFloat();
+            f.y[i] = buffer.getFloat();
+            f.velocityX[i] = buffer.getFloat();
+            f.velocityY[i] = buffer.getFloat();
+            f.health[i] = buffer.getInt();
+            f.move[i] = buffer.getShort();
+            f.moveFrame[i] = buffer.getShort();
+            f.hitstun[i] = buffer.getShort();
+            int flags = buffer.get();
+            f.moveHit[i] = (flags & 1) != 0;
+            f.facingLeft[i] = (flags & 2) != 0;
+            f.previousInput[i] = buffer.get();
+        }
+        tick = buffer.getLong();
+        gameOver = buffer.get() != 0;
+        winner = buffer.getInt();
+    }
+}
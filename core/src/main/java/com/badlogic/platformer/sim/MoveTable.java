@@ -0,0 +1,289 @@
+package com.badlogic.platformer.sim;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.SerializationException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Frame data of every move, compiled from a move file into flat primitive arrays. Each move owns one row per
+ * frame, {@code firstRow[move] + frame}, holding the hitbox and hurtbox of that frame, so resolving a hit is an
+ * index lookup. Boxes are relative to the fighter's bottom left corner while facing right and get mirrored when
+ * facing left. A hitbox only exists on active frames; a width of 0 means no hitbox.
+ *
+ * <p>Move files are JSON:
+ * <pre>
+ * { groundAttack: jab, airAttack: kick,
+ *   moves: [
+ *     { name: jab, startup: 3, active: 2, recovery: 8, damage: 8, knockbackX: 900, knockbackY: 0, hitstun: 14,
+ *       hitbox: [ 96, 56, 72, 32 ], hurtbox: [ 16, 0, 96, 128 ],
+ *       frames: [ { frame: 4, hitbox: [ 96, 56, 88, 32 ] } ] } ] }
+ * </pre>
+ * {@code hurtbox} defaults to the body box and {@code frames} overrides the boxes of single frames.
+ */
+public final class MoveTable {
+
+    public static final int NO_MOVE = -1;
+
+    // Per move
+    public final int moveCount;
+    public final String[] names;
+    public final int[] firstRow;
+    public final int[] frameCount;
+    public final int[] damage;
+    public final int[] hitstun;
+    public final float[] knockbackX;
+    public final float[] knockbackY;
+
+    // Moves started by ATTACK on the floor and in the air
+    public final int groundAttack;
+    public final int airAttack;
+
+    // Per frame of every move
+    public final int rowCount;
+    public final float[] hitX;
+    public final float[] hitY;
+    public final float[] hitWidth;
+    public final float[] hitHeight;
+    public final float[] hurtX;
+    public final float[] hurtY;
+    public final float[] hurtWidth;
+    public final float[] hurtHeight;
+
+    // How far any box reaches outside the body box, the broad phase widens body boxes by this much
+    private float reach;
+
+    private MoveTable(int moveCount, int rowCount, int groundAttack, int airAttack) {
+        this.moveCount = moveCount;
+        this.rowCount = rowCount;
+        this.groundAttack = groundAttack;
+        this.airAttack = airAttack;
+        names = new String[moveCount];
+        firstRow = new int[moveCount];
+        frameCount = new int[moveCount];
+        damage = new int[moveCount];
+        hitstun = new int[moveCount];
+        knockbackX = new float[moveCount];
+        knockbackY = new float[moveCount];
+        hitX = new float[rowCount];
+        hitY = new float[rowCount];
+        hitWidth = new float[rowCount];
+        hitHeight = new float[rowCount];
+        hurtX = new float[rowCount];
+        hurtY = new float[rowCount];
+        hurtWidth = new float[rowCount];
+        hurtHeight = new float[rowCount];
+    }
+
+    /**
+     * The original attack as a move: the whole body hits for {@code attackDuration} and the attack damage, with no
+     * startup, recovery or knockback. Used when no move file is given, e.g. headless runs.
+     */
+    public static MoveTable defaults(MatchConfig config, int tickRate) {
+        int frames = Math.max(1, Math.round(config.attackDuration * tickRate));
+        MoveTable table = new MoveTable(1, frames, 0, 0);
+        table.names[0] = "attack";
+        table.frameCount[0] = frames;
+        table.damage[0] = config.attackDamage;
+        float size = config.fighterSize;
+        for (int row = 0; row < frames; row++) {
+            table.setHitbox(row, 0, 0, size, size);
+            table.setHurtbox(row, 0, 0, size, size);
+        }
+        table.computeReach(size);
+        return table;
+    }
+
+    /** Compiles a move file, see the class comment for the format. */
+    public static MoveTable parse(String json, MatchConfig config) {
+        JsonValue root;
+        try {
+            root = new JsonReader().parse(json);
+        } catch (SerializationException e) {
+            throw new GdxRuntimeException("Invalid move file", e);
+        }
+        JsonValue moves = root.get("moves");
+        if (moves == null || moves.size == 0) throw new GdxRuntimeException("Move file has no moves");
+
+        int rows = 0;
+        for (JsonValue move = moves.child; move != null; move = move.next) {
+            rows += frames(move, "startup", 0) + frames(move, "active", 1) + frames(move, "recovery", 0);
+        }
+        String ground = root.getString("groundAttack", moves.child.getString("name", null));
+        String air = root.getString("airAttack", ground);
+        MoveTable table = new MoveTable(moves.size, rows, find(moves, ground), find(moves, air));
+
+        float size = config.fighterSize;
+        int row = 0;
+        int index = 0;
+        for (JsonValue move = moves.child; move != null; move = move.next, index++) {
+            String name = move.getString("name", "move" + index);
+            int startup = frames(move, "startup", 0);
+            int active = frames(move, "active", 1);
+            int frames = startup + active + frames(move, "recovery", 0);
+            table.names[index] = name;
+            table.firstRow[index] = row;
+            table.frameCount[index] = frames;
+            table.damage[index] = move.getInt("damage", 0);
+            table.hitstun[index] = move.getInt("hitstun", 0);
+            table.knockbackX[index] = move.getFloat("knockbackX", 0f);
+            table.knockbackY[index] = move.getFloat("knockbackY", 0f);
+
+            float[] hitbox = box(move.get("hitbox"), name, null);
+            float[] hurtbox = box(move.get("hurtbox"), name, new float[] { 0, 0, size, size });
+            for (int frame = 0; frame < frames; frame++) {
+                table.setHitbox(row + frame, hitbox[0], hitbox[1], hitbox[2], hitbox[3]);
+                table.setHurtbox(row + frame, hurtbox[0], hurtbox[1], hurtbox[2], hurtbox[3]);
+            }
+
+            JsonValue overrides = move.get("frames");
+            if (overrides != null) {
+                for (JsonValue override = overrides.child; override != null; override = override.next) {
+                    int frame = override.getInt("frame", -1);
+                    if (frame < 0 || frame >= frames) {
+                        throw new GdxRuntimeException("Move " + name + " has no frame " + frame);
+                    }
+                    JsonValue box = override.get("hitbox");
+                    if (box != null) {
+                        float[] b = box(box, name, null);
+                        table.setHitbox(row + frame, b[0], b[1], b[2], b[3]);
+                    }
+                    box = override.get("hurtbox");
+                    if (box != null) {
+                        float[] b = box(box, name, null);
+                        table.setHurtbox(row + frame, b[0], b[1], b[2], b[3]);
+                    }
+                }
+            }
+
+            // Only active frames hit
+            for (int frame = 0; frame < frames; frame++) {
+                if (frame < startup || frame >= startup + active) table.setHitbox(row + frame, 0, 0, 0, 0);
+            }
+            row += frames;
+        }
+        table.computeReach(size);
+        return table;
+    }
+
+    private static int frames(JsonValue move, String name, int defaultValue) {
+        int frames = move.getInt(name, defaultValue);
+        if (frames < 0 || (defaultValue > 0 && frames == 0)) {
+            throw new GdxRuntimeException("Move " + move.getString("name", "?") + ": invalid " + name + " " + frames);
+        }
+        return frames;
+    }
+
+    private static float[] box(JsonValue value, String move, float[] defaultBox) {
+        if (value == null) {
+            if (defaultBox == null) throw new GdxRuntimeException("Move " + move + " has no hitbox");
+            return defaultBox;
+        }
+        float[] box = value.asFloatArray();
+        if (box.length != 4 || box[2] < 0 || box[3] < 0) {
+            throw new GdxRuntimeException("Move " + move + ": boxes are [ x, y, width, height ]");
+        }
+        return box;
+    }
+
+    private static int find(JsonValue moves, String name) {
+        int index = 0;
+        for (JsonValue move = moves.child; move != null; move = move.next, index++) {
+            if (move.getString("name", "move" + index).equals(name)) return index;
+        }
+        throw new GdxRuntimeException("Unknown move: " + name);
+    }
+
+    private void setHitbox(int row, float x, float y, float width, float height) {
+        hitX[row] = x;
+        hitY[row] = y;
+        hitWidth[row] = width;
+        hitHeight[row] = height;
+    }
+
+    private void setHurtbox(int row, float x, float y, float width, float height) {
+        hurtX[row] = x;
+        hurtY[row] = y;
+        hurtWidth[row] = width;
+        hurtHeight[row] = height;
+    }
+
+    private void computeReach(float size) {
+        reach = 0f;
+        for (int row = 0; row < rowCount; row++) {
+            if (hitWidth[row] > 0) {
+                reach = Math.max(reach, outside(hitX[row], hitY[row], hitWidth[row], hitHeight[row], size));
+            }
+            reach = Math.max(reach, outside(hurtX[row], hurtY[row], hurtWidth[row], hurtHeight[row], size));
+        }
+    }
+
+    private static float outside(float x, float y, float width, float height, float size) {
+        return Math.max(Math.max(-x, x + width - size), Math.max(-y, y + height - size));
+    }
+
+    public float getReach() {
+        return reach;
+    }
+
+    /** Size in bytes of {@link #write(ByteBuffer)}. */
+    public int byteSize() {
+        int size = 4 * 4 + moveCount * (5 * 4) + rowCount * (8 * 4);
+        for (String name : names) size += 2 + name.getBytes(StandardCharsets.UTF_8).length;
+        return size;
+    }
+
+    /** Writes the compiled table, so files that replay a match carry the moves it was played with. */
+    public void write(ByteBuffer buffer) {
+        buffer.putInt(moveCount);
+        buffer.putInt(rowCount);
+        buffer.putInt(groundAttack);
+        buffer.putInt(airAttack);
+        for (int m = 0; m < moveCount; m++) {
+            byte[] name = names[m].getBytes(StandardCharsets.UTF_8);
+            buffer.putShort((short) name.length);
+            buffer.put(name);
+            buffer.putInt(frameCount[m]);
+            buffer.putInt(damage[m]);
+            buffer.putInt(hitstun[m]);
+            buffer.putFloat(knockbackX[m]);
+            buffer.putFloat(knockbackY[m]);
+        }
+        for (int row = 0; row < rowCount; row++) {
+            buffer.putFloat(hitX[row]);
+            buffer.putFloat(hitY[row]);
+            buffer.putFloat(hitWidth[row]);
+            buffer.putFloat(hitHeight[row]);
+            buffer.putFloat(hurtX[row]);
+            buffer.putFloat(hurtY[row]);
+            buffer.putFloat(hurtWidth[row]);
+            buffer.putFloat(hurtHeight[row]);
+        }
+    }
+
+    public static MoveTable read(ByteBuffer buffer, MatchConfig config) {
+        MoveTable table = new MoveTable(buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt());
+        int row = 0;
+        for (int m = 0; m < table.moveCount; m++) {
+            byte[] name = new byte[buffer.getShort()];
+            buffer.get(name);
+            table.names[m] = new String(name, StandardCharsets.UTF_8);
+            table.firstRow[m] = row;
+            table.frameCount[m] = buffer.getInt();
+            table.damage[m] = buffer.getInt();
+            table.hitstun[m] = buffer.getInt();
+            table.knockbackX[m] = buffer.getFloat();
+            table.knockbackY[m] = buffer.getFloat();
+            row += table.frameCount[m];
+        }
+        for (row = 0; row < table.rowCount; row++) {
+            table.setHitbox(row, buffer.getFloat(), buffer.getFloat(), buffer.getFloat(), buffer.getFloat());
+            table.setHurtbox(row, buffer.getFloat(), buffer.getFloat(), buffer.getFloat(), buffer.getFloat());
+        }
+        table.computeReach(config.fighterSize);
+        return table;
+    }
+}
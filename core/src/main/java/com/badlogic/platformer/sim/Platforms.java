@@ -0,0 +1,64 @@
+package com.badlogic.platformer.sim;
+
+import java.nio.ByteBuffer;
+
+/**
+ * One-way platforms above the floor: fighters falling onto the top edge land on it, everything else passes
+ * through. Stored as parallel arrays of the left edge, top edge and width.
+ */
+public class Platforms {
+
+    public static final Platforms NONE = new Platforms(0);
+
+    public final int count;
+    public final float[] x;
+    public final float[] top;
+    public final float[] width;
+
+    public Platforms(int count) {
+        this.count = count;
+        x = new float[count];
+        top = new float[count];
+        width = new float[count];
+    }
+
+    /** Index of the platform spanning {@code centerX} whose top lies between {@code y} and {@code previousY}, or -1. */
+    public int findLanding(float centerX, float previousY, float y) {
+        for (int p = 0; p < count; p++) {
+            float t = top[p];
+            if (previousY >= t && y <= t && centerX >= x[p] && centerX <= x[p] + width[p]) return p;
+        }
+        return -1;
+    }
+
+    /** True if a fighter centered on {@code centerX} stands exactly on a platform at height {@code y}. */
+    public boolean isOnPlatform(float centerX, float y) {
+        for (int p = 0; p < count; p++) {
+            if (y == top[p] && centerX >= x[p] && centerX <= x[p] + width[p]) return true;
+        }
+        return false;
+    }
+
+    public int byteSize() {
+        return 4 + count * 3 * 4;
+    }
+
+    public void write(ByteBuffer buffer) {
+        buffer.putInt(count);
+        for (int p = 0; p < count; p++) {
+            buffer.putFloat(x[p]);
+            buffer.putFloat(top[p]);
+            buffer.putFloat(width[p]);
+        }
+    }
+
+    public static Platforms read(ByteBuffer buffer) {
+        Platforms platforms = new Platforms(buffer.getInt());
+        for (int p = 0; p < platforms.count; p++) {
+            platforms.x[p] = buffer.getFloat();
+            platforms.top[p] = buffer.getFloat();
+            platforms.width[p] = buffer.getFloat();
+        }
+        return platforms;
+    }
+}
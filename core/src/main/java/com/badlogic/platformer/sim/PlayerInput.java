@@ -0,0 +1,26 @@
+package com.badlogic.platformer.sim;
+
+/** Bit flags describing which actions a player is holding during one simulation tick. */
+public final class PlayerInput {
+
+    public static final int NONE = 0;
+    public static final int LEFT = 1;
+    public static final int RIGHT = 1 << 1;
+    public static final int JUMP = 1 << 2;
+    public static final int ATTACK = 1 << 3;
+
+    // Number of bits actually used, handy for packing several players into one int
+    public static final int BITS = 4;
+    public static final int MASK = (1 << BITS) - 1;
+
+    private PlayerInput() { }
+
+    /** True if {@code action} is held this tick but was not held on the previous one. */
+    public static boolean justPressed(int input, int previousInput, int action) {
+        return (input & action) != 0 && (previousInput & action) == 0;
+    }
+
+    public static boolean isHeld(int input, int action) {
+        return (input & action) != 0;
+    }
+}
@@ -0,0 +1,93 @@
+package com.badlogic.platformer.sim;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands the match state from the thread that steps it to the thread that draws it. The producer copies the state
+ * after each tick into a spare buffer and swaps it in with one atomic exchange; the consumer swaps the newest one
+ * out when it starts a frame. Once taken, a snapshot is never written by the producer, so the renderer reads it
+ * without locks while ticks keep running. The consumer also keeps the snapshot before the current one, to
+ * interpolate positions between the two.
+ */
+public class RenderSnapshots {
+
+    private static final int FRESH = 1 << 2;
+    private static final int INDEX = FRESH - 1;
+
+    // Triple buffer: the producer writes one, the consumer holds one and the third is the latest published one
+    private final MatchState[] buffers = new MatchState[3];
+    private final long[] times = new long[3];
+    private final AtomicInteger latest = new AtomicInteger(2);
+    private int writing = 0;
+    private int reading = 1;
+
+    // Consumer side: the snapshot shown before the current one
+    private final MatchState previous;
+
+    // Simulation events raised since the consumer last took them
+    private final AtomicInteger events = new AtomicInteger();
+
+    public RenderSnapshots(int fighterCount) {
+        for (int i = 0; i < buffers.length; i++) buffers[i] = new MatchState(fighterCount);
+        previous = new MatchState(fighterCount);
+    }
+
+    /**
+     * Producer: publishes {@code state} as it is after a tick that ended at {@code timeNanos} on the
+     * {@link System#nanoTime()} clock, along with the {@code MatchSimulation.EVENT_*} flags that tick raised.
+     */
+    public void publish(MatchState state, int tickEvents, long timeNanos) {
+        buffers[writing].set(state);
+        times[writing] = timeNanos;
+        writing = latest.getAndSet(writing | FRESH) & INDEX;
+        // After the swap, so a consumer that sees the events also gets at least this snapshot from update()
+        if (tickEvents != 0) {
+            int current;
+            do {
+                current = events.get();
+            } while (!events.compareAndSet(current, current | tickEvents));
+        }
+    }
+
+    /** Consumer: switches to the newest snapshot, returns false if nothing was published since the last call. */
+    public boolean update() {
+        if ((latest.get() & FRESH) == 0) return false;
+        previous.set(buffers[reading]);
+        reading = latest.getAndSet(reading) & INDEX;
+        return true;
+    }
+
+    /**
+     * Makes {@code state} the current and previous snapshot, so nothing is interpolated across a reset or seek, and
+     * drops pending events. Only while no producer is running.
+     */
+    public void reset(MatchState state, long timeNanos) {
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i].set(state);
+            times[i] = timeNanos;
+        }
+        previous.set(state);
+        latest.set(latest.get() & INDEX);
+        events.set(0);
+    }
+
+    /** Consumer: the events raised since the last call. Call before {@link #update()}, see {@link #publish}. */
+    public int takeEvents() {
+        return events.getAndSet(0);
+    }
+
+    /** Consumer: the newest snapshot taken by {@link #update()}. */
+    public MatchState getCurrent() {
+        return buffers[reading];
+    }
+
+    /** Consumer: the snapshot before {@link #getCurrent()}. */
+    public MatchState getPrevious() {
+        return previous;
+    }
+
+    /** Consumer: when the tick that produced {@link #getCurrent()} ended. */
+    public long getCurrentTime() {
+        return times[reading];
+    }
+}
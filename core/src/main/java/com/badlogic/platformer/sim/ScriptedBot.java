@@ -0,0 +1,51 @@
+package com.badlogic.platformer.sim;
+
+/**
+ * Very small deterministic fighter brain used to fill free-for-all and stress matches: walk towards the nearest
+ * living opponent, attack when touching it and hop every now and then. It reads the state only, so any number of
+ * bots can think in one pass without allocating.
+ */
+public final class ScriptedBot {
+
+    // Ticks between hops, offset per fighter so bots do not jump in unison
+    private static final int JUMP_PERIOD = 90;
+
+    private ScriptedBot() { }
+
+    /** Returns the {@link PlayerInput} bits fighter {@code self} wants this tick. */
+    public static int think(MatchState state, MatchConfig config, int self) {
+        FighterStore f = state.fighters;
+        if (f.health[self] <= 0) return PlayerInput.NONE;
+
+        int target = -1;
+        float nearest = Float.MAX_VALUE;
+        for (int i = 0; i < f.count; i++) {
+            if (i == self || f.health[i] <= 0) continue;
+            float distance = Math.abs(f.x[i] - f.x[self]) + Math.abs(f.y[i] - f.y[self]);
+            if (distance < nearest) {
+                nearest = distance;
+                target = i;
+            }
+        }
+        if (target < 0) return PlayerInput.NONE;
+
+        int input = PlayerInput.NONE;
+        float dx = f.x[target] - f.x[self];
+        if (dx < -config.fighterSize / 2) {
+            input |= PlayerInput.LEFT;
+        } else if (dx > config.fighterSize / 2) {
+            input |= PlayerInput.RIGHT;
+        }
+
+        // Alternate the attack button so every other tick is a fresh press while in reach
+        boolean inReach = MatchSimulation.overlaps(f.x[self], f.y[self], f.x[target], f.y[target], config.fighterSize);
+        if (inReach && (f.previousInput[self] & PlayerInput.ATTACK) == 0) {
+            input |= PlayerInput.ATTACK;
+        }
+
+        if ((state.tick + self * 7) % JUMP_PERIOD == 0) {
+            input |= PlayerInput.JUMP;
+        }
+        return input;
+    }
+}
@@ -0,0 +1,132 @@
+package com.badlogic.platformer.sim;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Steps a match on its own thread at the fixed tick rate, independent of the frame rate. Time is measured with
+ * {@link System#nanoTime()} and turned into ticks by a {@link FixedTimestep}, so a stalled thread catches up the
+ * same way a stalled frame used to, and drops time past the catch-up limit. After every tick the state is
+ * published to {@link RenderSnapshots}. While the loop runs, only the tick callback may touch the simulation;
+ * everything else waits for {@link #stop()}.
+ */
+public class SimulationLoop {
+
+    /** One tick of the match, run on the simulation thread. */
+    public interface Ticker {
+        /**
+         * Samples the input of the tick ending at {@code tickEndNanos}, steps the simulation and returns the
+         * {@code MatchSimulation.EVENT_*} flags it raised.
+         */
+        int tick(long tickEndNanos);
+    }
+
+    // The thread sleeps until this long before the next tick, then yields, since sleeps overshoot on some systems
+    private static final long SPIN_NANOS = 500_000L;
+
+    private final MatchSimulation simulation;
+    private final FixedTimestep timestep;
+    private final Ticker ticker;
+    private final RenderSnapshots snapshots;
+    private final long tickNanos;
+
+    private volatile boolean running;
+    private volatile Throwable failure;
+    private Thread thread;
+
+    private volatile long ticks;
+    private volatile long droppedTicks;
+
+    public SimulationLoop(MatchSimulation simulation, FixedTimestep timestep, Ticker ticker, RenderSnapshots snapshots) {
+        this.simulation = simulation;
+        this.timestep = timestep;
+        this.ticker = ticker;
+        this.snapshots = snapshots;
+        this.tickNanos = 1_000_000_000L / timestep.getTickRate();
+    }
+
+    /** Starts ticking from now; time spent stopped is not caught up on. */
+    public void start() {
+        if (running) return;
+        running = true;
+        timestep.reset();
+        thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                loop();
+            }
+        }, "simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Stops ticking and waits for the tick in progress, after which the simulation may be used from the caller. */
+    public void stop() {
+        if (!running) return;
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void loop() {
+        long last = System.nanoTime();
+        try {
+            while (running) {
+                long now = System.nanoTime();
+                float elapsed = (now - last) / 1e9f;
+                last = now;
+                int due = (int) (timestep.alpha() + elapsed * timestep.getTickRate());
+                int count = timestep.advance(elapsed);
+                if (due > count) droppedTicks += due - count;
+
+                // Tick i ended count - 1 - i ticks plus the leftover before now
+                long leftover = (long) (timestep.alpha() * tickNanos);
+                for (int i = 0; i < count && running; i++) {
+                    long tickEnd = now - leftover - (count - 1 - i) * tickNanos;
+                    int events = ticker.tick(tickEnd);
+                    snapshots.publish(simulation.getState(), events, tickEnd);
+                    ticks++;
+                }
+
+                long wait = tickNanos - (long) (timestep.alpha() * tickNanos) - (System.nanoTime() - now);
+                if (wait > SPIN_NANOS) {
+                    LockSupport.parkNanos(this, wait - SPIN_NANOS);
+                } else {
+                    Thread.yield();
+                }
+            }
+        } catch (Throwable t) {
+            failure = t;
+            running = false;
+        }
+    }
+
+    /** Rethrows on the caller's thread what stopped the simulation thread, call once per frame. */
+    public void checkFailure() {
+        Throwable t = failure;
+        if (t != null) {
+            failure = null;
+            throw new GdxRuntimeException("Simulation thread failed", t);
+        }
+    }
+
+    /** Ticks run so far. */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /** Ticks skipped because the thread fell further behind than the catch-up limit. */
+    public long getDroppedTicks() {
+        return droppedTicks;
+    }
+}
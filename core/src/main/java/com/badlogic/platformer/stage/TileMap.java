@@ -0,0 +1,149 @@
+package com.badlogic.platformer.stage;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.platformer.sim.MatchConfig;
+import com.badlogic.platformer.sim.Platforms;
+
+/**
+ * A stage as a grid of square tiles, read from a text file with one line per row, top row first:
+ * {@code .} is empty, {@code #} is ground and {@code =} is a platform. Lines starting with {@code ;} are comments,
+ * and a line {@code tile <size>} before the rows sets the tile size in pixels. The ground stack of the first column
+ * sets the floor height; the top of every other run of tiles becomes a one-way platform for the simulation, so
+ * ground above the floor can be walked through from the side and stages draw it as {@code =} instead.
+ */
+public class TileMap {
+
+    public static final byte EMPTY = 0;
+    public static final byte GROUND = 1;
+    public static final byte PLATFORM = 2;
+
+    public static final float DEFAULT_TILE_SIZE = 64f;
+    private static final String TILE_SIZE_PREFIX = "tile ";
+
+    public final int columns;
+    public final int rows;
+    public final float tileSize;
+    // Row 0 is the bottom row, tiles[row * columns + column]
+    private final byte[] tiles;
+
+    public TileMap(int columns, int rows, float tileSize) {
+        this.columns = columns;
+        this.rows = rows;
+        this.tileSize = tileSize;
+        tiles = new byte[columns * rows];
+    }
+
+    /** Reads a stage file, {@code tileSize} unless the file sets its own. */
+    public static TileMap parse(String text, float tileSize) {
+        String[] lines = text.split("\r?\n");
+        int rows = 0;
+        int columns = 0;
+        for (String line : lines) {
+            if (line.isEmpty() || line.startsWith(";")) continue;
+            if (line.startsWith(TILE_SIZE_PREFIX)) {
+                tileSize = parseTileSize(line);
+                continue;
+            }
+            rows++;
+            columns = Math.max(columns, line.length());
+        }
+        if (rows == 0) throw new GdxRuntimeException("Stage has no tiles");
+
+        TileMap map = new TileMap(columns, rows, tileSize);
+        int row = rows;
+        for (String line : lines) {
+            if (line.isEmpty() || line.startsWith(";") || line.startsWith(TILE_SIZE_PREFIX)) continue;
+            row--;
+            for (int column = 0; column < line.length(); column++) {
+                char c = line.charAt(column);
+                byte tile;
+                if (c == '#') {
+                    tile = GROUND;
+                } else if (c == '=') {
+                    tile = PLATFORM;
+                } else if (c == '.' || c == ' ') {
+                    tile = EMPTY;
+                } else {
+                    throw new GdxRuntimeException("Unknown tile '" + c + "' in row " + (rows - row));
+                }
+                map.tiles[row * columns + column] = tile;
+            }
+        }
+        return map;
+    }
+
+    private static float parseTileSize(String line) {
+        float size;
+        try {
+            size = Float.parseFloat(line.substring(TILE_SIZE_PREFIX.length()).trim());
+        } catch (NumberFormatException e) {
+            throw new GdxRuntimeException("Invalid tile size: " + line, e);
+        }
+        if (!(size > 0)) throw new GdxRuntimeException("Invalid tile size: " + line);
+        return size;
+    }
+
+    public byte get(int column, int row) {
+        if (column < 0 || column >= columns || row < 0 || row >= rows) return EMPTY;
+        return tiles[row * columns + column];
+    }
+
+    public float getWidth() {
+        return columns * tileSize;
+    }
+
+    public float getHeight() {
+        return rows * tileSize;
+    }
+
+    /** Top of the ground in the first column, where fighters stand when not on a platform. */
+    public float getFloorHeight() {
+        int row = 0;
+        while (get(0, row) == GROUND) row++;
+        return row * tileSize;
+    }
+
+    /** Sizes the arena to the map. */
+    public void configure(MatchConfig config) {
+        config.arenaWidth = getWidth();
+        config.arenaHeight = Math.max(config.arenaHeight, getHeight());
+        config.floorHeight = getFloorHeight();
+    }
+
+    /** Every horizontal run of tiles with nothing on top, above the floor, as a platform. */
+    public Platforms buildPlatforms() {
+        Platforms platforms = new Platforms(scanSurfaces(null));
+        scanSurfaces(platforms);
+        return platforms;
+    }
+
+    /** Counts the surfaces above the floor and stores them in {@code out} unless it is null. */
+    private int scanSurfaces(Platforms out) {
+        float floor = getFloorHeight();
+        int count = 0;
+        for (int row = 0; row < rows; row++) {
+            float top = (row + 1) * tileSize;
+            if (top <= floor) continue;
+            int column = 0;
+            while (column < columns) {
+                if (!isSurface(column, row)) {
+                    column++;
+                    continue;
+                }
+                int start = column;
+                while (column < columns && isSurface(column, row)) column++;
+                if (out != null) {
+                    out.x[count] = start * tileSize;
+                    out.top[count] = top;
+                    out.width[count] = (column - start) * tileSize;
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private boolean isSurface(int column, int row) {
+        return get(column, row) != EMPTY && get(column, row + 1) == EMPTY;
+    }
+}
@@ -0,0 +1,129 @@
+package com.badlogic.platformer.input;
+
+import com.badlogic.platformer.sim.PlayerInput;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class TickInputSamplerTest {
+
+    private static final int DEVICE = 1;
+    private static final int BUTTON_A = 0;
+    private static final int BUTTON_B = 1;
+    private static final long TICK = 1_000_000_000L / 60;
+    // Arbitrary start, tick n ends at START + n * TICK
+    private static final long START = 5_000_000_000L;
+
+    private SimulatedDevice device;
+    private InputBindings bindings;
+    private TickInputSampler sampler;
+    private final int[] out = new int[2];
+
+    @Before
+    public void setUp() {
+        device = new SimulatedDevice(DEVICE);
+        bindings = new InputBindings();
+        bindings.bind(0, DEVICE, BUTTON_A, PlayerInput.JUMP);
+        sampler = new TickInputSampler(bindings, 2);
+        sampler.addSource(device);
+    }
+
+    @Test
+    public void tapShorterThanATickLandsOnItsTickForOneTick() {
+        // Pressed halfway through tick 2 and released a quarter tick later
+        device.tap(BUTTON_A, START + TICK + TICK / 2, TICK / 4);
+
+        assertEquals(PlayerInput.NONE, sample(1));
+        assertEquals(PlayerInput.JUMP, sample(2));
+        assertEquals(PlayerInput.NONE, sample(3));
+    }
+
+    @Test
+    public void pressAtTheEndOfATickBelongsToThatTick() {
+        device.tap(BUTTON_A, START + 2 * TICK, 1);
+
+        assertEquals(PlayerInput.NONE, sample(1));
+        assertEquals(PlayerInput.JUMP, sample(2));
+        assertEquals(PlayerInput.NONE, sample(3));
+    }
+
+    @Test
+    public void tapsInSeparateTicksShowUpInEach() {
+        device.tap(BUTTON_A, START + TICK / 2, TICK / 4);
+        device.tap(BUTTON_A, START + 2 * TICK + TICK / 2, TICK / 4);
+
+        assertEquals(PlayerInput.JUMP, sample(1));
+        assertEquals(PlayerInput.NONE, sample(2));
+        assertEquals(PlayerInput.JUMP, sample(3));
+        assertEquals(PlayerInput.NONE, sample(4));
+    }
+
+    @Test
+    public void heldButtonLastsUntilReleased() {
+        device.press(BUTTON_A, START + TICK / 2);
+        device.release(BUTTON_A, START + 3 * TICK + TICK / 2);
+
+        assertEquals(PlayerInput.JUMP, sample(1));
+        assertEquals(PlayerInput.JUMP, sample(2));
+        assertEquals(PlayerInput.JUMP, sample(3));
+        // Released during tick 4, which only shows what is down at its end
+        assertEquals(PlayerInput.NONE, sample(4));
+    }
+
+    @Test
+    public void twoButtonsForOneActionMustBothBeReleased() {
+        bindings.bind(0, DEVICE, BUTTON_B, PlayerInput.JUMP);
+        device.press(BUTTON_A, START + TICK / 2);
+        device.press(BUTTON_B, START + TICK / 2 + 1);
+        device.release(BUTTON_A, START + TICK + TICK / 2);
+        device.release(BUTTON_B, START + 2 * TICK + TICK / 2);
+
+        assertEquals(PlayerInput.JUMP, sample(1));
+        assertEquals("one of the two buttons is still down", PlayerInput.JUMP, sample(2));
+        assertEquals(PlayerInput.NONE, sample(3));
+    }
+
+    @Test
+    public void releaseWithoutPressIsIgnored() {
+        // A button already down before sampling started
+        device.release(BUTTON_A, START + TICK / 2);
+        assertEquals(PlayerInput.NONE, sample(1));
+
+        device.press(BUTTON_A, START + TICK + TICK / 2);
+        assertEquals(PlayerInput.JUMP, sample(2));
+        assertEquals("the earlier release must not cancel this press", PlayerInput.JUMP, sample(3));
+
+        device.release(BUTTON_A, START + 3 * TICK + TICK / 2);
+        assertEquals(PlayerInput.NONE, sample(4));
+        assertEquals(PlayerInput.NONE, sample(5));
+    }
+
+    @Test
+    public void unboundButtonsAndOtherPlayersStayApart() {
+        bindings.bind(1, DEVICE, BUTTON_B, PlayerInput.ATTACK);
+        device.tap(BUTTON_B, START + TICK / 2, TICK / 4);
+        device.tap(2, START + TICK / 2, TICK / 4);
+
+        assertEquals(PlayerInput.NONE, sample(1));
+        assertEquals(PlayerInput.ATTACK, out[1]);
+    }
+
+    @Test
+    public void resetDropsQueuedAndHeldButtons() {
+        device.press(BUTTON_A, START + TICK / 2);
+        assertEquals(PlayerInput.JUMP, sample(1));
+        device.tap(BUTTON_A, START + TICK + TICK / 2, TICK / 4);
+
+        sampler.reset();
+
+        assertEquals(PlayerInput.NONE, sample(2));
+        assertEquals(PlayerInput.NONE, sample(3));
+    }
+
+    /** Samples tick {@code n} and returns the actions of player 1. */
+    private int sample(int n) {
+        sampler.sample(START + n * TICK, out);
+        return out[0];
+    }
+}
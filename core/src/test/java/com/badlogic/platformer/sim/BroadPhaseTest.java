@@ -0,0 +1,137 @@
+package com.badlogic.platformer.sim;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BroadPhaseTest {
+
+    private static final float WORLD_WIDTH = 1000;
+    private static final float WORLD_HEIGHT = 600;
+    private static final float CELL = 100;
+
+    private BroadPhase broadPhase;
+    // x, y, width, height of every box added, for the brute force pass
+    private final List<float[]> boxes = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        broadPhase = new BroadPhase(WORLD_WIDTH, WORLD_HEIGHT, CELL, 4);
+        boxes.clear();
+    }
+
+    @Test
+    public void boxesSpanningSeveralCellsArePairedOnce() {
+        // Overlapping over a 3 x 3 block of cells
+        add(50, 50, 350, 350);
+        add(120, 120, 300, 300);
+        // Covers the whole grid, overlaps everything
+        add(0, 0, WORLD_WIDTH, WORLD_HEIGHT);
+        // Several cells, overlapping nothing but the one above
+        add(650, 350, 250, 150);
+
+        assertMatchesBruteForce();
+    }
+
+    @Test
+    public void boxesOutsideTheGridArePairedByTheirBounds() {
+        // Both left of the grid, clamped into the same border cells, overlapping
+        add(-500, 100, 80, 80);
+        add(-450, 150, 80, 80);
+        // Left of the grid as well and in the same border cell, but apart
+        add(-300, 100, 80, 80);
+        // Past the top right corner, overlapping a box reaching out from inside
+        add(1100, 700, 100, 100);
+        add(950, 550, 200, 200);
+        // Below the floor, apart from everything
+        add(400, -300, 50, 50);
+
+        assertMatchesBruteForce();
+    }
+
+    @Test
+    public void touchingEdgesAreNotPairs() {
+        // Sharing an edge on a cell border
+        add(100, 100, 100, 100);
+        add(200, 100, 100, 100);
+        // Sharing an edge inside a cell
+        add(410, 410, 30, 30);
+        add(410, 440, 30, 30);
+        // Sharing only a corner
+        add(600, 0, 50, 50);
+        add(650, 50, 50, 50);
+        // Overlapping by a sliver across a cell border
+        add(750, 300, 50.5f, 50);
+        add(800, 300, 50, 50);
+
+        int pairs = assertMatchesBruteForce();
+        assertEquals(1, pairs);
+    }
+
+    @Test
+    public void randomBoxesMatchBruteForce() {
+        Random random = new Random(0x5EED);
+        for (int round = 0; round < 200; round++) {
+            broadPhase.clear();
+            boxes.clear();
+            int count = 1 + random.nextInt(40);
+            for (int i = 0; i < count; i++) {
+                // Up to two cells outside the grid on every side, up to three cells large
+                float x = -2 * CELL + random.nextFloat() * (WORLD_WIDTH + 4 * CELL);
+                float y = -2 * CELL + random.nextFloat() * (WORLD_HEIGHT + 4 * CELL);
+                float width = random.nextInt(4) == 0 ? CELL : 1 + random.nextFloat() * 3 * CELL;
+                float height = random.nextInt(4) == 0 ? CELL : 1 + random.nextFloat() * 3 * CELL;
+                // Snapped to cell borders now and then, so edges touch exactly
+                if (random.nextInt(4) == 0) x = Math.round(x / CELL) * CELL;
+                if (random.nextInt(4) == 0) y = Math.round(y / CELL) * CELL;
+                add(x, y, width, height);
+            }
+            assertMatchesBruteForce();
+        }
+    }
+
+    private void add(float x, float y, float width, float height) {
+        int box = broadPhase.add(x, y, width, height);
+        assertEquals(boxes.size(), box);
+        boxes.add(new float[] { x, y, width, height });
+    }
+
+    /** Checks that findPairs reports exactly the overlapping pairs, each once, and returns how many there are. */
+    private int assertMatchesBruteForce() {
+        broadPhase.build();
+        int pairCount = broadPhase.findPairs();
+
+        Set<Long> found = new HashSet<>();
+        for (int i = 0; i < pairCount; i++) {
+            int a = broadPhase.getPairA(i);
+            int b = broadPhase.getPairB(i);
+            assertTrue("pair " + a + ", " + b + " out of order", a < b);
+            assertTrue("pair " + a + ", " + b + " reported twice", found.add(key(a, b)));
+        }
+
+        Set<Long> expected = new HashSet<>();
+        for (int a = 0; a < boxes.size(); a++) {
+            for (int b = a + 1; b < boxes.size(); b++) {
+                if (overlaps(boxes.get(a), boxes.get(b))) expected.add(key(a, b));
+            }
+        }
+        assertEquals(expected, found);
+        return pairCount;
+    }
+
+    private static boolean overlaps(float[] a, float[] b) {
+        return a[0] < b[0] + b[2] && a[0] + a[2] > b[0] && a[1] < b[1] + b[3] && a[1] + a[3] > b[1];
+    }
+
+    private static long key(int a, int b) {
+        return (long) a << 32 | b;
+    }
+}
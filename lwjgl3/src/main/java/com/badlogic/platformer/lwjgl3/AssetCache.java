@@ -0,0 +1,262 @@
+package com.badlogic.platformer.lwjgl3;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Shared, reference-counted cache of textures, atlases, sounds and fonts keyed by their internal path.
+ * Every screen acquires what it needs here instead of creating its own copy, so each file is decoded and
+ * uploaded once. Assets nobody references any more are kept around (least recently released first out)
+ * until the unused ones exceed {@link #setUnusedBudget(long)} bytes, which makes going back and forth between
+ * screens free.
+ */
+public class AssetCache implements Disposable {
+
+    // Atlases produced by the packTextures Gradle task
+    public static final String GAME_ATLAS = "atlas/game.atlas";
+    public static final String UI_ATLAS = "atlas/ui.atlas";
+
+    public static final long DEFAULT_UNUSED_BUDGET = 64L * 1024 * 1024;
+
+    private static class Entry {
+        final String path;
+        final Class<?> type;
+        final Disposable asset;
+        final long bytes;
+        // Another cached asset this one borrows from (a font drawing from an atlas page), released with it
+        String dependency;
+        int references;
+
+        Entry(String path, Class<?> type, Disposable asset, long bytes) {
+            this.path = path;
+            this.type = type;
+            this.asset = asset;
+            this.bytes = bytes;
+        }
+    }
+
+    // Separates the font file from the atlas in keys of fonts packed into an atlas
+    private static final String ATLAS_SEPARATOR = "@";
+
+    private final ObjectMap<String, Entry> entries = new ObjectMap<>();
+    // Entries with no references, oldest release first
+    private final Array<Entry> unused = new Array<>(false, 16);
+
+    private long unusedBudget = DEFAULT_UNUSED_BUDGET;
+
+    // Counters
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long residentBytes;
+    private long unusedBytes;
+
+    public Texture texture(String path) {
+        return acquire(path, Texture.class);
+    }
+
+    public Sound sound(String path) {
+        return acquire(path, Sound.class);
+    }
+
+    public TextureAtlas atlas(String path) {
+        return acquire(path, TextureAtlas.class);
+    }
+
+    public BitmapFont font(String path) {
+        return acquire(path, BitmapFont.class);
+    }
+
+    /**
+     * Returns a font whose glyph page is the region named after the font in {@code atlasPath}, so text and sprites
+     * from that atlas go out in the same batch flush. Release it with {@link #atlasFontKey(String, String)}.
+     */
+    public BitmapFont font(String path, String atlasPath) {
+        return acquire(atlasFontKey(path, atlasPath), BitmapFont.class);
+    }
+
+    public static String atlasFontKey(String path, String atlasPath) {
+        return path + ATLAS_SEPARATOR + atlasPath;
+    }
+
+    /** Returns the cached asset for {@code path}, loading it on the first request, and adds one reference. */
+    @SuppressWarnings("unchecked")
+    public synchronized <T extends Disposable> T acquire(String path, Class<T> type) {
+        Entry entry = entries.get(path);
+        if (entry != null) {
+            if (entry.type != type) {
+                throw new GdxRuntimeException("Asset " + path + " is cached as " + entry.type.getSimpleName()
+                    + ", not " + type.getSimpleName());
+            }
+            hits++;
+        } else {
+            misses++;
+            entry = load(path, type);
+            entries.put(path, entry);
+            residentBytes += entry.bytes;
+        }
+
+        if (entry.references++ == 0 && unused.removeValue(entry, true)) {
+            unusedBytes -= entry.bytes;
+        }
+        return (T) entry.asset;
+    }
+
+    /**
+     * Adds an asset loaded elsewhere, e.g. by {@link AssetPreloader}, without referencing it. It waits in the unused
+     * list until someone acquires it. If {@code path} is already cached the new copy is disposed.
+     */
+    public synchronized void put(String path, Class<?> type, Disposable asset) {
+        if (entries.containsKey(path)) {
+            asset.dispose();
+            return;
+        }
+        Entry entry = new Entry(path, type, asset, bytesOf(asset, Gdx.files.internal(path)));
+        entries.put(path, entry);
+        residentBytes += entry.bytes;
+        unused.add(entry);
+        unusedBytes += entry.bytes;
+        trim(unusedBudget);
+    }
+
+    /** Drops one reference to {@code path}. The asset stays resident until it gets evicted. */
+    public synchronized void release(String path) {
+        Entry entry = entries.get(path);
+        if (entry == null || entry.references == 0) {
+            throw new GdxRuntimeException("Asset " + path + " released more often than it was acquired");
+        }
+        if (--entry.references == 0) {
+            unused.add(entry);
+            unusedBytes += entry.bytes;
+            trim(unusedBudget);
+        }
+    }
+
+    /** Disposes every asset that currently has no references. */
+    public synchronized void evictUnused() {
+        trim(0);
+    }
+
+    private void trim(long budget) {
+        while (unusedBytes > budget && unused.size > 0) {
+            Entry entry = unused.removeIndex(0);
+            entries.remove(entry.path);
+            entry.asset.dispose();
+            unusedBytes -= entry.bytes;
+            residentBytes -= entry.bytes;
+            evictions++;
+            if (entry.dependency != null) {
+                // May push the dependency into the unused list, the loop picks it up if we are still over budget
+                release(entry.dependency);
+            }
+        }
+    }
+
+    private Entry load(String path, Class<?> type) {
+        FileHandle file = Gdx.files.internal(path);
+        if (type == Texture.class) {
+            Texture texture = new Texture(file);
+            return new Entry(path, type, texture, bytesOf(texture, file));
+        }
+        if (type == Sound.class) {
+            Sound sound = Gdx.audio.newSound(file);
+            return new Entry(path, type, sound, bytesOf(sound, file));
+        }
+        if (type == TextureAtlas.class) {
+            TextureAtlas atlas = new TextureAtlas(file);
+            return new Entry(path, type, atlas, bytesOf(atlas, file));
+        }
+        if (type == BitmapFont.class && path.contains(ATLAS_SEPARATOR)) {
+            String fontPath = path.substring(0, path.indexOf(ATLAS_SEPARATOR));
+            String atlasPath = path.substring(path.indexOf(ATLAS_SEPARATOR) + 1);
+            FileHandle fontFile = Gdx.files.internal(fontPath);
+            TextureAtlas atlas = acquire(atlasPath, TextureAtlas.class);
+            // The font does not own the atlas page, disposing it leaves the atlas alone
+            BitmapFont font = new BitmapFont(fontFile, atlas.findRegion(fontFile.nameWithoutExtension()));
+            Entry entry = new Entry(path, type, font, 0);
+            entry.dependency = atlasPath;
+            return entry;
+        }
+        if (type == BitmapFont.class) {
+            BitmapFont font = new BitmapFont(file);
+            long bytes = 0;
+            for (int i = 0; i < font.getRegions().size; i++) {
+                bytes += textureBytes(font.getRegions().get(i).getTexture());
+            }
+            return new Entry(path, type, font, bytes);
+        }
+        throw new GdxRuntimeException("Unsupported asset type " + type.getName() + " for " + path);
+    }
+
+    private static long bytesOf(Disposable asset, FileHandle file) {
+        if (asset instanceof Texture) return textureBytes((Texture) asset);
+        if (asset instanceof TextureAtlas) {
+            long bytes = 0;
+            for (Texture texture : ((TextureAtlas) asset).getTextures()) {
+                bytes += textureBytes(texture);
+            }
+            return bytes;
+        }
+        // Decoded sound size is backend specific, the file size is a stable lower bound
+        return file.length();
+    }
+
+    private static long textureBytes(Texture texture) {
+        // RGBA8888 is what the PNGs in assets/ are uploaded as
+        return (long) texture.getWidth() * texture.getHeight() * 4;
+    }
+
+    public synchronized void setUnusedBudget(long bytes) {
+        unusedBudget = bytes;
+        trim(unusedBudget);
+    }
+
+    public synchronized int getReferenceCount(String path) {
+        Entry entry = entries.get(path);
+        return entry == null ? 0 : entry.references;
+    }
+
+    public synchronized boolean isLoaded(String path) {
+        return entries.containsKey(path);
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /** Approximate bytes held by all cached assets, referenced or not. */
+    public synchronized long getResidentBytes() {
+        return residentBytes;
+    }
+
+    public synchronized int size() {
+        return entries.size;
+    }
+
+    @Override
+    public synchronized void dispose() {
+        for (Entry entry : entries.values()) {
+            entry.asset.dispose();
+        }
+        entries.clear();
+        unused.clear();
+        residentBytes = 0;
+        unusedBytes = 0;
+    }
+}
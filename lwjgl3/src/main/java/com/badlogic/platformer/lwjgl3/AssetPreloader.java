@@ -0,0 +1,169 @@
+package com.badlogic.platformer.lwjgl3;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Loads assets into the {@link AssetCache} ahead of time. Image and audio decoding runs in parallel on background
+ * threads; {@link #update(long)} then creates the GL textures on the render thread, as many per frame as fit in
+ * the time budget. Sounds are created on the background thread as well, OpenAL does not care which thread calls
+ * it. Screens acquire preloaded assets from the cache as usual and get them without any loading.
+ */
+public class AssetPreloader implements Disposable {
+
+    // Upload time allowed per frame, a little under a quarter of a 60 Hz frame
+    public static final long DEFAULT_UPLOAD_BUDGET_NANOS = 4_000_000L;
+
+    /** A decoded asset waiting for the render thread. */
+    private static class Decoded {
+        final String path;
+        final Class<?> type;
+        Pixmap pixmap;
+        TextureAtlas.TextureAtlasData atlasData;
+        Pixmap[] pages;
+        Sound sound;
+        RuntimeException error;
+
+        Decoded(String path, Class<?> type) {
+            this.path = path;
+            this.type = type;
+        }
+    }
+
+    private final AssetCache assets;
+    private final ExecutorService decoders;
+    private final ConcurrentLinkedQueue<Decoded> decoded = new ConcurrentLinkedQueue<>();
+
+    // Only touched on the render thread
+    private final Array<String> requested = new Array<>();
+    private int finished;
+
+    public AssetPreloader(AssetCache assets) {
+        this.assets = assets;
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        decoders = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            private int count;
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "asset-decoder-" + count++);
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            }
+        });
+    }
+
+    /** Starts decoding {@code path} unless it is cached or already requested. Textures, atlases and sounds only. */
+    public void preload(final String path, final Class<?> type) {
+        if (type != Texture.class && type != TextureAtlas.class && type != Sound.class) {
+            throw new GdxRuntimeException("Cannot preload " + type.getSimpleName() + ": " + path);
+        }
+        if (requested.contains(path, false)) return;
+        requested.add(path);
+        if (assets.isLoaded(path)) {
+            finished++;
+            return;
+        }
+
+        decoders.execute(new Runnable() {
+            @Override
+            public void run() {
+                decoded.add(decode(path, type));
+            }
+        });
+    }
+
+    private static Decoded decode(String path, Class<?> type) {
+        Decoded result = new Decoded(path, type);
+        try {
+            FileHandle file = Gdx.files.internal(path);
+            if (type == Texture.class) {
+                result.pixmap = new Pixmap(file);
+            } else if (type == TextureAtlas.class) {
+                TextureAtlas.TextureAtlasData data = new TextureAtlas.TextureAtlasData(file, file.parent(), false);
+                Pixmap[] pages = new Pixmap[data.getPages().size];
+                for (int i = 0; i < pages.length; i++) {
+                    pages[i] = new Pixmap(data.getPages().get(i).textureFile);
+                }
+                result.atlasData = data;
+                result.pages = pages;
+            } else {
+                result.sound = Gdx.audio.newSound(file);
+            }
+        } catch (RuntimeException e) {
+            result.error = e;
+        }
+        return result;
+    }
+
+    /**
+     * Uploads decoded assets and hands them to the cache until {@code budgetNanos} is used up; at least one is
+     * uploaded per call so progress never stalls. Call once per frame on the render thread.
+     */
+    public void update(long budgetNanos) {
+        long start = System.nanoTime();
+        Decoded next;
+        while ((next = decoded.poll()) != null) {
+            upload(next);
+            finished++;
+            if (System.nanoTime() - start >= budgetNanos) break;
+        }
+    }
+
+    private void upload(Decoded asset) {
+        if (asset.error != null) {
+            throw new GdxRuntimeException("Could not preload " + asset.path, asset.error);
+        }
+        if (asset.type == Texture.class) {
+            Texture texture = new Texture(asset.pixmap);
+            asset.pixmap.dispose();
+            assets.put(asset.path, Texture.class, texture);
+        } else if (asset.type == TextureAtlas.class) {
+            // The atlas only loads pages that have no texture yet, so it picks up ours
+            Array<TextureAtlas.TextureAtlasData.Page> pages = asset.atlasData.getPages();
+            for (int i = 0; i < pages.size; i++) {
+                TextureAtlas.TextureAtlasData.Page page = pages.get(i);
+                page.texture = new Texture(asset.pages[i], page.format, page.useMipMaps);
+                asset.pages[i].dispose();
+            }
+            assets.put(asset.path, TextureAtlas.class, new TextureAtlas(asset.atlasData));
+        } else {
+            assets.put(asset.path, Sound.class, asset.sound);
+        }
+    }
+
+    /** Fraction of the requested assets that are in the cache, 1 when nothing was requested. */
+    public float getProgress() {
+        return requested.size == 0 ? 1f : (float) finished / requested.size;
+    }
+
+    public boolean isDone() {
+        return finished == requested.size;
+    }
+
+    @Override
+    public void dispose() {
+        decoders.shutdownNow();
+        Decoded next;
+        while ((next = decoded.poll()) != null) {
+            if (next.pixmap != null) next.pixmap.dispose();
+            if (next.pages != null) {
+                for (Pixmap page : next.pages) page.dispose();
+            }
+            if (next.sound != null) next.sound.dispose();
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.badlogic.platformer.lwjgl3;
+
+import com.badlogic.gdx.audio.Music;
+import com.badlogic.gdx.audio.Sound;
+
+/**
+ * Sits between the screens and the audio backend. Screens register their sounds once and then only queue plays;
+ * {@link #flush(float)} runs once per frame, plays each queued sound once no matter how often it was queued, and
+ * keeps within a voice cap per sound and a global one. When every voice is busy a sound may take the voice of a
+ * lower priority one, otherwise it is dropped. Volumes are the master volume times the category volume times the
+ * sound's own volume; music started through {@link #playMusic(Music, float)} follows volume changes while it plays.
+ * <p>
+ * libGDX cannot tell when a sound ends, so every sound is registered with roughly how long it lasts.
+ */
+public class AudioMixer {
+
+    // Categories
+    public static final int SFX = 0;
+    public static final int UI = 1;
+    public static final int MUSIC = 2;
+    public static final int CATEGORY_COUNT = 3;
+
+    // Priorities, higher ones may take a voice from lower ones
+    public static final int PRIORITY_LOW = 0;
+    public static final int PRIORITY_NORMAL = 1;
+    public static final int PRIORITY_HIGH = 2;
+
+    private static final int MAX_SOUNDS = 32;
+    private static final int MAX_VOICES = 12;
+
+    // Registered sounds, indexed by the id returned from register()
+    private final String[] soundNames = new String[MAX_SOUNDS];
+    private final Sound[] sounds = new Sound[MAX_SOUNDS];
+    private final int[] soundCategory = new int[MAX_SOUNDS];
+    private final int[] soundPriority = new int[MAX_SOUNDS];
+    private final int[] soundMaxVoices = new int[MAX_SOUNDS];
+    private final float[] soundVolume = new float[MAX_SOUNDS];
+    private final float[] soundDuration = new float[MAX_SOUNDS];
+    private int soundCount;
+
+    // Plays queued since the last flush, per sound
+    private final int[] pending = new int[MAX_SOUNDS];
+
+    // Voices currently playing, a sound of -1 marks a free voice
+    private final int[] voiceSound = new int[MAX_VOICES];
+    private final long[] voiceId = new long[MAX_VOICES];
+    private final float[] voiceStart = new float[MAX_VOICES];
+    private final float[] voiceEnd = new float[MAX_VOICES];
+    private float time;
+
+    private float masterVolume = 1f;
+    private final float[] categoryVolume = { 1f, 1f, 1f };
+
+    // Music currently playing and its own volume
+    private Music music;
+    private float musicVolume;
+
+    // Totals since start, shown in the metrics overlay
+    private long requested;
+    private long coalesced;
+    private long played;
+    private long dropped;
+    private long stolen;
+
+    public AudioMixer() {
+        for (int i = 0; i < MAX_VOICES; i++) {
+            voiceSound[i] = -1;
+        }
+    }
+
+    /**
+     * Registers {@code sound} under its asset {@code name} and returns the id to queue it with. Registering the
+     * same name again returns the id it already has, so screens can register in their constructors; when the
+     * asset was reloaded in between, the id plays the new {@link Sound} from then on.
+     *
+     * @param duration roughly how long the sound plays, in seconds
+     */
+    public int register(String name, Sound sound, int category, int priority, int maxVoices, float volume, float duration) {
+        int id = find(name);
+        if (id < 0) {
+            if (soundCount == MAX_SOUNDS) throw new IllegalStateException("Too many sounds registered: " + MAX_SOUNDS);
+            id = soundCount++;
+            soundNames[id] = name;
+        } else if (sounds[id] != sound) {
+            // The old Sound was unloaded, its voices are gone with it
+            for (int v = 0; v < MAX_VOICES; v++) {
+                if (voiceSound[v] == id) voiceSound[v] = -1;
+            }
+        }
+        sounds[id] = sound;
+        soundCategory[id] = category;
+        soundPriority[id] = priority;
+        soundMaxVoices[id] = Math.max(1, maxVoices);
+        soundVolume[id] = volume;
+        soundDuration[id] = duration;
+        return id;
+    }
+
+    private int find(String name) {
+        for (int i = 0; i < soundCount; i++) {
+            if (soundNames[i].equals(name)) return i;
+        }
+        return -1;
+    }
+
+    /** Queues {@code sound} for the next flush. Queuing it again before then has no further effect. */
+    public void play(int sound) {
+        requested++;
+        if (pending[sound]++ > 0) coalesced++;
+    }
+
+    /** Plays everything queued since the last flush, highest priority first. Call once per frame. */
+    public void flush(float delta) {
+        time += delta;
+        for (int v = 0; v < MAX_VOICES; v++) {
+            if (voiceSound[v] >= 0 && voiceEnd[v] <= time) voiceSound[v] = -1;
+        }
+
+        for (int priority = PRIORITY_HIGH; priority >= PRIORITY_LOW; priority--) {
+            for (int sound = 0; sound < soundCount; sound++) {
+                if (pending[sound] == 0 || soundPriority[sound] != priority) continue;
+                pending[sound] = 0;
+                start(sound);
+            }
+        }
+    }
+
+    private void start(int sound) {
+        // Per sound cap
+        int voices = 0;
+        for (int v = 0; v < MAX_VOICES; v++) {
+            if (voiceSound[v] == sound) voices++;
+        }
+        if (voices >= soundMaxVoices[sound]) {
+            dropped++;
+            return;
+        }
+
+        int voice = findVoice(soundPriority[sound]);
+        if (voice < 0) {
+            dropped++;
+            return;
+        }
+        if (voiceSound[voice] >= 0) {
+            sounds[voiceSound[voice]].stop(voiceId[voice]);
+            stolen++;
+        }
+
+        float volume = masterVolume * categoryVolume[soundCategory[sound]] * soundVolume[sound];
+        long id = sounds[sound].play(volume);
+        if (id == -1) {
+            // The backend ran out of sources
+            voiceSound[voice] = -1;
+            dropped++;
+            return;
+        }
+        voiceSound[voice] = sound;
+        voiceId[voice] = id;
+        voiceStart[voice] = time;
+        voiceEnd[voice] = time + soundDuration[sound];
+        played++;
+    }
+
+    /** A free voice, else the oldest voice of the lowest priority below {@code priority}, else -1. */
+    private int findVoice(int priority) {
+        int best = -1;
+        for (int v = 0; v < MAX_VOICES; v++) {
+            int playing = voiceSound[v];
+            if (playing < 0) return v;
+            int playingPriority = soundPriority[playing];
+            if (playingPriority >= priority) continue;
+            if (best < 0 || playingPriority < soundPriority[voiceSound[best]]
+                || (playingPriority == soundPriority[voiceSound[best]] && voiceStart[v] < voiceStart[best])) {
+                best = v;
+            }
+        }
+        return best;
+    }
+
+    /** Stops every playing voice and forgets anything queued. */
+    public void stopAll() {
+        for (int v = 0; v < MAX_VOICES; v++) {
+            if (voiceSound[v] >= 0) sounds[voiceSound[v]].stop(voiceId[v]);
+            voiceSound[v] = -1;
+        }
+        for (int i = 0; i < soundCount; i++) {
+            pending[i] = 0;
+        }
+    }
+
+    /** Loops {@code music} at {@code volume} times the music volume, unless it is already playing. */
+    public void playMusic(Music music, float volume) {
+        this.music = music;
+        musicVolume = volume;
+        music.setLooping(true);
+        music.setVolume(musicVolume * getVolume(MUSIC));
+        if (!music.isPlaying()) music.play();
+    }
+
+    public void stopMusic() {
+        if (music == null) return;
+        music.stop();
+        music = null;
+    }
+
+    public void setMasterVolume(float volume) {
+        masterVolume = Math.max(0f, Math.min(1f, volume));
+        if (music != null) music.setVolume(musicVolume * getVolume(MUSIC));
+    }
+
+    public float getMasterVolume() {
+        return masterVolume;
+    }
+
+    public void setCategoryVolume(int category, float volume) {
+        categoryVolume[category] = Math.max(0f, Math.min(1f, volume));
+        if (music != null) music.setVolume(musicVolume * getVolume(MUSIC));
+    }
+
+    /** Master times category volume, for audio that is not played through the mixer such as music. */
+    public float getVolume(int category) {
+        return masterVolume * categoryVolume[category];
+    }
+
+    public int getActiveVoices() {
+        int active = 0;
+        for (int v = 0; v < MAX_VOICES; v++) {
+            if (voiceSound[v] >= 0) active++;
+        }
+        return active;
+    }
+
+    public long getRequested() {
+        return requested;
+    }
+
+    public long getCoalesced() {
+        return coalesced;
+    }
+
+    public long getPlayed() {
+        return played;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    public long getStolen() {
+        return stolen;
+    }
+}
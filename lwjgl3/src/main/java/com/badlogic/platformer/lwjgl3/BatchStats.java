@@ -0,0 +1,67 @@
+package com.badlogic.platformer.lwjgl3;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+
+/**
+ * Tracks how many draw calls a screen's {@link SpriteBatch} needs per frame. Call {@link #record(SpriteBatch)}
+ * right after {@code batch.end()}; when enabled with {@code -Dplatformer.batchStats=true} a summary is logged
+ * once per second so atlas changes can be checked against real numbers.
+ */
+public class BatchStats {
+
+    private static final boolean LOG_ENABLED = Boolean.getBoolean("platformer.batchStats");
+    private static final float LOG_INTERVAL = 1f;
+
+    private final String screenName;
+
+    private int frames;
+    private int lastRenderCalls;
+    private int maxRenderCalls;
+    private long totalRenderCalls;
+    private int maxSpritesInBatch;
+    private float sinceLastLog;
+
+    public BatchStats(String screenName) {
+        this.screenName = screenName;
+    }
+
+    /** Records the frame that was just submitted. {@code renderCalls} is reset by every {@code batch.begin()}. */
+    public void record(SpriteBatch batch) {
+        frames++;
+        lastRenderCalls = batch.renderCalls;
+        maxRenderCalls = Math.max(maxRenderCalls, batch.renderCalls);
+        totalRenderCalls += batch.renderCalls;
+        maxSpritesInBatch = Math.max(maxSpritesInBatch, batch.maxSpritesInBatch);
+
+        if (LOG_ENABLED) {
+            sinceLastLog += Gdx.graphics.getDeltaTime();
+            if (sinceLastLog >= LOG_INTERVAL) {
+                sinceLastLog = 0f;
+                Gdx.app.log("BatchStats", toString());
+            }
+        }
+    }
+
+    public int getLastRenderCalls() {
+        return lastRenderCalls;
+    }
+
+    public int getMaxRenderCalls() {
+        return maxRenderCalls;
+    }
+
+    public float getAverageRenderCalls() {
+        return frames == 0 ? 0f : (float) totalRenderCalls / frames;
+    }
+
+    public int getMaxSpritesInBatch() {
+        return maxSpritesInBatch;
+    }
+
+    @Override
+    public String toString() {
+        return screenName + ": renderCalls=" + lastRenderCalls + " (avg " + getAverageRenderCalls() + ", max "
+            + maxRenderCalls + "), maxSpritesInBatch=" + maxSpritesInBatch;
+    }
+}
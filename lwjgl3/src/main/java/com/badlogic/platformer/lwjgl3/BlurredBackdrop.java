@@ -0,0 +1,123 @@
+package com.badlogic.platformer.lwjgl3;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * A blurred still of a scene, drawn behind menus. {@link #capture(SpriteBatch, Scene, int, int)} renders the scene
+ * once into a framebuffer at a fraction of the screen size and blurs it with two passes of the blur shader,
+ * horizontal then vertical. Drawing the result afterwards is a single textured quad, however long it is shown.
+ */
+public class BlurredBackdrop implements Disposable {
+
+    /** Something that can draw itself into an already begun batch, in screen coordinates. */
+    public interface Scene {
+        void draw(SpriteBatch batch);
+    }
+
+    // The capture is this many times smaller than the screen on each axis, which also widens the blur
+    private static final int DOWNSAMPLE = 4;
+
+    private final ShaderProgram shader;
+    private final Matrix4 projection = new Matrix4();
+    private final Matrix4 savedProjection = new Matrix4();
+
+    // The scene is drawn into the first buffer, blurred across into the second and back
+    private FrameBuffer first;
+    private FrameBuffer second;
+    private boolean captured;
+
+    public BlurredBackdrop() {
+        shader = new ShaderProgram(Gdx.files.internal("shaders/blur.vert"), Gdx.files.internal("shaders/blur.frag"));
+        if (!shader.isCompiled()) {
+            throw new GdxRuntimeException("Could not compile blur shader: " + shader.getLog());
+        }
+    }
+
+    /** Draws {@code scene} for a screen of the given size and blurs it. */
+    public void capture(SpriteBatch batch, Scene scene, int screenWidth, int screenHeight) {
+        int width = Math.max(1, screenWidth / DOWNSAMPLE);
+        int height = Math.max(1, screenHeight / DOWNSAMPLE);
+        if (first == null || first.getWidth() != width || first.getHeight() != height) {
+            disposeBuffers();
+            first = createBuffer(width, height);
+            second = createBuffer(width, height);
+        }
+        savedProjection.set(batch.getProjectionMatrix());
+
+        // Scene at reduced resolution, the screen sized projection scales it down
+        first.begin();
+        Gdx.gl.glClearColor(0, 0, 0, 1);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        projection.setToOrtho2D(0, 0, screenWidth, screenHeight);
+        batch.setProjectionMatrix(projection);
+        batch.setColor(1, 1, 1, 1);
+        batch.begin();
+        scene.draw(batch);
+        batch.end();
+        first.end();
+
+        // Horizontal then vertical pass
+        projection.setToOrtho2D(0, 0, width, height);
+        batch.setProjectionMatrix(projection);
+        batch.setShader(shader);
+        // Each pass replaces its target; the weights do not sum to one, so blending would mix in what was there
+        batch.disableBlending();
+        blurPass(batch, first, second, 1f / width, 0f);
+        blurPass(batch, second, first, 0f, 1f / height);
+        batch.enableBlending();
+        batch.setShader(null);
+
+        batch.setProjectionMatrix(savedProjection);
+        captured = true;
+    }
+
+    private void blurPass(SpriteBatch batch, FrameBuffer source, FrameBuffer target, float stepX, float stepY) {
+        target.begin();
+        batch.begin();
+        shader.setUniformf("u_direction", stepX, stepY);
+        // Framebuffer textures are bottom up, so v runs from 0 at the bottom to 1 at the top
+        batch.draw(source.getColorBufferTexture(), 0, 0, target.getWidth(), target.getHeight(), 0, 0, 1, 1);
+        batch.end();
+        target.end();
+    }
+
+    /** Draws the blurred capture stretched over the given area. Does nothing before the first capture. */
+    public void draw(SpriteBatch batch, float x, float y, float width, float height) {
+        if (!captured) return;
+        batch.draw(first.getColorBufferTexture(), x, y, width, height, 0, 0, 1, 1);
+    }
+
+    public boolean isCaptured() {
+        return captured;
+    }
+
+    private static FrameBuffer createBuffer(int width, int height) {
+        FrameBuffer buffer = new FrameBuffer(Pixmap.Format.RGB888, width, height, false);
+        // Linear filtering smooths the upscale back to screen size
+        buffer.getColorBufferTexture().setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+        return buffer;
+    }
+
+    private void disposeBuffers() {
+        if (first != null) first.dispose();
+        if (second != null) second.dispose();
+        first = null;
+        second = null;
+        captured = false;
+    }
+
+    @Override
+    public void dispose() {
+        disposeBuffers();
+        shader.dispose();
+    }
+}
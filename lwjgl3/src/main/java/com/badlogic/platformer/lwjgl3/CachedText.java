@@ -0,0 +1,101 @@
+package com.badlogic.platformer.lwjgl3;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+
+/**
+ * A piece of text whose glyph layout and vertices are kept between frames. Setting the same text or value again
+ * is a no-op, so drawing a label every frame allocates nothing and only lays out text when what it shows changes.
+ */
+public class CachedText {
+
+    private final BitmapFont font;
+    private final BitmapFontCache cache;
+    private final GlyphLayout layout = new GlyphLayout();
+    // Reused character buffer, the label is built here instead of concatenating Strings
+    private final StringBuilder text = new StringBuilder(32);
+    private final float scale;
+    // Appended after a value, e.g. "%"
+    private final String suffix;
+
+    // What the current layout shows: text holds the label followed by the value, if any
+    private int labelLength = -1;
+    private int value;
+    private boolean hasValue;
+
+    private float x;
+    private float y;
+
+    public CachedText(BitmapFont font, float scale) {
+        this(font, scale, "");
+    }
+
+    public CachedText(BitmapFont font, float scale, String suffix) {
+        this.font = font;
+        this.scale = scale;
+        this.suffix = suffix;
+        cache = new BitmapFontCache(font, font.usesIntegerPositions());
+    }
+
+    /** Shows {@code label} as is. The label is compared by content, so a reused buffer works too. */
+    public void setText(CharSequence label) {
+        if (!hasValue && sameLabel(label)) return;
+        labelLength = label.length();
+        hasValue = false;
+        text.setLength(0);
+        text.append(label);
+        layout();
+    }
+
+    /** Shows {@code label} followed by {@code value} and the suffix, e.g. "Player 1: " and the health. */
+    public void setText(CharSequence label, int value) {
+        if (hasValue && this.value == value && sameLabel(label)) return;
+        labelLength = label.length();
+        this.value = value;
+        hasValue = true;
+        text.setLength(0);
+        text.append(label).append(value).append(suffix);
+        layout();
+    }
+
+    public void setPosition(float x, float y) {
+        if (this.x == x && this.y == y) return;
+        this.x = x;
+        this.y = y;
+        // Only moves the cached vertices
+        cache.setPosition(x, y);
+    }
+
+    public void draw(Batch batch) {
+        cache.draw(batch);
+    }
+
+    public float getWidth() {
+        return layout.width;
+    }
+
+    public float getHeight() {
+        return layout.height;
+    }
+
+    private void layout() {
+        // The font is shared, leave its scale the way we found it
+        float oldScaleX = font.getData().scaleX;
+        float oldScaleY = font.getData().scaleY;
+        font.getData().setScale(scale);
+        layout.setText(font, text);
+        cache.setText(layout, 0, 0);
+        cache.setPosition(x, y);
+        font.getData().setScale(oldScaleX, oldScaleY);
+    }
+
+    private boolean sameLabel(CharSequence label) {
+        if (labelLength != label.length()) return false;
+        for (int i = 0; i < labelLength; i++) {
+            if (text.charAt(i) != label.charAt(i)) return false;
+        }
+        return true;
+    }
+}
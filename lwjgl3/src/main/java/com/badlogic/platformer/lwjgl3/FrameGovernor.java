@@ -0,0 +1,224 @@
+package com.badlogic.platformer.lwjgl3;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.math.MathUtils;
+
+import java.util.Locale;
+
+/**
+ * Keeps frames inside their time budget by trading quality for time. Twice a second it looks at the p95 of two
+ * things: the frame work time (the CPU side of a frame, measured before the buffer swap) and the real interval
+ * between frames, which also includes waiting on the GPU. The budget is the FPS cap, or the display refresh rate
+ * if that is lower and vsync is on.
+ * <p>
+ * When the work time gets close to the budget the frame is CPU bound: effect density goes down first, then the FPS
+ * cap. When frames arrive late although the work time is fine, the GPU is the bottleneck and the render scale is
+ * lowered after the effect density, before the FPS cap. With plenty of room to spare for a while everything is
+ * raised again in the opposite order. All settings stay within {@link Limits}, and every change is logged.
+ */
+public class FrameGovernor {
+
+    /** User set bounds, read from {@code -Dplatformer.*} properties. */
+    public static class Limits {
+        public boolean enabled = true;
+        public boolean vsync = true;
+        // Of the display the window opens on, the interval budget with vsync on
+        public int refreshRate = 60;
+        public float minRenderScale = RenderScale.MIN_SCALE;
+        public float maxRenderScale = RenderScale.MAX_SCALE;
+        public int minFps = 30;
+        public int maxFps = 60;
+        // While the window is unfocused (never above the current cap), and while it is minimized
+        public int backgroundFps = 30;
+        public int idleFps = 10;
+        public float minEffectDensity = 0.25f;
+
+        public static Limits fromSystemProperties(int refreshRate) {
+            Limits limits = new Limits();
+            limits.enabled = !"false".equals(System.getProperty("platformer.governor"));
+            limits.vsync = !"false".equals(System.getProperty("platformer.vsync"));
+            limits.refreshRate = refreshRate > 0 ? refreshRate : 60;
+            limits.maxFps = Integer.getInteger("platformer.maxFps", Math.max(30, refreshRate));
+            limits.minFps = Math.min(limits.maxFps, Integer.getInteger("platformer.minFps", 30));
+            limits.backgroundFps = Integer.getInteger("platformer.backgroundFps", 30);
+            limits.idleFps = Integer.getInteger("platformer.idleFps", 10);
+            limits.minRenderScale = floatProperty("platformer.minRenderScale", RenderScale.MIN_SCALE);
+            limits.minEffectDensity = floatProperty("platformer.minEffectDensity", 0.25f);
+            return limits;
+        }
+
+        private static float floatProperty(String name, float defaultValue) {
+            String value = System.getProperty(name);
+            return value == null ? defaultValue : Float.parseFloat(value);
+        }
+    }
+
+    private static final String TAG = "FrameGovernor";
+    private static final float EVALUATE_INTERVAL = 0.5f;
+    // Above this share of the budget we step down, below the other one (for a few evaluations) we step up
+    private static final float LOWER_THRESHOLD = 0.85f;
+    private static final float RAISE_THRESHOLD = 0.55f;
+    // Frame intervals are paced to the budget, so only this far above it counts as missed frames
+    private static final float LATE_THRESHOLD = 1.25f;
+    private static final int RAISE_AFTER = 4;
+    // Frames looked at, about two seconds; cleared after every change so old frames don't count twice
+    private static final int WINDOW = 120;
+    private static final int MIN_SAMPLES = 30;
+
+    private static final float SCALE_STEP = 0.1f;
+    private static final float DENSITY_STEP = 0.25f;
+    private static final int[] FPS_STEPS = { 240, 165, 144, 120, 90, 75, 60, 50, 45, 40, 30 };
+
+    private final Limits limits;
+    private final RollingHistogram workNanos = new RollingHistogram(WINDOW);
+    private final RollingHistogram intervalNanos = new RollingHistogram(WINDOW);
+
+    private float renderScale;
+    private float effectDensity = 1f;
+    private int fpsCap;
+    private boolean focused = true;
+
+    private float sinceEvaluation;
+    private int roomyEvaluations;
+    // The interval after a pause or a change still belongs to the old settings
+    private boolean skipInterval = true;
+
+    public FrameGovernor(Limits limits) {
+        this.limits = limits;
+        renderScale = limits.maxRenderScale;
+        fpsCap = limits.maxFps;
+    }
+
+    /** Call once per frame with the time since the previous frame and the work time this frame took. */
+    public void update(float delta, long frameWorkNanos) {
+        if (!limits.enabled || !focused) return;
+        workNanos.record(frameWorkNanos);
+        if (skipInterval) {
+            skipInterval = false;
+        } else {
+            intervalNanos.record((long) (delta * 1e9f));
+        }
+
+        sinceEvaluation += delta;
+        if (sinceEvaluation < EVALUATE_INTERVAL || intervalNanos.getCount() < MIN_SAMPLES) return;
+        sinceEvaluation = 0f;
+
+        long budget = getBudgetNanos();
+        long work = workNanos.percentile(95);
+        long interval = intervalNanos.percentile(95);
+        boolean cpuBound = work > budget * LOWER_THRESHOLD;
+        boolean late = interval > budget * LATE_THRESHOLD;
+        if (cpuBound || late) {
+            roomyEvaluations = 0;
+            lower(cpuBound, work, interval, budget);
+        } else if (work < budget * RAISE_THRESHOLD) {
+            if (++roomyEvaluations >= RAISE_AFTER) {
+                roomyEvaluations = 0;
+                raise(work, interval, budget);
+            }
+        } else {
+            roomyEvaluations = 0;
+        }
+    }
+
+    /** Time one frame may take at the current cap, or at the refresh rate if vsync holds frames back further. */
+    private long getBudgetNanos() {
+        int fps = limits.vsync ? Math.min(fpsCap, limits.refreshRate) : fpsCap;
+        return 1_000_000_000L / fps;
+    }
+
+    private void lower(boolean cpuBound, long work, long interval, long budget) {
+        if (effectDensity > limits.minEffectDensity) {
+            float density = Math.max(limits.minEffectDensity, effectDensity - DENSITY_STEP);
+            log(work, interval, budget, "effect density", effectDensity, density);
+            effectDensity = density;
+        } else if (!cpuBound && renderScale > limits.minRenderScale) {
+            // Fewer pixels only help when the GPU holds the frame up
+            float scale = Math.max(limits.minRenderScale, renderScale - SCALE_STEP);
+            log(work, interval, budget, "render scale", renderScale, scale);
+            renderScale = scale;
+        } else if (fpsCap > limits.minFps) {
+            int cap = nextFpsStep(fpsCap, false);
+            log(work, interval, budget, "fps cap", fpsCap, cap);
+            setFpsCap(cap);
+        } else {
+            return;
+        }
+        clearSamples();
+    }
+
+    private void raise(long work, long interval, long budget) {
+        if (fpsCap < limits.maxFps) {
+            int cap = nextFpsStep(fpsCap, true);
+            log(work, interval, budget, "fps cap", fpsCap, cap);
+            setFpsCap(cap);
+        } else if (renderScale < limits.maxRenderScale) {
+            float scale = Math.min(limits.maxRenderScale, renderScale + SCALE_STEP);
+            log(work, interval, budget, "render scale", renderScale, scale);
+            renderScale = scale;
+        } else if (effectDensity < 1f) {
+            float density = Math.min(1f, effectDensity + DENSITY_STEP);
+            log(work, interval, budget, "effect density", effectDensity, density);
+            effectDensity = density;
+        } else {
+            return;
+        }
+        clearSamples();
+    }
+
+    private void clearSamples() {
+        workNanos.clear();
+        intervalNanos.clear();
+        skipInterval = true;
+    }
+
+    /** The next FPS step below or above {@code fps}, kept within the limits. */
+    private int nextFpsStep(int fps, boolean up) {
+        int next = up ? limits.maxFps : limits.minFps;
+        for (int step : FPS_STEPS) {
+            if (up && step > fps) next = Math.min(next, step);
+            if (!up && step < fps) next = Math.max(next, step);
+        }
+        return MathUtils.clamp(next, limits.minFps, limits.maxFps);
+    }
+
+    private void setFpsCap(int fps) {
+        fpsCap = fps;
+        if (focused) Gdx.graphics.setForegroundFPS(fps);
+    }
+
+    /**
+     * Drops to the background FPS limit while the window has no focus, or stays at the current cap if the governor
+     * already lowered it further.
+     */
+    public void setFocused(boolean focused) {
+        if (this.focused == focused) return;
+        this.focused = focused;
+        int fps = focused ? fpsCap : Math.min(limits.backgroundFps, fpsCap);
+        Gdx.app.log(TAG, (focused ? "focus gained" : "focus lost") + ": fps cap " + fps);
+        Gdx.graphics.setForegroundFPS(fps);
+        clearSamples();
+    }
+
+    private static void log(long work, long interval, long budget, String setting, float from, float to) {
+        Gdx.app.log(TAG, String.format(Locale.ROOT,
+            "p95 work %.2f ms, frame %.2f ms of %.2f ms budget: %s %.2f -> %.2f", work / 1e6, interval / 1e6, budget / 1e6, setting, from, to));
+    }
+
+    public float getRenderScale() {
+        return renderScale;
+    }
+
+    /** Share of optional effects (particles and the like) to spawn, between the minimum and 1. */
+    public float getEffectDensity() {
+        return effectDensity;
+    }
+
+    public int getFpsCap() {
+        return fpsCap;
+    }
+
+    public Limits getLimits() {
+        return limits;
+    }
+}
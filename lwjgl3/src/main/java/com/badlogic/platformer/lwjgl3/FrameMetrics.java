@@ -0,0 +1,269 @@
+package com.badlogic.platformer.lwjgl3;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Per-frame timings of each render phase, plus GC activity and GL draw call / texture bind counts, kept in rolling
+ * histograms. Screens wrap their phases in {@link #begin(int)} / {@link #end(int)}; the game wraps the whole frame
+ * in {@link #beginFrame()} / {@link #endFrame()}.
+ * <p>
+ * Local matches tick on their own thread, so their input sampling and simulation step are not part of any frame.
+ * That thread hands the time of each tick to {@link #recordTick(long, long)}, and every frame moves the new ticks
+ * into two more histograms, per tick rather than per frame.
+ * <p>
+ * With {@code -Dplatformer.metrics=true} a CSV summary is appended to {@code metrics.csv} every few seconds from a
+ * background thread. The on-screen overlay ({@link MetricsOverlay}) reads the same histograms.
+ */
+public class FrameMetrics implements Disposable {
+
+    // Phases
+    public static final int INPUT = 0;
+    public static final int UPDATE = 1;
+    public static final int DRAW_WORLD = 2;
+    public static final int DRAW_HUD = 3;
+    public static final int AUDIO = 4;
+    public static final int FRAME = 5;
+    public static final int PHASE_COUNT = 6;
+    static final String[] PHASE_NAMES = {"input", "update", "world", "hud", "audio", "frame"};
+
+    private static final boolean EXPORT_ENABLED = Boolean.getBoolean("platformer.metrics");
+    private static final String EXPORT_FILE = "metrics.csv";
+    private static final float EXPORT_INTERVAL = 5f;
+    // About ten seconds at 60 fps
+    private static final int WINDOW = 600;
+    // Ticks handed over between two frames at most, a power of two; older ones are dropped
+    private static final int TICK_BUFFER = 256;
+
+    private final RollingHistogram[] phases = new RollingHistogram[PHASE_COUNT];
+    private final long[] phaseStart = new long[PHASE_COUNT];
+    private final long[] phaseTotal = new long[PHASE_COUNT];
+    // Bit per phase that ran this frame, phases a screen does not have are not recorded as zero
+    private int phasesSeen;
+
+    private final RollingHistogram gcCount = new RollingHistogram(WINDOW);
+    private final RollingHistogram gcPauseNanos = new RollingHistogram(WINDOW);
+    private final RollingHistogram drawCalls = new RollingHistogram(WINDOW);
+    private final RollingHistogram textureBindings = new RollingHistogram(WINDOW);
+    private final RollingHistogram tickInputNanos = new RollingHistogram(WINDOW);
+    private final RollingHistogram tickStepNanos = new RollingHistogram(WINDOW);
+
+    // Written by the simulation thread only, published by the volatile count
+    private final long[] pendingTickInput = new long[TICK_BUFFER];
+    private final long[] pendingTickStep = new long[TICK_BUFFER];
+    private volatile long ticksWritten;
+    private long ticksRead;
+
+    private final GarbageCollectorMXBean[] collectors;
+    private long lastGcCount;
+    private long lastGcMillis;
+
+    private GLProfiler glProfiler;
+    private boolean profilingGl;
+
+    private final ExecutorService exporter;
+    private float sinceExport;
+    private boolean headerWritten;
+
+    public FrameMetrics() {
+        for (int i = 0; i < PHASE_COUNT; i++) {
+            phases[i] = new RollingHistogram(WINDOW);
+        }
+        List<GarbageCollectorMXBean> beans = ManagementFactory.getGarbageCollectorMXBeans();
+        collectors = beans.toArray(new GarbageCollectorMXBean[0]);
+        lastGcCount = totalGcCount();
+        lastGcMillis = totalGcMillis();
+
+        exporter = EXPORT_ENABLED ? Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "metrics-export");
+                thread.setDaemon(true);
+                return thread;
+            }
+        }) : null;
+        if (EXPORT_ENABLED) setGlProfiling(true);
+    }
+
+    /** GLProfiler wraps every GL call, so it is only switched on while someone looks at the numbers. */
+    public void setGlProfiling(boolean enabled) {
+        // The CSV export always needs the counts
+        enabled |= EXPORT_ENABLED;
+        if (enabled == profilingGl) return;
+        if (glProfiler == null) glProfiler = new GLProfiler(Gdx.graphics);
+        if (enabled) {
+            glProfiler.enable();
+        } else {
+            glProfiler.disable();
+        }
+        profilingGl = enabled;
+    }
+
+    public void beginFrame() {
+        phasesSeen = 0;
+        if (profilingGl) glProfiler.reset();
+        begin(FRAME);
+    }
+
+    public void begin(int phase) {
+        if ((phasesSeen & (1 << phase)) == 0) {
+            phasesSeen |= 1 << phase;
+            phaseTotal[phase] = 0;
+        }
+        phaseStart[phase] = System.nanoTime();
+    }
+
+    public void end(int phase) {
+        // A phase may run several times in a frame, e.g. several sounds, the frame total is what we record
+        phaseTotal[phase] += System.nanoTime() - phaseStart[phase];
+    }
+
+    /**
+     * Records one simulation tick: the time spent sampling its input and stepping the match. Called by the thread
+     * that ticks, one thread at a time; never blocks or allocates.
+     */
+    public void recordTick(long inputNanos, long stepNanos) {
+        long tick = ticksWritten;
+        int index = (int) tick & (TICK_BUFFER - 1);
+        pendingTickInput[index] = inputNanos;
+        pendingTickStep[index] = stepNanos;
+        ticksWritten = tick + 1;
+    }
+
+    public void endFrame() {
+        end(FRAME);
+        for (int i = 0; i < PHASE_COUNT; i++) {
+            if ((phasesSeen & (1 << i)) != 0) phases[i].record(phaseTotal[i]);
+        }
+
+        // Half the buffer at most, so the ticker cannot be writing the slots read here
+        long written = ticksWritten;
+        for (long tick = Math.max(ticksRead, written - TICK_BUFFER / 2); tick < written; tick++) {
+            int index = (int) tick & (TICK_BUFFER - 1);
+            tickInputNanos.record(pendingTickInput[index]);
+            tickStepNanos.record(pendingTickStep[index]);
+        }
+        ticksRead = written;
+
+        long count = totalGcCount();
+        long millis = totalGcMillis();
+        gcCount.record(count - lastGcCount);
+        gcPauseNanos.record((millis - lastGcMillis) * 1_000_000L);
+        lastGcCount = count;
+        lastGcMillis = millis;
+
+        if (profilingGl) {
+            drawCalls.record(glProfiler.getDrawCalls());
+            textureBindings.record(glProfiler.getTextureBindings());
+        }
+
+        if (exporter != null) {
+            sinceExport += Gdx.graphics.getDeltaTime();
+            if (sinceExport >= EXPORT_INTERVAL) {
+                sinceExport = 0f;
+                export();
+            }
+        }
+    }
+
+    private void export() {
+        // Built here so the histograms are read on the render thread, only the file write happens in the background
+        final StringBuilder csv = new StringBuilder(1024);
+        if (!headerWritten) {
+            csv.append("time_ms,metric,p50,p95,p99,max\n");
+            headerWritten = true;
+        }
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < PHASE_COUNT; i++) {
+            appendRow(csv, now, PHASE_NAMES[i] + "_ns", phases[i]);
+        }
+        appendRow(csv, now, "gc_count", gcCount);
+        appendRow(csv, now, "gc_pause_ns", gcPauseNanos);
+        appendRow(csv, now, "draw_calls", drawCalls);
+        appendRow(csv, now, "texture_bindings", textureBindings);
+        appendRow(csv, now, "tick_input_ns", tickInputNanos);
+        appendRow(csv, now, "tick_step_ns", tickStepNanos);
+
+        final FileHandle file = Gdx.files.local(EXPORT_FILE);
+        exporter.execute(new Runnable() {
+            @Override
+            public void run() {
+                file.writeString(csv.toString(), true);
+            }
+        });
+    }
+
+    private static void appendRow(StringBuilder csv, long time, String metric, RollingHistogram histogram) {
+        csv.append(time).append(',').append(metric).append(',')
+            .append(histogram.percentile(50)).append(',')
+            .append(histogram.percentile(95)).append(',')
+            .append(histogram.percentile(99)).append(',')
+            .append(histogram.max()).append('\n');
+    }
+
+    private long totalGcCount() {
+        long total = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            total += Math.max(0, collector.getCollectionCount());
+        }
+        return total;
+    }
+
+    private long totalGcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            total += Math.max(0, collector.getCollectionTime());
+        }
+        return total;
+    }
+
+    /** Work time of the last finished frame, without the buffer swap. */
+    public long getLastFrameNanos() {
+        return phaseTotal[FRAME];
+    }
+
+    public RollingHistogram getPhase(int phase) {
+        return phases[phase];
+    }
+
+    public RollingHistogram getGcCount() {
+        return gcCount;
+    }
+
+    public RollingHistogram getGcPauseNanos() {
+        return gcPauseNanos;
+    }
+
+    public RollingHistogram getDrawCalls() {
+        return drawCalls;
+    }
+
+    public RollingHistogram getTextureBindings() {
+        return textureBindings;
+    }
+
+    /** Input sampling time of each simulation-thread tick. */
+    public RollingHistogram getTickInputNanos() {
+        return tickInputNanos;
+    }
+
+    /** Simulation step time of each simulation-thread tick. */
+    public RollingHistogram getTickStepNanos() {
+        return tickStepNanos;
+    }
+
+    @Override
+    public void dispose() {
+        if (exporter != null) exporter.shutdown();
+        if (glProfiler != null) glProfiler.disable();
+    }
+}
@@ -2,114 +2,382 @@ package com.badlogic.platformer.lwjgl3;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
-import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.math.Rectangle;
-import com.badlogic.gdx.math.Vector2;
-import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.GL20;
-
-public class GameScreen implements Screen {
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.badlogic.platformer.ai.AiOpponent;
+import com.badlogic.platformer.fx.MatchEffects;
+import com.badlogic.platformer.input.InputBindings;
+import com.badlogic.platformer.input.TickInputSampler;
+import com.badlogic.platformer.net.RollbackSession;
+import com.badlogic.platformer.replay.MatchSnapshot;
+import com.badlogic.platformer.replay.ReplayPlayer;
+import com.badlogic.platformer.replay.ReplayRecorder;
+import com.badlogic.platformer.sim.FighterStore;
+import com.badlogic.platformer.sim.FixedTimestep;
+import com.badlogic.platformer.sim.MatchConfig;
+import com.badlogic.platformer.sim.MatchSimulation;
+import com.badlogic.platformer.sim.MatchState;
+import com.badlogic.platformer.sim.MoveTable;
+import com.badlogic.platformer.sim.RenderSnapshots;
+import com.badlogic.platformer.sim.ScriptedBot;
+import com.badlogic.platformer.sim.SimulationLoop;
+import com.badlogic.platformer.stage.TileMap;
+
+import java.io.File;
+
+public class GameScreen implements Screen, BlurredBackdrop.Scene {
 
     private final MyPlatformerGame game;
     private SpriteBatch batch;
-    private Sound hitSound;
-    private Sound damageSound;
-    private Sound gameOverSound;
-    private Sound jumpSound;
+    private final AudioMixer audio;
+    private int hitSound;
+    private int damageSound;
+    private int gameOverSound;
+    private int jumpSound;
 
-    // Background and floor
+    // Background, floor and platform tiles, the background is too large for the atlas and is drawn on its own
     private Texture background;
-    private Texture floor;
+    private TextureRegion floor;
+    private TextureRegion platformTile;
 
     // Characters
-    private Texture character1Texture;
-    private Texture character1AttackTexture;
-    private Rectangle character1Rect;
-    private Vector2 character1Position;
-    private Vector2 character1Velocity;
-    public int character1Health = 100;
-    private boolean character1Attacking = false;
-    private float character1AttackTime = 0f;
-
-    private Texture character2Texture;
-    private Texture character2AttackTexture;
-    private Rectangle character2Rect;
-    private Vector2 character2Position;
-    private Vector2 character2Velocity;
-    public int character2Health = 100;
-    private boolean character2Attacking = false;
-    private float character2AttackTime = 0f;
+    private TextureRegion character1Texture;
+    private TextureRegion character1AttackTexture;
+    private TextureRegion character2Texture;
+    private TextureRegion character2AttackTexture;
+
+    // Sparks, dust and flashes, spawned from what changed in the simulation
+    private static final int EFFECT_CAPACITY = 2048;
+    private final MatchEffects effects = new MatchEffects(EFFECT_CAPACITY);
+    private TextureRegion particleRegion;
+    private TextureRegion whiteRegion;
+    private int[] effectHealth;
+    private boolean[] effectGrounded;
+
+    // Simulation, stepped at a fixed rate independent of the render delta
+    private final MatchSimulation simulation;
+    private final FixedTimestep timestep;
+    private final int[] inputs;
+
+    // Local matches tick on their own thread, online and replayed ones in update(); either way the world is drawn
+    // from snapshots, interpolating fighter positions between the last two
+    private final RenderSnapshots snapshots;
+    private final SimulationLoop loop;
+    private final float[] drawX;
+    private final float[] drawY;
+    private boolean shown;
+
+    // Timestamped key events, spread over the ticks of each frame by when they happened
+    private final TickInputSampler inputSampler;
+    private final InputBindings matchBindings = new InputBindings();
+    private long inputClockNanos;
+
+    // CPU player for the second fighter in local matches, its difficulty is picked in the options
+    private static final int OPPONENT_PLAYER = 1;
+    private final AiOpponent opponent;
+
+    // Fighters beyond the two human players are bots, e.g. -Dplatformer.fighters=4 for a free-for-all
+    private static final int FIGHTER_COUNT = Math.max(2, Integer.getInteger("platformer.fighters", 2));
+
+    // Rollback session when playing online, null for local matches
+    private final RollbackSession netSession;
+    // Arena width online without a stage file, the window size differs between peers
+    private static final float NET_ARENA_WIDTH = 1920;
+
+    // Local matches are recorded and saved when they end; with --replay a recording is played back instead
+    private static final String LAST_REPLAY = "replays/last.rpl";
+    private static final int REPLAY_FAST_FORWARD = 8;
+    private static final int REPLAY_SEEK_SECONDS = 5;
+    private final ReplayRecorder recorder;
+    private final ReplayPlayer replay;
+
+    // Move frame data, reloaded when the file changes during a local match
+    private static final String MOVES_FILE = "moves.json";
+    private static final float MOVES_CHECK_INTERVAL = 1f;
+    private final FileHandle movesFile = Gdx.files.internal(MOVES_FILE);
+    private volatile MoveTable pendingMoves;
+    private long movesModified;
+    private float sinceMovesCheck;
+
+    // Local matches are saved every few seconds and when the screen is left, and picked up again on the next start
+    // after a crash or exit; -Dplatformer.resume=false always starts fresh
+    private static final String SUSPEND_FILE = "saves/suspended.match";
+    private static final boolean RESUME_ENABLED = !"false".equals(System.getProperty("platformer.resume"));
+    private static final float SUSPEND_INTERVAL_SECONDS = 2f;
+    private final SuspendSaver suspendSaver;
+    private final int suspendInterval;
+
+    // State every local match starts from, restored for a rematch, and the move table it was captured with
+    private final MatchSnapshot pristine;
+    private MoveTable pristineMoves;
 
     // Font for displaying text
     private BitmapFont font;
 
     // Game state
-    private boolean isGameOver = false;
     private String gameOverMessage = "";
+    private static final String[] WIN_MESSAGES = { "Character 1 Wins!", "Character 2 Wins!" };
 
-    // Constants
-    private final float GRAVITY = -4500f;
-    private final float MOVE_SPEED = 1200f;
-    private final float JUMP_SPEED = 2000f;
+    // View size, fixed at the window size the match was first opened with
     private final float SCREEN_WIDTH = Gdx.graphics.getWidth();
     private final float SCREEN_HEIGHT = Gdx.graphics.getHeight();
     private final float FLOOR_HEIGHT = 150;
-    private final float ATTACK_DURATION = 0.1f; // Duration of attack animation in seconds
 
+    // Tile stage, which sets the arena size and platforms; without the file the arena is one screen with a floor
+    private static final String STAGE_FILE = System.getProperty("platformer.stage", "stages/arena.txt");
+    private TileMap stageMap;
+    private StageRenderer stage;
 
+    // The camera follows the fighters, the background scrolls at this fraction of its speed
+    private static final float PARALLAX = 0.5f;
+    private static final float CAMERA_FOLLOW_RATE = 4f;
+    private float cameraX;
+    private float viewLeft;
+    private float viewRight;
+    private final Matrix4 sceneProjection = new Matrix4();
+    private final Matrix4 savedProjection = new Matrix4();
 
-    // UI Scaling
-    private float uiScale = 1f;
 
-    private PauseScreen pauseScreen;
+    // Health bars and text
+    private final MatchHud hud;
+
+    // World camera and offscreen resolution, the HUD is drawn on top at window resolution
+    private final RenderScale renderScale;
 
     private float alpha;
 
+    private final BatchStats batchStats = new BatchStats("GameScreen");
+    private final FrameMetrics metrics;
+
     public GameScreen(MyPlatformerGame game) {
         this.game = game;
-        batch = new SpriteBatch();
+        batch = game.getBatch();
+        font = game.getFont();
+        metrics = game.getMetrics();
+
+        AssetCache assets = game.getAssets();
+
+        // Load sound files, the game over jingle must never lose its voice to a hit
+        audio = game.getAudio();
+        hitSound = audio.register("hit_sound.wav", assets.sound("hit_sound.wav"),
+            AudioMixer.SFX, AudioMixer.PRIORITY_NORMAL, 3, 1f, 0.3f);
+        damageSound = audio.register("damage_sound.mp3", assets.sound("damage_sound.mp3"),
+            AudioMixer.SFX, AudioMixer.PRIORITY_NORMAL, 3, 1f, 0.4f);
+        gameOverSound = audio.register("game_over_sound.mp3", assets.sound("game_over_sound.mp3"),
+            AudioMixer.SFX, AudioMixer.PRIORITY_HIGH, 1, 1f, 2f);
+        jumpSound = audio.register("jump_sound.mp3", assets.sound("jump_sound.mp3"),
+            AudioMixer.SFX, AudioMixer.PRIORITY_LOW, 2, 1f, 0.4f);
 
-        // Initialize font
-        font = new BitmapFont(Gdx.files.internal("font.fnt"));
-        font.setColor(Color.WHITE);
+        // Load textures
+        background = assets.texture("game_background.png");
+        TextureAtlas atlas = assets.atlas(AssetCache.GAME_ATLAS);
+        floor = atlas.findRegion("floor_texture");
+        platformTile = atlas.findRegion("platform_tile");
+        hud = new MatchHud(font, atlas.findRegion("health_bar_bg"), atlas.findRegion("health_bar_fg"));
+        character1Texture = atlas.findRegion("character1");
+        character1AttackTexture = atlas.findRegion("character1_attack");
+        character2Texture = atlas.findRegion("character2");
+        character2AttackTexture = atlas.findRegion("character2_attack");
+        particleRegion = atlas.findRegion("particle");
+        whiteRegion = atlas.findRegion("white");
+
+        File replayFile = game.getReplayFile();
+        if (replayFile != null) {
+            // The replay brings its own simulation, rules and tick rate
+            replay = new ReplayPlayer(replayFile);
+            simulation = replay.getSimulation();
+            timestep = new FixedTimestep(replay.getTickRate(), FixedTimestep.DEFAULT_MAX_TICKS_PER_FRAME);
+            inputs = new int[simulation.getState().fighters.count];
+            netSession = null;
+            recorder = null;
+            opponent = null;
+            suspendSaver = null;
+            pristine = null;
+            // Only for drawing, the replay brings its own platforms
+            stageMap = loadStage();
+        } else {
+            // Initialize the simulation for the current window size, online for a size both peers share
+            NetPlayOptions netPlay = game.getNetPlay();
+            MatchConfig config = new MatchConfig();
+            config.arenaWidth = netPlay == null ? SCREEN_WIDTH : NET_ARENA_WIDTH;
+            config.floorHeight = FLOOR_HEIGHT;
+            stageMap = loadStage();
+            if (stageMap != null) stageMap.configure(config);
+            timestep = new FixedTimestep();
+            // Rollback is strictly one against one
+            int fighterCount = netPlay == null ? FIGHTER_COUNT : 2;
+            simulation = new MatchSimulation(config, timestep.getTickRate(), fighterCount, loadMoves(config));
+            if (stageMap != null) simulation.setPlatforms(stageMap.buildPlatforms());
+            inputs = new int[fighterCount];
+            netSession = netPlay == null ? null : netPlay.createSession(simulation);
+            replay = null;
+            if (netSession == null) {
+                pristine = new MatchSnapshot(fighterCount);
+                pristine.capture(simulation, timestep.getTickRate());
+                pristineMoves = simulation.getMoves();
+                suspendSaver = new SuspendSaver(Gdx.files.local(SUSPEND_FILE).file(), fighterCount);
+                if (RESUME_ENABLED && suspendSaver.resume(simulation, timestep.getTickRate())) {
+                    Gdx.app.log("GameScreen", "Resumed the suspended match at tick " + simulation.getState().tick);
+                }
+                recorder = new ReplayRecorder(simulation, timestep.getTickRate(), 0L, ReplayRecorder.DEFAULT_CHECKPOINT_INTERVAL);
+                recorder.begin();
+                opponent = new AiOpponent(simulation, timestep.getTickRate(), OPPONENT_PLAYER);
+            } else {
+                recorder = null;
+                opponent = null;
+                suspendSaver = null;
+                pristine = null;
+            }
+        }
 
-        // Load sound files
-        hitSound = Gdx.audio.newSound(Gdx.files.internal("hit_sound.wav"));
-        damageSound = Gdx.audio.newSound(Gdx.files.internal("damage_sound.mp3"));
-        gameOverSound = Gdx.audio.newSound(Gdx.files.internal("game_over_sound.mp3"));
-        jumpSound = Gdx.audio.newSound(Gdx.files.internal("jump_sound.mp3"));
+        int fighterCount = simulation.getState().fighters.count;
+        suspendInterval = Math.max(1, Math.round(SUSPEND_INTERVAL_SECONDS * timestep.getTickRate()));
+        snapshots = new RenderSnapshots(fighterCount);
+        snapshots.reset(simulation.getState(), TimeUtils.nanoTime());
+        if (replay == null && netSession == null) {
+            loop = new SimulationLoop(simulation, timestep, new SimulationLoop.Ticker() {
+                @Override
+                public int tick(long tickEndNanos) {
+                    return tickLocal(tickEndNanos);
+                }
+            }, snapshots);
+        } else {
+            loop = null;
+        }
+        drawX = new float[fighterCount];
+        drawY = new float[fighterCount];
+        effectHealth = new int[fighterCount];
+        effectGrounded = new boolean[fighterCount];
+        resetEffects();
+
+        // Only the first two fighters are driven from the keyboard
+        // The player bindings plus the CPU's, copied again every time the match is shown
+        inputSampler = new TickInputSampler(matchBindings, 2);
+        inputSampler.addSource(game.getKeyboard());
+        if (opponent != null) {
+            inputSampler.addSource(opponent);
+            opponent.setDifficulty(game.getAiDifficulty());
+        }
 
-        // Load textures
-        background = new Texture("game_background.png");
-        floor = new Texture("floor_texture.png");
-        character1Texture = new Texture("character1.png");
-        character1AttackTexture = new Texture("character1_attack.png");
-        character2Texture = new Texture("character2.png");
-        character2AttackTexture = new Texture("character2_attack.png");
-
-        // Initialize positions and hitboxes
-        character1Position = new Vector2(SCREEN_WIDTH / 2 - 50, FLOOR_HEIGHT);
-        character1Velocity = new Vector2(0, 0);
-        character1Rect = new Rectangle(character1Position.x, character1Position.y, 128, 128);
-
-        character2Position = new Vector2(SCREEN_WIDTH / 2 + 50, FLOOR_HEIGHT);
-        character2Velocity = new Vector2(0, 0);
-        character2Rect = new Rectangle(character2Position.x, character2Position.y, 128, 128);
-        pauseScreen = new PauseScreen(game, this);
+        renderScale = new RenderScale(SCREEN_WIDTH, SCREEN_HEIGHT);
+        if (stageMap != null) stage = new StageRenderer(stageMap, floor, platformTile, SCREEN_WIDTH);
+        interpolate();
+        updateCamera(1f);
 
         alpha = 0f;
     }
 
+    private static TileMap loadStage() {
+        FileHandle file = Gdx.files.internal(STAGE_FILE);
+        if (!file.exists()) return null;
+        return TileMap.parse(file.readString("UTF-8"), TileMap.DEFAULT_TILE_SIZE);
+    }
+
+    /** Eases the camera towards the middle of the living fighters, kept inside the arena. */
+    private void updateCamera(float delta) {
+        FighterStore fighters = snapshots.getCurrent().fighters;
+        float halfSize = simulation.getConfig().fighterSize / 2;
+        float min = Float.MAX_VALUE;
+        float max = -Float.MAX_VALUE;
+        for (int i = 0; i < fighters.count; i++) {
+            if (fighters.health[i] <= 0) continue;
+            min = Math.min(min, drawX[i] + halfSize);
+            max = Math.max(max, drawX[i] + halfSize);
+        }
+        if (min <= max) cameraX += ((min + max) / 2 - cameraX) * Math.min(1f, CAMERA_FOLLOW_RATE * delta);
+
+        float arenaWidth = simulation.getConfig().arenaWidth;
+        float halfView = SCREEN_WIDTH / 2;
+        if (arenaWidth <= SCREEN_WIDTH) {
+            cameraX = arenaWidth / 2;
+        } else {
+            cameraX = Math.max(halfView, Math.min(arenaWidth - halfView, cameraX));
+        }
+        viewLeft = cameraX - halfView;
+        viewRight = cameraX + halfView;
+
+        OrthographicCamera camera = renderScale.getCamera();
+        camera.position.x = cameraX;
+        camera.update();
+    }
+
+    /** The background covers the view, moving at the parallax fraction of the camera's speed across the arena. */
+    private void drawBackground() {
+        float scroll = Math.max(0f, simulation.getConfig().arenaWidth - SCREEN_WIDTH);
+        batch.draw(background, viewLeft * (1 - PARALLAX), 0, SCREEN_WIDTH + scroll * PARALLAX, SCREEN_HEIGHT);
+    }
+
+    /** The move file if there is one, the built-in attack otherwise. */
+    private MoveTable loadMoves(MatchConfig config) {
+        if (!movesFile.exists()) return MoveTable.defaults(config, timestep.getTickRate());
+        movesModified = movesFile.lastModified();
+        return MoveTable.parse(movesFile.readString("UTF-8"), config);
+    }
+
+    /** Recompiles the move file once it changed on disk; a broken edit keeps the moves in use. */
+    private void reloadMovesIfChanged(float delta) {
+        sinceMovesCheck += delta;
+        if (sinceMovesCheck < MOVES_CHECK_INTERVAL) return;
+        sinceMovesCheck = 0f;
+
+        // Changing frame data mid-match would desync an online opponent
+        long modified = movesFile.lastModified();
+        if (netSession != null || replay != null || modified == 0L || modified == movesModified) return;
+        movesModified = modified;
+        try {
+            // Swapped in by the simulation thread before its next tick
+            pendingMoves = MoveTable.parse(movesFile.readString("UTF-8"), simulation.getConfig());
+            Gdx.app.log("GameScreen", "Reloaded " + MOVES_FILE);
+        } catch (GdxRuntimeException e) {
+            Gdx.app.error("GameScreen", "Keeping the previous moves", e);
+        }
+    }
+
+    /** Starts loading what the constructor acquires, so opening the match does not stall on decoding. */
+    static void preloadAssets(AssetPreloader preloader) {
+        preloader.preload("hit_sound.wav", Sound.class);
+        preloader.preload("damage_sound.mp3", Sound.class);
+        preloader.preload("game_over_sound.mp3", Sound.class);
+        preloader.preload("jump_sound.mp3", Sound.class);
+        preloader.preload("game_background.png", Texture.class);
+        preloader.preload(AssetCache.GAME_ATLAS, TextureAtlas.class);
+    }
+
     @Override
-    public void show() {}
+    public void show() {
+        matchBindings.set(game.getBindings());
+        if (opponent != null) opponent.bind(matchBindings);
+        game.getMetricsOverlay().setOpponent(opponent);
+        resetInput();
+        Gdx.input.setInputProcessor(game.getKeyboard());
+        shown = true;
+        if (loop != null) loop.start();
+    }
+
+    /** Starts from a clean queue, keys held through menus or the game over screen count as pressed now. */
+    private void resetInput() {
+        // The CPU must not queue presses while its queue is dropped, or they would outlive the buttons it forgets
+        if (opponent != null) opponent.pause();
+        inputSampler.reset();
+        game.getKeyboard().queueHeldKeys();
+        if (opponent != null) opponent.resume();
+        inputClockNanos = TimeUtils.nanoTime();
+    }
 
     @Override
     public void render(float delta) {
-        if (isGameOver) {
+        if (isMatchOver()) {
             renderGameOver();
             return;
         }
@@ -121,19 +389,39 @@ public class GameScreen implements Screen {
         // Clear the screen
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
-        // Draw game elements
-        batch.begin();
-        batch.draw(background, 0, 0, SCREEN_WIDTH, SCREEN_HEIGHT);
-        batch.draw(floor, 0, 0, SCREEN_WIDTH, FLOOR_HEIGHT);
+        // Draw game elements at the chosen render scale
+        metrics.begin(FrameMetrics.DRAW_WORLD);
+        interpolate();
+        updateCamera(delta);
+        renderScale.setScale(game.getRenderScale());
+        renderScale.begin(batch);
+        drawBackground();
+        if (stage != null) {
+            // Baked chunks draw through their own cache, in between the batch's background and fighters
+            batch.end();
+            stage.update(viewLeft, viewRight);
+            stage.draw(renderScale.getCamera().combined, viewLeft, viewRight);
+            batch.begin();
+        } else {
+            batch.draw(floor, 0, 0, SCREEN_WIDTH, FLOOR_HEIGHT);
+        }
 
-        // Draw characters and attacks
+        // Draw characters and attacks, effects on top
         drawCharacters();
-
-        // Draw health bars
+        effects.setDensity(game.getEffectDensity());
+        effects.update(delta);
+        effects.draw(batch, particleRegion, whiteRegion, viewLeft, 0, SCREEN_WIDTH, SCREEN_HEIGHT);
+        renderScale.end(batch);
+        metrics.end(FrameMetrics.DRAW_WORLD);
+
+        // Draw health bars at native resolution
+        metrics.begin(FrameMetrics.DRAW_HUD);
         drawHealthBars();
+        metrics.end(FrameMetrics.DRAW_HUD);
 
 
         batch.end();
+        batchStats.record(batch);
 
         // Update the fade effect (for transitions)
         if (alpha < 1f) {
@@ -141,68 +429,70 @@ public class GameScreen implements Screen {
         }
     }
 
-    private void drawCharacters() {
-        // Scaling factors for characters
-        float scaleFactor = 1.5f; // Increase size by 50%
-
-        // Update character dimensions
-        float character1Width = character1Rect.width * 2F;
-        float character1Height = character1Rect.height * 2F;
-        float character2Width = character2Rect.width * 2F;
-        float character2Height = character2Rect.height * 2F;
-
-        // Draw Character 1
-        if (character1Attacking) {
-            batch.draw(character1AttackTexture, character1Position.x, character1Position.y, character1Width, character1Height);
+    /** Draws the current match state without the fade or metrics, e.g. for the pause backdrop. */
+    @Override
+    public void draw(SpriteBatch batch) {
+        // The world as the camera sees it, scaled to whatever the caller's projection covers
+        savedProjection.set(batch.getProjectionMatrix());
+        sceneProjection.setToOrtho2D(viewLeft, 0, SCREEN_WIDTH, SCREEN_HEIGHT);
+        batch.setProjectionMatrix(sceneProjection);
+        drawBackground();
+        if (stage != null) {
+            stage.drawTiles(batch, viewLeft, viewRight);
         } else {
-            batch.draw(character1Texture, character1Position.x, character1Position.y, character1Width, character1Height);
+            batch.draw(floor, 0, 0, SCREEN_WIDTH, FLOOR_HEIGHT);
         }
+        drawCharacters();
+        batch.setProjectionMatrix(savedProjection);
+        drawHealthBars();
+    }
 
-        // Draw Character 2
-        if (character2Attacking) {
-            batch.draw(character2AttackTexture, character2Position.x, character2Position.y, character2Width, character2Height);
-        } else {
-            batch.draw(character2Texture, character2Position.x, character2Position.y, character2Width, character2Height);
+    private void drawCharacters() {
+        FighterStore fighters = snapshots.getCurrent().fighters;
+
+        // Characters are drawn at twice the size of their hitbox
+        float size = simulation.getConfig().fighterSize * 2F;
+
+        // Even fighters use Character 1's sprites, which face right, odd ones Character 2's, which face left
+        for (int i = 0; i < fighters.count; i++) {
+            // Off-camera fighters are skipped
+            float x = drawX[i];
+            if (x + size < viewLeft || x > viewRight) continue;
+            TextureRegion region;
+            if (i % 2 == 0) {
+                region = fighters.isAttacking(i) ? character1AttackTexture : character1Texture;
+            } else {
+                region = fighters.isAttacking(i) ? character2AttackTexture : character2Texture;
+            }
+            boolean flip = fighters.facingLeft[i] != (i % 2 == 1);
+            batch.draw(region, flip ? x + size : x, drawY[i], flip ? -size : size, size);
         }
     }
 
     private void drawHealthBars() {
-        float barWidth = 200 * uiScale;
-        float barHeight = 20 * uiScale;
-        float padding = 20;
-
-        // Character 1 Health Bar
-        batch.draw(new Texture("health_bar_bg.png"), padding, Gdx.graphics.getHeight() - barHeight - padding, barWidth, barHeight);
-        batch.draw(new Texture("health_bar_fg.png"), padding, Gdx.graphics.getHeight() - barHeight - padding, barWidth * (character1Health / 100f), barHeight);
-        font.getData().setScale(1);
-        font.draw(batch, "Player 1: " + character1Health, padding + barWidth / 2 - font.getRegion().getRegionWidth() / 2 + 110, Gdx.graphics.getHeight() - barHeight - padding - 15);
-
-        // Character 2 Health Bar
-        batch.draw(new Texture("health_bar_bg.png"), Gdx.graphics.getWidth() - barWidth - padding, Gdx.graphics.getHeight() - barHeight - padding, barWidth, barHeight);
-        batch.draw(new Texture("health_bar_fg.png"), Gdx.graphics.getWidth() - barWidth - padding, Gdx.graphics.getHeight() - barHeight - padding, barWidth * (character2Health / 100f), barHeight);
-        font.draw(batch, "Player 2: " + character2Health, Gdx.graphics.getWidth() - barWidth / 2 - padding - font.getRegion().getRegionWidth() / 2 + 110, Gdx.graphics.getHeight() - barHeight - padding - 15);
+        FighterStore fighters = snapshots.getCurrent().fighters;
+        hud.drawHealthBars(batch, Gdx.graphics.getWidth(), Gdx.graphics.getHeight(),
+            fighters.health[0], fighters.health[1], simulation.getConfig().maxHealth);
     }
 
     private void renderGameOver() {
         // Clear the screen
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
-        // Begin drawing with SpriteBatch
-        batch.begin();
-
-        // Draw the background (same way you would draw other textures)
-        batch.draw(background, 0, 0, SCREEN_WIDTH, SCREEN_HEIGHT);
-
-        // Display the Game Over message at the center of the screen
-        font.getData().setScale(1.5F); // Adjust font size for visibility
-        font.draw(batch, gameOverMessage, SCREEN_WIDTH / 2 - font.getRegion().getRegionWidth() / 2, SCREEN_HEIGHT / 2);
+        // Draw the background in the world, the text over it at native resolution
+        renderScale.setScale(game.getRenderScale());
+        renderScale.begin(batch);
+        drawBackground();
+        renderScale.end(batch);
 
-        // Display the "Press ENTER to Restart" message
-        font.getData().setScale(1); // Adjust font size for the restart text
-        font.draw(batch, "Press ENTER to Restart", SCREEN_WIDTH / 2 - font.getRegion().getRegionWidth() / 2 + 50, SCREEN_HEIGHT / 2 - 50);
+        // Display the Game Over message and the restart hint
+        metrics.begin(FrameMetrics.DRAW_HUD);
+        hud.drawGameOver(batch, Gdx.graphics.getWidth(), Gdx.graphics.getHeight(), gameOverMessage);
+        metrics.end(FrameMetrics.DRAW_HUD);
 
         // End drawing with SpriteBatch
         batch.end();
+        batchStats.record(batch);
 
         // Listen for ENTER key to reset the game
         if (Gdx.input.isKeyJustPressed(Input.Keys.ENTER)) {
@@ -213,166 +503,291 @@ public class GameScreen implements Screen {
 
     private void update(float delta) {
         if (Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)) {
-            game.setScreen(pauseScreen);
+            game.showPause();
             return;
         }
 
-        // Apply gravity
-        character1Velocity.y += GRAVITY * delta;
-        character2Velocity.y += GRAVITY * delta;
-
-        // Update positions
-        character1Position.add(character1Velocity.x * delta, character1Velocity.y * delta);
-        character2Position.add(character2Velocity.x * delta, character2Velocity.y * delta);
+        if (replay != null) {
+            metrics.begin(FrameMetrics.UPDATE);
+            int events = updateReplay(delta);
+            if (snapshots.update()) spawnEffects();
+            metrics.end(FrameMetrics.UPDATE);
+            finishUpdate(events);
+            return;
+        }
 
-        // Collision with floor for both characters
-        if (character1Position.y <= FLOOR_HEIGHT) {
-            character1Position.y = FLOOR_HEIGHT;
-            character1Velocity.y = 0;
+        metrics.begin(FrameMetrics.UPDATE);
+        if (netSession != null) {
+            updateOnline(delta);
+        } else {
+            loop.checkFailure();
+            reloadMovesIfChanged(delta);
         }
-        if (character2Position.y <= FLOOR_HEIGHT) {
-            character2Position.y = FLOOR_HEIGHT;
-            character2Velocity.y = 0;
+        // Events first, so the snapshot taken next is at least as new as the ticks that raised them
+        int events = snapshots.takeEvents();
+        if (snapshots.update()) spawnEffects();
+        metrics.end(FrameMetrics.UPDATE);
+
+        // The simulation thread leaves the recorder alone once the match is over
+        if (recorder != null && (events & MatchSimulation.EVENT_GAME_OVER) != 0) {
+            saveReplay();
         }
+        finishUpdate(events);
+    }
 
-        // Prevent characters from moving out of bounds
-        character1Position.x = Math.max(0, Math.min(SCREEN_WIDTH - character1Rect.width * 1.5F  , character1Position.x));
-        character2Position.x = Math.max(0, Math.min(SCREEN_WIDTH - character2Rect.width * 1.5F , character2Position.x));
-
-        // Update hitboxes
-        character1Rect.setPosition(character1Position.x, character1Position.y);
-        character2Rect.setPosition(character2Position.x, character2Position.y);
-
-        // Input for Character 1
-        handleCharacter1Input(delta);
-        // Input for Character 2
-        handleCharacter2Input(delta);
-
-        // Check for attacks
-        checkAttacks();
+    /** One local tick, run on the simulation thread. */
+    private int tickLocal(long tickEndNanos) {
+        // The match stands still once it is over, until resetGame starts the next one
+        if (simulation.getState().gameOver) return 0;
+
+        MoveTable moves = pendingMoves;
+        if (moves != null) {
+            pendingMoves = null;
+            simulation.setMoves(moves);
+            if (opponent != null) opponent.setMoves(moves);
+            // The recording carries one move table, start it over with the new one
+            recorder.begin();
+        }
 
-        // Check for game over
-        checkGameOver();
+        long inputStart = TimeUtils.nanoTime();
+        inputSampler.sample(tickEndNanos, inputs);
+        for (int bot = 2; bot < inputs.length; bot++) {
+            inputs[bot] = ScriptedBot.think(simulation.getState(), simulation.getConfig(), bot);
+        }
+        long inputNanos = TimeUtils.nanoTime() - inputStart;
+        recorder.record(inputs);
+        long stepStart = TimeUtils.nanoTime();
+        int events = simulation.step(inputs);
+        metrics.recordTick(inputNanos, TimeUtils.nanoTime() - stepStart);
+        if (opponent != null) opponent.publish(simulation.getState());
+
+        // A finished match has nothing left to resume
+        if ((events & MatchSimulation.EVENT_GAME_OVER) != 0) {
+            suspendSaver.delete();
+        } else if (simulation.getState().tick % suspendInterval == 0) {
+            suspendSaver.save(simulation, timestep.getTickRate());
+        }
+        return events;
     }
 
-    private void handleCharacter1Input(float delta) {
-        // Character 1 Movement (Left/Right)
-        if (Gdx.input.isKeyPressed(Input.Keys.LEFT)) {
-            character1Velocity.x = -MOVE_SPEED;  // Move left
-        } else if (Gdx.input.isKeyPressed(Input.Keys.RIGHT)) {
-            character1Velocity.x = MOVE_SPEED;  // Move right
-        } else {
-            character1Velocity.x = 0;  // Stop moving horizontally when no key is pressed
+    /** Online ticks stay on the render thread, next to the session's network polling and rollbacks. */
+    private void updateOnline(float delta) {
+        long now = TimeUtils.nanoTime();
+        int ticks = timestep.advance(delta);
+        for (int i = 0; i < ticks; i++) {
+            // Tick i takes the events of its share of the time since the last ticks ran
+            long tickEnd = inputClockNanos + (now - inputClockNanos) * (i + 1) / ticks;
+            // Input is its own phase, the update phase stops around it so nothing is counted twice
+            metrics.end(FrameMetrics.UPDATE);
+            metrics.begin(FrameMetrics.INPUT);
+            inputSampler.sample(tickEnd, inputs);
+            metrics.end(FrameMetrics.INPUT);
+            metrics.begin(FrameMetrics.UPDATE);
+            // Only our own character is driven from this keyboard, the session handles the other one
+            int events = netSession.advanceFrame(inputs[game.getNetPlay().localPlayer]);
+            snapshots.publish(simulation.getState(), events, tickEnd);
         }
-
-        // Character 1 Jumping (Up)
-        if (Gdx.input.isKeyJustPressed(Input.Keys.UP) && character1Position.y == FLOOR_HEIGHT) {
-            character1Velocity.y = JUMP_SPEED;  // Apply upward velocity when jump key is pressed
-            jumpSound.play();
+        if (netSession.isRulesMismatch()) {
+            throw new GdxRuntimeException("The other player's match config, moves or stage differ from ours");
         }
+        if (ticks > 0) inputClockNanos = now;
+    }
 
-        // Character 1 Attack (NUMPAD_0)
-        if (Gdx.input.isKeyJustPressed(Input.Keys.NUMPAD_0)) {
-            character1Attacking = true;
-            character1AttackTime = ATTACK_DURATION;  // Start attack timer
-            hitSound.play();
+    /**
+     * Fighter positions for this frame. The world is drawn one tick behind the newest snapshot, blending from the
+     * previous one towards it; snapshots more than one tick apart are blended over the whole gap.
+     */
+    private void interpolate() {
+        MatchState current = snapshots.getCurrent();
+        MatchState previous = snapshots.getPrevious();
+        long gap = current.tick - previous.tick;
+        float blend = 1f;
+        if (gap > 0) {
+            // Ticks since the newest snapshot: measured on the clock when a thread ticks, the leftover otherwise
+            float since = loop != null
+                ? (TimeUtils.nanoTime() - snapshots.getCurrentTime()) / (timestep.getTickDuration() * 1e9f)
+                : timestep.alpha();
+            blend = Math.max(0f, Math.min(1f, (since + gap - 1) / gap));
+        }
+        FighterStore from = previous.fighters;
+        FighterStore to = current.fighters;
+        for (int i = 0; i < to.count; i++) {
+            drawX[i] = from.x[i] + (to.x[i] - from.x[i]) * blend;
+            drawY[i] = from.y[i] + (to.y[i] - from.y[i]) * blend;
         }
+    }
 
-        // Attack cooldown for Character 1
-        if (character1AttackTime > 0) {
-            character1AttackTime -= delta;
-        } else {
-            character1Attacking = false;  // End attack after cooldown
+    private void finishUpdate(int events) {
+        metrics.begin(FrameMetrics.AUDIO);
+        playSounds(events);
+        metrics.end(FrameMetrics.AUDIO);
+        if ((events & MatchSimulation.EVENT_GAME_OVER) != 0) {
+            gameOverMessage = buildGameOverMessage(snapshots.getCurrent().winner);
         }
     }
 
-    private void handleCharacter2Input(float delta) {
-        // Character 2 Movement (A/D)
-        if (Gdx.input.isKeyPressed(Input.Keys.A)) {
-            character2Velocity.x = -MOVE_SPEED;  // Move left
-        } else if (Gdx.input.isKeyPressed(Input.Keys.D)) {
-            character2Velocity.x = MOVE_SPEED;  // Move right
-        } else {
-            character2Velocity.x = 0;  // Stop moving horizontally when no key is pressed
+    private int updateReplay(float delta) {
+        // LEFT/RIGHT seek back and ahead, holding TAB fast-forwards
+        int seekTicks = replay.getTickRate() * REPLAY_SEEK_SECONDS;
+        boolean wasOver = simulation.getState().gameOver;
+        long now = TimeUtils.nanoTime();
+        boolean seeking = false;
+        if (Gdx.input.isKeyJustPressed(Input.Keys.LEFT)) {
+            replay.seek(replay.getTick() - seekTicks);
+            seeking = true;
+        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.RIGHT)) {
+            replay.seek(replay.getTick() + seekTicks);
+            seeking = true;
         }
 
-        // Character 2 Jumping (W)
-        if (Gdx.input.isKeyJustPressed(Input.Keys.W) && character2Position.y == FLOOR_HEIGHT) {
-            character2Velocity.y = JUMP_SPEED;  // Apply upward velocity when jump key is pressed
-            jumpSound.play();
+        int ticks = timestep.advance(delta);
+        if (Gdx.input.isKeyPressed(Input.Keys.TAB)) ticks *= REPLAY_FAST_FORWARD;
+        int events = replay.fastForward(ticks);
+
+        // A seek can land past the end without raising the event
+        if (!wasOver && simulation.getState().gameOver) events |= MatchSimulation.EVENT_GAME_OVER;
+        if (seeking) {
+            // Jump straight there instead of sliding across the skipped part
+            snapshots.reset(simulation.getState(), now);
+            resetEffects();
+        } else if (ticks > 0) {
+            snapshots.publish(simulation.getState(), 0, now);
         }
+        return events;
+    }
 
-        // Character 2 Attack (SPACE)
-        if (Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
-            character2Attacking = true;
-            character2AttackTime = ATTACK_DURATION; // Start attack timer
-            hitSound.play();
+    /** Sparks for health lost, dust for leaving or reaching the ground, since the last call. */
+    private void spawnEffects() {
+        MatchState state = snapshots.getCurrent();
+        FighterStore fighters = state.fighters;
+        float size = simulation.getConfig().fighterSize * 2F;
+        for (int i = 0; i < fighters.count; i++) {
+            float centerX = fighters.x[i] + size / 2;
+            if (fighters.health[i] < effectHealth[i]) {
+                // Knockback points away from the attacker, sparks follow it
+                float direction = fighters.velocityX[i] < 0 ? -1f : 1f;
+                effects.hitSpark(centerX, fighters.y[i] + size / 2, direction);
+                effects.flash();
+            }
+            boolean grounded = simulation.isGrounded(state, i);
+            if (grounded != effectGrounded[i]) effects.dust(centerX, fighters.y[i]);
+            effectHealth[i] = fighters.health[i];
+            effectGrounded[i] = grounded;
         }
+    }
 
-        // Attack cooldown for Character 2
-        if (character2AttackTime > 0) {
-            character2AttackTime -= delta;
-        } else {
-            character2Attacking = false;  // End attack after cooldown
+    private void resetEffects() {
+        effects.clear();
+        MatchState state = snapshots.getCurrent();
+        FighterStore fighters = state.fighters;
+        for (int i = 0; i < fighters.count; i++) {
+            effectHealth[i] = fighters.health[i];
+            effectGrounded[i] = simulation.isGrounded(state, i);
         }
     }
 
-    private void checkAttacks() {
-        if (character1Attacking && character1Rect.overlaps(character2Rect)) {
-            character2Health = Math.max(0, character2Health - 10);
-            character1Attacking = false;
-            damageSound.play();
+    private void saveReplay() {
+        FileHandle file = Gdx.files.local(LAST_REPLAY);
+        file.parent().mkdirs();
+        recorder.save(file.file());
+        Gdx.app.log("GameScreen", "Saved " + recorder.getTickCount() + " ticks to " + file.path());
+    }
 
-        }
-        if (character2Attacking && character2Rect.overlaps(character1Rect)) {
-            character1Health = Math.max(0, character1Health - 10);
-            character2Attacking = false;
-            damageSound.play();
-        }
+    private void playSounds(int events) {
+        // Only queued here, the mixer plays them once per frame
+        if ((events & MatchSimulation.EVENT_JUMP) != 0) audio.play(jumpSound);
+        if ((events & MatchSimulation.EVENT_ATTACK) != 0) audio.play(hitSound);
+        if ((events & MatchSimulation.EVENT_HIT) != 0) audio.play(damageSound);
+        if ((events & MatchSimulation.EVENT_GAME_OVER) != 0) audio.play(gameOverSound);
     }
 
-    private void checkGameOver() {
-        if (character1Health <= 0 && character2Health <= 0) {
-            gameOverMessage = "DRAW";
-            isGameOver = true;
-            gameOverSound.play();
-        } else if (character1Health <= 0) {
-            gameOverMessage = "Character 2 Wins!";
-            isGameOver = true;
-            gameOverSound.play();
-        } else if (character2Health <= 0) {
-            gameOverMessage = "Character 1 Wins!";
-            isGameOver = true;
-            gameOverSound.play();
+    private String buildGameOverMessage(int winner) {
+        if (winner == MatchState.WINNER_DRAW) {
+            return "DRAW";
         }
+        // Only built once per match, when it ends
+        return winner < WIN_MESSAGES.length ? WIN_MESSAGES[winner] : "Character " + (winner + 1) + " Wins!";
+    }
+
+    /** Online, a game over is only final once no rollback can undo it. */
+    private boolean isMatchOver() {
+        return snapshots.getCurrent().gameOver && (netSession == null || netSession.isSettled());
     }
 
     private void resetGame() {
-        character1Health = 100;
-        character2Health = 100;
-        character1Position.set(SCREEN_WIDTH / 2 - 50, FLOOR_HEIGHT);
-        character2Position.set(SCREEN_WIDTH / 2 + 50, FLOOR_HEIGHT);
-        isGameOver = false;
+        // Nothing else may step the match while the simulation thread runs
+        if (loop != null) loop.stop();
+        if (replay != null) {
+            replay.seek(0);
+        } else if (netSession != null) {
+            netSession.reset();
+        } else {
+            if (simulation.getMoves() != pristineMoves) {
+                // The move file was reloaded, which the snapshot's rules hash refuses; the start state is the same
+                simulation.reset();
+                pristine.capture(simulation, timestep.getTickRate());
+                pristineMoves = simulation.getMoves();
+            }
+            // Every field back as it was at the start, velocities and move timers included
+            if (!pristine.restore(simulation, timestep.getTickRate())) {
+                throw new GdxRuntimeException("The match snapshot does not fit the match it was taken from");
+            }
+            suspendSaver.delete();
+            recorder.begin();
+            opponent.publish(simulation.getState());
+        }
+        timestep.reset();
+        resetInput();
+        snapshots.reset(simulation.getState(), TimeUtils.nanoTime());
+        interpolate();
+        resetEffects();
+        if (loop != null && shown) loop.start();
+    }
+
+    /** Resets the match and fades in again, used when this screen is reused for another match. */
+    void startNewMatch() {
+        if (opponent != null) opponent.setDifficulty(game.getAiDifficulty());
+        resetGame();
+        alpha = 0f;
     }
 
     @Override
     public void resize(int width, int height) {
-        uiScale = (float) width / 1280; // Scale UI based on screen width
+        hud.resize(width, height);
+        renderScale.resize(width, height);
     }
 
     @Override
-    public void hide() {}
+    public void hide() {
+        shown = false;
+        if (loop != null) loop.stop();
+        // Leaving the match, e.g. for the pause menu, saves it as it is now
+        if (suspendSaver != null && !simulation.getState().gameOver) {
+            suspendSaver.save(simulation, timestep.getTickRate());
+        }
+        Gdx.input.setInputProcessor(null);
+        game.getMetricsOverlay().setOpponent(null);
+    }
 
     @Override
     public void dispose() {
-        batch.dispose();
-        background.dispose();
-        floor.dispose();
-        character1Texture.dispose();
-        character1AttackTexture.dispose();
-        character2Texture.dispose();
-        character2AttackTexture.dispose();
-        font.dispose();
+        if (netSession != null) {
+            netSession.close();
+        }
+        if (loop != null) loop.stop();
+        if (opponent != null) opponent.dispose();
+        if (suspendSaver != null) suspendSaver.dispose();
+        renderScale.dispose();
+        if (stage != null) stage.dispose();
+
+        AssetCache assets = game.getAssets();
+        assets.release("hit_sound.wav");
+        assets.release("damage_sound.mp3");
+        assets.release("game_over_sound.mp3");
+        assets.release("jump_sound.mp3");
+        assets.release("game_background.png");
+        assets.release(AssetCache.GAME_ATLAS);
     }
 
     @Override
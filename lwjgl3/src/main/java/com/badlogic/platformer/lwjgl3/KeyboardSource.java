@@ -0,0 +1,48 @@
+package com.badlogic.platformer.lwjgl3;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.InputAdapter;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.badlogic.platformer.input.InputBindings;
+import com.badlogic.platformer.input.InputRing;
+import com.badlogic.platformer.input.InputSource;
+
+/**
+ * Queues key presses and releases with the time the backend received them, instead of polling key state once per
+ * frame. Installed as the input processor while a match is running.
+ */
+public class KeyboardSource extends InputAdapter implements InputSource {
+
+    private final InputRing events = new InputRing();
+
+    @Override
+    public boolean keyDown(int keycode) {
+        events.offer(Gdx.input.getCurrentEventTime(), InputBindings.KEYBOARD, keycode, true);
+        // Screens still poll for menu keys such as ESCAPE, nothing is consumed here
+        return false;
+    }
+
+    @Override
+    public boolean keyUp(int keycode) {
+        events.offer(Gdx.input.getCurrentEventTime(), InputBindings.KEYBOARD, keycode, false);
+        return false;
+    }
+
+    /** Queues a press for every key that is already down, e.g. one held through the pause menu. */
+    public void queueHeldKeys() {
+        long now = TimeUtils.nanoTime();
+        for (int keycode = 0; keycode < InputBindings.MAX_CODES; keycode++) {
+            if (Gdx.input.isKeyPressed(keycode)) events.offer(now, InputBindings.KEYBOARD, keycode, true);
+        }
+    }
+
+    @Override
+    public int getDevice() {
+        return InputBindings.KEYBOARD;
+    }
+
+    @Override
+    public InputRing getEvents() {
+        return events;
+    }
+}
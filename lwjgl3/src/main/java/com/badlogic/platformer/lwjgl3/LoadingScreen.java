@@ -0,0 +1,58 @@
+package com.badlogic.platformer.lwjgl3;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+
+/** Shown when a match is started before its assets finished preloading, then starts the match. */
+public class LoadingScreen implements Screen {
+
+    private final MyPlatformerGame game;
+    private final SpriteBatch batch;
+    private final AssetPreloader preloader;
+    private final CachedText progressLabel;
+
+    public LoadingScreen(MyPlatformerGame game) {
+        this.game = game;
+        batch = game.getBatch();
+        preloader = game.getPreloader();
+        progressLabel = new CachedText(game.getFont(), 1f, "%");
+    }
+
+    @Override
+    public void show() {}
+
+    @Override
+    public void render(float delta) {
+        // The game uploads the preloaded assets every frame, we only wait for it
+        if (preloader.isDone()) {
+            game.startMatch();
+            return;
+        }
+
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        batch.begin();
+        batch.setColor(Color.WHITE);
+        progressLabel.setText("Loading ", (int) (preloader.getProgress() * 100));
+        progressLabel.setPosition(Gdx.graphics.getWidth() / 2f - progressLabel.getWidth() / 2f, Gdx.graphics.getHeight() / 2f);
+        progressLabel.draw(batch);
+        batch.end();
+    }
+
+    @Override
+    public void resize(int width, int height) {}
+
+    @Override
+    public void pause() {}
+
+    @Override
+    public void resume() {}
+
+    @Override
+    public void hide() {}
+
+    @Override
+    public void dispose() {}
+}
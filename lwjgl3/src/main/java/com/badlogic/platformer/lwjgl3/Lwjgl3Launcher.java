@@ -3,26 +3,60 @@ package com.badlogic.platformer.lwjgl3;
 import com.badlogic.gdx.Graphics;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3WindowAdapter;
+
+import java.io.File;
 
 /** Launches the desktop (LWJGL3) application. */
 public class Lwjgl3Launcher {
     public static void main(String[] args) {
+        StartupTimer.mainStarted();
         if (StartupHelper.startNewJvmIfRequired()) return; // Handles macOS/Windows JVM requirements.
-        createApplication();
+        createApplication(NetPlayOptions.parse(args), parseReplayFile(args));
     }
 
-    private static Lwjgl3Application createApplication() {
-        return new Lwjgl3Application(new MyPlatformerGame(), getDefaultConfiguration());
+    private static Lwjgl3Application createApplication(NetPlayOptions netPlay, File replayFile) {
+        Graphics.DisplayMode primaryMode = Lwjgl3ApplicationConfiguration.getDisplayMode();
+        FrameGovernor.Limits limits = FrameGovernor.Limits.fromSystemProperties(primaryMode.refreshRate);
+        final MyPlatformerGame game = new MyPlatformerGame(netPlay, replayFile, limits);
+
+        Lwjgl3ApplicationConfiguration config = getDefaultConfiguration(primaryMode, limits);
+        config.setWindowListener(new Lwjgl3WindowAdapter() {
+            @Override
+            public void focusLost() {
+                game.getGovernor().setFocused(false);
+            }
+
+            @Override
+            public void focusGained() {
+                game.getGovernor().setFocused(true);
+            }
+        });
+        return new Lwjgl3Application(game, config);
     }
 
-    private static Lwjgl3ApplicationConfiguration getDefaultConfiguration() {
-        Graphics.DisplayMode primaryMode = Lwjgl3ApplicationConfiguration.getDisplayMode();
+    /** Returns the file given with {@code --replay <file>}, or null to play normally. */
+    private static File parseReplayFile(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].equals("--replay")) continue;
+            if (i + 1 >= args.length) throw new IllegalArgumentException("Usage: --replay <file>");
+            return new File(args[i + 1]);
+        }
+        return null;
+    }
+
+    private static Lwjgl3ApplicationConfiguration getDefaultConfiguration(Graphics.DisplayMode primaryMode,
+                                                                          FrameGovernor.Limits limits) {
         Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
 
         config.setTitle("2D Platformer"); // Set the title to match your game.
-        config.useVsync(true); // Enable Vsync to prevent screen tearing.
+        config.useVsync(limits.vsync); // Vsync prevents screen tearing, -Dplatformer.vsync=false turns it off.
+        // The FPS cap also applies with vsync on, in case the driver ignores it. The governor lowers it when needed.
+        config.setForegroundFPS(limits.maxFps);
+        config.setIdleFPS(limits.idleFps);
         //config.setFullscreenMode(primaryMode); // Default to fullscreen mode.
-        config.setWindowedMode(1920, 1080);
+        // Never larger than the screen, smaller displays would otherwise get a window they cannot fit
+        config.setWindowedMode(Math.min(1920, primaryMode.width), Math.min(1080, primaryMode.height));
 
         // Optional: Set a custom window icon for branding.
         config.setWindowIcon("icon128.png", "icon64.png","icon32.png", "icon16.png");
@@ -4,11 +4,12 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.audio.Music;
-import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Rectangle;
 
 public class MainMenuScreen implements Screen {
@@ -16,47 +17,53 @@ public class MainMenuScreen implements Screen {
     private final MyPlatformerGame game;
     private SpriteBatch batch;
     private Texture background;
-    private Texture playButtonTexture;
-    private Texture playButtonHoverTexture;
-    private Texture optionsButtonTexture;
-    private Texture optionsButtonHoverTexture;
-    private Texture exitButtonTexture;
-    private Texture exitButtonHoverTexture;
+    private TextureRegion playButtonTexture;
+    private TextureRegion playButtonHoverTexture;
+    private TextureRegion optionsButtonTexture;
+    private TextureRegion optionsButtonHoverTexture;
+    private TextureRegion exitButtonTexture;
+    private TextureRegion exitButtonHoverTexture;
     private BitmapFont font;
 
     private Rectangle playButtonBounds;
     private Rectangle optionsButtonBounds;
     private Rectangle exitButtonBounds;
 
-    private Sound buttonClickSound;
-    private Sound buttonHoverSound;
+    private int buttonClickSound;
+    private int buttonHoverSound;
     private Music backgroundMusic;
+    private final AudioMixer audio;
 
 
     private float alpha; // For screen fade animation
+    private static final float MUSIC_VOLUME = 0.15f;
+
+    private final BatchStats batchStats = new BatchStats("MainMenuScreen");
+    private final FrameMetrics metrics;
 
     public MainMenuScreen(MyPlatformerGame game) {
         this.game = game;
-        batch = new SpriteBatch();
+        batch = game.getBatch();
+        metrics = game.getMetrics();
+        font = game.getFont();
 
         // Load assets
-        background = new Texture("main_menu_background.png");
-        playButtonTexture = new Texture("play_button.png");
-        playButtonHoverTexture = new Texture("play_button_hover.png");
-        optionsButtonTexture = new Texture("options_button.png");
-        optionsButtonHoverTexture = new Texture("options_button_hover.png");
-        exitButtonTexture = new Texture("exit_button.png");
-        exitButtonHoverTexture = new Texture("exit_button_hover.png");
-        font = new BitmapFont(Gdx.files.internal("font.fnt"));
-        buttonClickSound = Gdx.audio.newSound(Gdx.files.internal("button_click.wav"));
-        buttonHoverSound = Gdx.audio.newSound(Gdx.files.internal("button_hover.mp3")); // Hover sound
+        AssetCache assets = game.getAssets();
+        background = assets.texture("main_menu_background.png");
+        TextureAtlas atlas = assets.atlas(AssetCache.UI_ATLAS);
+        playButtonTexture = atlas.findRegion("play_button");
+        playButtonHoverTexture = atlas.findRegion("play_button_hover");
+        optionsButtonTexture = atlas.findRegion("options_button");
+        optionsButtonHoverTexture = atlas.findRegion("options_button_hover");
+        exitButtonTexture = atlas.findRegion("exit_button");
+        exitButtonHoverTexture = atlas.findRegion("exit_button_hover");
+        audio = game.getAudio();
+        buttonClickSound = audio.register("button_click.wav", assets.sound("button_click.wav"),
+            AudioMixer.UI, AudioMixer.PRIORITY_NORMAL, 1, 1f, 0.2f);
+        buttonHoverSound = audio.register("button_hover.mp3", assets.sound("button_hover.mp3"),
+            AudioMixer.UI, AudioMixer.PRIORITY_LOW, 1, 1f, 0.2f); // Hover sound
         backgroundMusic = Gdx.audio.newMusic(Gdx.files.internal("background_music.mp3")); // Background music
 
-        // Set up background music to loop
-        backgroundMusic.setLooping(true);
-        backgroundMusic.setVolume(0.15f);
-        backgroundMusic.play();
-
 
 
         // Define button boundaries
@@ -72,12 +79,16 @@ public class MainMenuScreen implements Screen {
 
     @Override
     public void show() {
+        alpha = 0f; // Fade in every time the menu comes back
+        game.preloadMatch();
+        audio.playMusic(backgroundMusic, MUSIC_VOLUME);
     }
 
     @Override
     public void render(float delta) {
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
+        metrics.begin(FrameMetrics.DRAW_WORLD);
         batch.begin();
         batch.setColor(1, 1, 1, alpha);
         // Draw background
@@ -91,9 +102,13 @@ public class MainMenuScreen implements Screen {
         // Fade effect
 
         batch.end();
+        metrics.end(FrameMetrics.DRAW_WORLD);
+        batchStats.record(batch);
 
         // Handle input
+        metrics.begin(FrameMetrics.INPUT);
         handleInput();
+        metrics.end(FrameMetrics.INPUT);
 
         // Update the fade effect (for transitions)
         if (alpha < 1f) {
@@ -101,12 +116,12 @@ public class MainMenuScreen implements Screen {
         }
     }
 
-    private void drawButton(Texture normal, Texture hover, Rectangle bounds, String label) {
+    private void drawButton(TextureRegion normal, TextureRegion hover, Rectangle bounds, String label) {
         boolean isHovered = bounds.contains(Gdx.input.getX(), Gdx.graphics.getHeight() - Gdx.input.getY());
-        Texture textureToDraw = isHovered ? hover : normal;
+        TextureRegion textureToDraw = isHovered ? hover : normal;
         // Play hover sound if the mouse enters the button area
         if (isHovered && !isButtonHovered(bounds)) {
-            buttonHoverSound.play();
+            audio.play(buttonHoverSound);
         }
 
 
@@ -126,10 +141,10 @@ public class MainMenuScreen implements Screen {
             float y = Gdx.graphics.getHeight() - Gdx.input.getY(); // Flip y-axis
 
             if (playButtonBounds.contains(x, y)) {
-                buttonClickSound.play();
+                audio.play(buttonClickSound);
                 fadeToGameScreen(); // Transition to game screen with fade
             } else if (optionsButtonBounds.contains(x, y)) {
-                buttonClickSound.play();
+                audio.play(buttonClickSound);
                 fadeToOptionsScreen(); // Transition to options screen with fade
             } else if (exitButtonBounds.contains(x, y)) {
                 Gdx.app.exit(); // Exit the game
@@ -145,15 +160,12 @@ public class MainMenuScreen implements Screen {
     }
 
     private void fadeToGameScreen() {
-        alpha = 0f; // Reset alpha for fade out
-        game.setScreen(new GameScreen(game)); // Transition to game screen
-        backgroundMusic.stop();
+        audio.stopMusic();
+        game.startMatch(); // Transition to game screen
     }
 
     private void fadeToOptionsScreen() {
-        alpha = 0f; // Reset alpha for fade out
-        MainMenuScreen mainMenuScreen = new MainMenuScreen(game);
-        game.setScreen(new OptionsScreen(game, this)); // Transition to options screen
+        game.showOptions(); // Transition to options screen
     }
 
     @Override
@@ -171,18 +183,12 @@ public class MainMenuScreen implements Screen {
 
     @Override
     public void dispose() {
-        batch.dispose();
-        background.dispose();
-        playButtonTexture.dispose();
-        playButtonHoverTexture.dispose();
-        optionsButtonTexture.dispose();
-        optionsButtonHoverTexture.dispose();
-        exitButtonTexture.dispose();
-        exitButtonHoverTexture.dispose();
-        font.dispose();
-        buttonClickSound.dispose();
-        buttonHoverSound.dispose();
-        backgroundMusic.stop(); // Stop the music when disposing
+        AssetCache assets = game.getAssets();
+        assets.release("main_menu_background.png");
+        assets.release(AssetCache.UI_ATLAS);
+        assets.release("button_click.wav");
+        assets.release("button_hover.mp3");
+        audio.stopMusic(); // Stop the music when disposing
         backgroundMusic.dispose();
     }
 }
@@ -0,0 +1,81 @@
+package com.badlogic.platformer.lwjgl3;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/**
+ * Health bars, player labels and the game over text drawn over a match. All text goes through {@link CachedText},
+ * so a frame where nobody took damage draws the HUD without laying out text or allocating.
+ */
+public class MatchHud {
+
+    private static final String PLAYER_1 = "Player 1: ";
+    private static final String PLAYER_2 = "Player 2: ";
+    private static final String RESTART = "Press ENTER to Restart";
+
+    private final BitmapFont font;
+    private final TextureRegion healthBarBackground;
+    private final TextureRegion healthBarForeground;
+
+    private final CachedText player1Label;
+    private final CachedText player2Label;
+    private final CachedText gameOverLabel;
+    private final CachedText restartLabel;
+
+    // UI Scaling
+    private float uiScale = 1f;
+
+    public MatchHud(BitmapFont font, TextureRegion healthBarBackground, TextureRegion healthBarForeground) {
+        this.font = font;
+        this.healthBarBackground = healthBarBackground;
+        this.healthBarForeground = healthBarForeground;
+
+        player1Label = new CachedText(font, 1f);
+        player2Label = new CachedText(font, 1f);
+        gameOverLabel = new CachedText(font, 1.5f); // Larger for visibility
+        restartLabel = new CachedText(font, 1f);
+        restartLabel.setText(RESTART);
+    }
+
+    public void resize(int width, int height) {
+        uiScale = (float) width / 1280; // Scale UI based on screen width
+    }
+
+    public void drawHealthBars(Batch batch, float screenWidth, float screenHeight, int health1, int health2, int maxHealth) {
+        float barWidth = 200 * uiScale;
+        float barHeight = 20 * uiScale;
+        float padding = 20;
+        float barY = screenHeight - barHeight - padding;
+        float labelY = barY - 15;
+        // Labels are offset by the font page width, which is how they were positioned originally
+        float labelOffset = font.getRegion().getRegionWidth() / 2 - 110;
+
+        // Character 1 Health Bar
+        batch.draw(healthBarBackground, padding, barY, barWidth, barHeight);
+        batch.draw(healthBarForeground, padding, barY, barWidth * ((float) health1 / maxHealth), barHeight);
+        player1Label.setText(PLAYER_1, health1);
+        player1Label.setPosition(padding + barWidth / 2 - labelOffset, labelY);
+        player1Label.draw(batch);
+
+        // Character 2 Health Bar
+        batch.draw(healthBarBackground, screenWidth - barWidth - padding, barY, barWidth, barHeight);
+        batch.draw(healthBarForeground, screenWidth - barWidth - padding, barY, barWidth * ((float) health2 / maxHealth), barHeight);
+        player2Label.setText(PLAYER_2, health2);
+        player2Label.setPosition(screenWidth - barWidth / 2 - padding - labelOffset, labelY);
+        player2Label.draw(batch);
+    }
+
+    public void drawGameOver(Batch batch, float screenWidth, float screenHeight, CharSequence message) {
+        float halfPage = font.getRegion().getRegionWidth() / 2;
+
+        // Display the Game Over message at the center of the screen
+        gameOverLabel.setText(message);
+        gameOverLabel.setPosition(screenWidth / 2 - halfPage, screenHeight / 2);
+        gameOverLabel.draw(batch);
+
+        // Display the "Press ENTER to Restart" message
+        restartLabel.setPosition(screenWidth / 2 - halfPage + 50, screenHeight / 2 - 50);
+        restartLabel.draw(batch);
+    }
+}
@@ -0,0 +1,186 @@
+package com.badlogic.platformer.lwjgl3;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.platformer.ai.AiOpponent;
+
+/**
+ * Text overlay with the p50 / p99 of every frame phase and of the simulation thread's ticks, plus GC, GL, audio
+ * mixer and CPU opponent counters, toggled with F3.
+ * Values refresh a few times per second so the text stays readable and is not laid out every frame.
+ */
+public class MetricsOverlay {
+
+    private static final float REFRESH_INTERVAL = 0.5f;
+    private static final float LINE_HEIGHT = 22f;
+    private static final float SCALE = 0.5f;
+
+    private final FrameMetrics metrics;
+    private final AudioMixer audio;
+    private final CachedText[] p50Labels = new CachedText[FrameMetrics.PHASE_COUNT];
+    private final CachedText[] p99Labels = new CachedText[FrameMetrics.PHASE_COUNT];
+    private final String[] p50Prefixes = new String[FrameMetrics.PHASE_COUNT];
+    private final String[] p99Prefixes = new String[FrameMetrics.PHASE_COUNT];
+    private final CachedText tickInputP50Label;
+    private final CachedText tickInputP99Label;
+    private final CachedText tickStepP50Label;
+    private final CachedText tickStepP99Label;
+    private final CachedText gcCountLabel;
+    private final CachedText gcPauseLabel;
+    private final CachedText drawCallsLabel;
+    private final CachedText textureBindingsLabel;
+    private final CachedText voicesLabel;
+    private final CachedText playedLabel;
+    private final CachedText coalescedLabel;
+    private final CachedText droppedLabel;
+    private final CachedText searchRateLabel;
+    private final CachedText searchTimeLabel;
+    private final CachedText rolloutRateLabel;
+    private final CachedText overrunsLabel;
+
+    // CPU opponent of the running match, null when there is none
+    private AiOpponent opponent;
+    private long lastDecisions;
+    private long lastRollouts;
+
+    private boolean visible;
+    private float sinceRefresh = REFRESH_INTERVAL;
+
+    public MetricsOverlay(FrameMetrics metrics, AudioMixer audio, BitmapFont font) {
+        this.metrics = metrics;
+        this.audio = audio;
+        for (int i = 0; i < FrameMetrics.PHASE_COUNT; i++) {
+            p50Labels[i] = new CachedText(font, SCALE, " us");
+            p99Labels[i] = new CachedText(font, SCALE, " us");
+            p50Prefixes[i] = FrameMetrics.PHASE_NAMES[i] + " p50: ";
+            p99Prefixes[i] = "p99: ";
+        }
+        tickInputP50Label = new CachedText(font, SCALE, " us");
+        tickInputP99Label = new CachedText(font, SCALE, " us");
+        tickStepP50Label = new CachedText(font, SCALE, " us");
+        tickStepP99Label = new CachedText(font, SCALE, " us");
+        gcCountLabel = new CachedText(font, SCALE);
+        gcPauseLabel = new CachedText(font, SCALE, " us");
+        drawCallsLabel = new CachedText(font, SCALE);
+        textureBindingsLabel = new CachedText(font, SCALE);
+        voicesLabel = new CachedText(font, SCALE);
+        playedLabel = new CachedText(font, SCALE);
+        coalescedLabel = new CachedText(font, SCALE);
+        droppedLabel = new CachedText(font, SCALE);
+        searchRateLabel = new CachedText(font, SCALE, "/s");
+        searchTimeLabel = new CachedText(font, SCALE, " us");
+        rolloutRateLabel = new CachedText(font, SCALE, "/s");
+        overrunsLabel = new CachedText(font, SCALE);
+    }
+
+    /** Shows the search counters of {@code opponent}, or hides them for null. */
+    public void setOpponent(AiOpponent opponent) {
+        this.opponent = opponent;
+        if (opponent != null) {
+            lastDecisions = opponent.getDecisions();
+            lastRollouts = opponent.getRollouts();
+        }
+    }
+
+    public void toggle() {
+        visible = !visible;
+        metrics.setGlProfiling(visible);
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    public void draw(Batch batch, float delta) {
+        if (!visible) return;
+
+        sinceRefresh += delta;
+        if (sinceRefresh >= REFRESH_INTERVAL) {
+            refresh(sinceRefresh);
+            sinceRefresh = 0f;
+        }
+
+        float x = 10;
+        float y = Gdx.graphics.getHeight() - 60;
+        for (int i = 0; i < FrameMetrics.PHASE_COUNT; i++) {
+            p50Labels[i].setPosition(x, y);
+            p50Labels[i].draw(batch);
+            p99Labels[i].setPosition(x + 220, y);
+            p99Labels[i].draw(batch);
+            y -= LINE_HEIGHT;
+        }
+        tickInputP50Label.setPosition(x, y);
+        tickInputP50Label.draw(batch);
+        tickInputP99Label.setPosition(x + 220, y);
+        tickInputP99Label.draw(batch);
+        y -= LINE_HEIGHT;
+        tickStepP50Label.setPosition(x, y);
+        tickStepP50Label.draw(batch);
+        tickStepP99Label.setPosition(x + 220, y);
+        tickStepP99Label.draw(batch);
+        y -= LINE_HEIGHT;
+        gcCountLabel.setPosition(x, y);
+        gcCountLabel.draw(batch);
+        gcPauseLabel.setPosition(x + 220, y);
+        gcPauseLabel.draw(batch);
+        y -= LINE_HEIGHT;
+        drawCallsLabel.setPosition(x, y);
+        drawCallsLabel.draw(batch);
+        textureBindingsLabel.setPosition(x + 220, y);
+        textureBindingsLabel.draw(batch);
+        y -= LINE_HEIGHT;
+        voicesLabel.setPosition(x, y);
+        voicesLabel.draw(batch);
+        playedLabel.setPosition(x + 220, y);
+        playedLabel.draw(batch);
+        y -= LINE_HEIGHT;
+        coalescedLabel.setPosition(x, y);
+        coalescedLabel.draw(batch);
+        droppedLabel.setPosition(x + 220, y);
+        droppedLabel.draw(batch);
+        if (opponent == null || opponent.getDifficulty() == AiOpponent.OFF) return;
+        y -= LINE_HEIGHT;
+        searchRateLabel.setPosition(x, y);
+        searchRateLabel.draw(batch);
+        searchTimeLabel.setPosition(x + 220, y);
+        searchTimeLabel.draw(batch);
+        y -= LINE_HEIGHT;
+        rolloutRateLabel.setPosition(x, y);
+        rolloutRateLabel.draw(batch);
+        overrunsLabel.setPosition(x + 220, y);
+        overrunsLabel.draw(batch);
+    }
+
+    private void refresh(float elapsed) {
+        for (int i = 0; i < FrameMetrics.PHASE_COUNT; i++) {
+            RollingHistogram phase = metrics.getPhase(i);
+            p50Labels[i].setText(p50Prefixes[i], (int) (phase.percentile(50) / 1000));
+            p99Labels[i].setText(p99Prefixes[i], (int) (phase.percentile(99) / 1000));
+        }
+        RollingHistogram tickInput = metrics.getTickInputNanos();
+        tickInputP50Label.setText("tick input p50: ", (int) (tickInput.percentile(50) / 1000));
+        tickInputP99Label.setText("p99: ", (int) (tickInput.percentile(99) / 1000));
+        RollingHistogram tickStep = metrics.getTickStepNanos();
+        tickStepP50Label.setText("tick step p50: ", (int) (tickStep.percentile(50) / 1000));
+        tickStepP99Label.setText("p99: ", (int) (tickStep.percentile(99) / 1000));
+        gcCountLabel.setText("gc max/frame: ", (int) metrics.getGcCount().max());
+        gcPauseLabel.setText("gc pause max: ", (int) (metrics.getGcPauseNanos().max() / 1000));
+        drawCallsLabel.setText("draw calls: ", (int) metrics.getDrawCalls().percentile(50));
+        textureBindingsLabel.setText("tex binds: ", (int) metrics.getTextureBindings().percentile(50));
+        voicesLabel.setText("voices: ", audio.getActiveVoices());
+        playedLabel.setText("sounds played: ", (int) audio.getPlayed());
+        coalescedLabel.setText("sounds merged: ", (int) audio.getCoalesced());
+        droppedLabel.setText("dropped/stolen: ", (int) (audio.getDropped() + audio.getStolen()));
+        if (opponent != null) {
+            long decisions = opponent.getDecisions();
+            long rollouts = opponent.getRollouts();
+            searchRateLabel.setText("ai searches: ", (int) ((decisions - lastDecisions) / elapsed));
+            searchTimeLabel.setText("ai search: ", (int) (opponent.getLastSearchNanos() / 1000));
+            rolloutRateLabel.setText("ai rollouts: ", (int) ((rollouts - lastRollouts) / elapsed));
+            overrunsLabel.setText("ai overruns: ", (int) opponent.getOverruns());
+            lastDecisions = decisions;
+            lastRollouts = rollouts;
+        }
+    }
+}
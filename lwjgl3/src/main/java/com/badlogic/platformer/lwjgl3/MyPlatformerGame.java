@@ -1,12 +1,290 @@
 package com.badlogic.platformer.lwjgl3;
 
 import com.badlogic.gdx.Game;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.Preferences;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.platformer.ai.AiOpponent;
+import com.badlogic.platformer.input.InputBindings;
 
+import java.io.File;
+
+/**
+ * Owns everything the screens share: the asset cache, one SpriteBatch and one font. Screens are created the first
+ * time they are needed and reused afterwards, so moving between menu, options, match and pause only swaps the
+ * active screen. Everything is disposed once, when the application exits.
+ */
 public class MyPlatformerGame extends Game {
 
+    private static final String FONT = "font.fnt";
+    private static final String PREFERENCES = "platformer";
+    private static final String BINDINGS_KEY = "bindings";
+
+    // Textures, sounds and fonts shared by every screen
+    private AssetCache assets;
+    private SpriteBatch batch;
+    private BitmapFont font;
+
+    // Loads the match assets in the background while the menu is up
+    private AssetPreloader preloader;
+
+    // Player controls, saved in the preferences when rebound
+    private InputBindings bindings;
+    private KeyboardSource keyboard;
+
+    // Queued sound effects, played once per frame
+    private AudioMixer audio;
+
+    // Frame phase timings, shown with F3
+    private FrameMetrics metrics;
+    private MetricsOverlay metricsOverlay;
+
+    // Lowers effects, render scale and FPS cap when frames run over budget
+    private final FrameGovernor governor;
+
+    // Online match settings, null for local two-player matches
+    private final NetPlayOptions netPlay;
+
+    // Replay to watch instead of playing, null for normal matches
+    private final File replayFile;
+
+    // Fraction of the window resolution the match world is rendered at, see RenderScale
+    private float renderScale = RenderScale.MAX_SCALE;
+
+    // CPU opponent for the second fighter, e.g. -Dplatformer.ai=hard; off keeps local matches two-player
+    private int aiDifficulty = AiOpponent.parseDifficulty(System.getProperty("platformer.ai"));
+
+    // Screens, created on first use
+    private MainMenuScreen mainMenuScreen;
+    private OptionsScreen optionsScreen;
+    private GameScreen gameScreen;
+    private PauseScreen pauseScreen;
+    private LoadingScreen loadingScreen;
+
+    public MyPlatformerGame() {
+        this(null, null, FrameGovernor.Limits.fromSystemProperties(60));
+    }
+
+    public MyPlatformerGame(NetPlayOptions netPlay, File replayFile, FrameGovernor.Limits limits) {
+        this.netPlay = netPlay;
+        this.replayFile = replayFile;
+        this.governor = new FrameGovernor(limits);
+    }
+
     @Override
     public void create() {
+        StartupTimer.createStarted();
+        assets = new AssetCache();
+        batch = new SpriteBatch();
+
+        // The font page is packed into the game atlas so HUD text does not break the match batch
+        font = assets.font(FONT, AssetCache.GAME_ATLAS);
+        font.setColor(Color.WHITE);
+
+        preloader = new AssetPreloader(assets);
+        keyboard = new KeyboardSource();
+        bindings = loadBindings();
+        audio = new AudioMixer();
+        metrics = new FrameMetrics();
+        metricsOverlay = new MetricsOverlay(metrics, audio, font);
+
         // Set the initial screen to the main menu
-        this.setScreen(new MainMenuScreen(this));
+        showMainMenu();
+    }
+
+    @Override
+    public void render() {
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F3)) {
+            metricsOverlay.toggle();
+        }
+
+        metrics.beginFrame();
+        preloader.update(AssetPreloader.DEFAULT_UPLOAD_BUDGET_NANOS);
+        super.render();
+        metrics.begin(FrameMetrics.AUDIO);
+        audio.flush(Gdx.graphics.getDeltaTime());
+        metrics.end(FrameMetrics.AUDIO);
+        metrics.endFrame();
+        // The delta spans the whole previous frame, buffer swap and GPU wait included; the work time does not
+        governor.update(Gdx.graphics.getDeltaTime(), metrics.getLastFrameNanos());
+
+        if (metricsOverlay.isVisible()) {
+            batch.setColor(Color.WHITE);
+            batch.begin();
+            metricsOverlay.draw(batch, Gdx.graphics.getDeltaTime());
+            batch.end();
+        }
+        StartupTimer.frameRendered();
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        // Screens lay themselves out in window pixels, keep the shared batch in step with the window
+        batch.getProjectionMatrix().setToOrtho2D(0, 0, width, height);
+        super.resize(width, height);
+    }
+
+    private InputBindings loadBindings() {
+        InputBindings loaded = InputBindings.defaults();
+        String saved = Gdx.app.getPreferences(PREFERENCES).getString(BINDINGS_KEY, null);
+        if (saved == null) return loaded;
+        try {
+            loaded.read(saved);
+        } catch (IllegalArgumentException e) {
+            Gdx.app.error("MyPlatformerGame", "Ignoring saved bindings: " + e.getMessage());
+            loaded = InputBindings.defaults();
+        }
+        return loaded;
+    }
+
+    /** Stores the current bindings, call after rebinding a control. */
+    public void saveBindings() {
+        Preferences preferences = Gdx.app.getPreferences(PREFERENCES);
+        preferences.putString(BINDINGS_KEY, bindings.write());
+        preferences.flush();
+    }
+
+    public void showMainMenu() {
+        if (mainMenuScreen == null) mainMenuScreen = new MainMenuScreen(this);
+        setScreen(mainMenuScreen);
+    }
+
+    public void showOptions() {
+        if (optionsScreen == null) optionsScreen = new OptionsScreen(this);
+        setScreen(optionsScreen);
+    }
+
+    /** Starts loading the match assets, called while the menu is showing. */
+    public void preloadMatch() {
+        GameScreen.preloadAssets(preloader);
+    }
+
+    /** Shows the match screen with a fresh match, after a loading screen if preloading has not finished yet. */
+    public void startMatch() {
+        if (gameScreen == null && !preloader.isDone()) {
+            if (loadingScreen == null) loadingScreen = new LoadingScreen(this);
+            setScreen(loadingScreen);
+            return;
+        }
+        if (gameScreen == null) {
+            gameScreen = new GameScreen(this);
+        } else {
+            gameScreen.startNewMatch();
+        }
+        setScreen(gameScreen);
+    }
+
+    /** Goes back to the match that was paused, without resetting it. */
+    public void resumeMatch() {
+        setScreen(gameScreen);
+    }
+
+    public void showPause() {
+        if (pauseScreen == null) pauseScreen = new PauseScreen(this);
+        pauseScreen.captureBackdrop(gameScreen);
+        setScreen(pauseScreen);
+    }
+
+    public AssetCache getAssets() {
+        return assets;
+    }
+
+    public SpriteBatch getBatch() {
+        return batch;
+    }
+
+    public BitmapFont getFont() {
+        return font;
+    }
+
+    public NetPlayOptions getNetPlay() {
+        return netPlay;
+    }
+
+    public File getReplayFile() {
+        return replayFile;
+    }
+
+    /** The render scale picked in the options, lowered further by the governor when frames run long. */
+    public float getRenderScale() {
+        return Math.min(renderScale, governor.getRenderScale());
+    }
+
+    /** The render scale picked in the options. */
+    public float getPreferredRenderScale() {
+        return renderScale;
+    }
+
+    public void setRenderScale(float renderScale) {
+        this.renderScale = renderScale;
+    }
+
+    /** {@link AiOpponent#OFF} or the difficulty of the CPU opponent, applied when the next match starts. */
+    public int getAiDifficulty() {
+        return aiDifficulty;
+    }
+
+    public void setAiDifficulty(int aiDifficulty) {
+        this.aiDifficulty = aiDifficulty;
+    }
+
+    /** Share of optional effects to spawn, lowered by the governor when frames run long. */
+    public float getEffectDensity() {
+        return governor.getEffectDensity();
+    }
+
+    public FrameGovernor getGovernor() {
+        return governor;
+    }
+
+    public AssetPreloader getPreloader() {
+        return preloader;
+    }
+
+    public InputBindings getBindings() {
+        return bindings;
+    }
+
+    public KeyboardSource getKeyboard() {
+        return keyboard;
+    }
+
+    public AudioMixer getAudio() {
+        return audio;
+    }
+
+    public FrameMetrics getMetrics() {
+        return metrics;
+    }
+
+    public MetricsOverlay getMetricsOverlay() {
+        return metricsOverlay;
+    }
+
+    @Override
+    public void dispose() {
+        // Hides the current screen, then silences sounds before the screens release them
+        super.dispose();
+        audio.stopAll();
+
+        if (pauseScreen != null) pauseScreen.dispose();
+        if (gameScreen != null) gameScreen.dispose();
+        if (optionsScreen != null) optionsScreen.dispose();
+        if (mainMenuScreen != null) mainMenuScreen.dispose();
+        if (loadingScreen != null) loadingScreen.dispose();
+        pauseScreen = null;
+        gameScreen = null;
+        optionsScreen = null;
+        mainMenuScreen = null;
+        loadingScreen = null;
+
+        preloader.dispose();
+        metrics.dispose();
+        assets.release(AssetCache.atlasFontKey(FONT, AssetCache.GAME_ATLAS));
+        batch.dispose();
+        assets.dispose();
     }
 }
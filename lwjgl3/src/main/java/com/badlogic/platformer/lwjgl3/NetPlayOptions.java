@@ -0,0 +1,59 @@
+package com.badlogic.platformer.lwjgl3;
+
+import com.badlogic.platformer.net.RollbackSession;
+import com.badlogic.platformer.net.UdpTransport;
+import com.badlogic.platformer.sim.MatchSimulation;
+
+/**
+ * Online match settings from the command line:
+ * {@code --net <localPort> <remoteHost>:<remotePort> <player 1|2> [inputDelay]}.
+ * Each side controls its own character with that character's usual keys.
+ */
+public class NetPlayOptions {
+
+    private static final String USAGE = "Usage: --net <localPort> <remoteHost>:<remotePort> <player 1|2> [inputDelay]";
+
+    public final int localPort;
+    public final String remoteHost;
+    public final int remotePort;
+    public final int localPlayer;
+    public final int inputDelay;
+
+    public NetPlayOptions(int localPort, String remoteHost, int remotePort, int localPlayer, int inputDelay) {
+        this.localPort = localPort;
+        this.remoteHost = remoteHost;
+        this.remotePort = remotePort;
+        this.localPlayer = localPlayer;
+        this.inputDelay = inputDelay;
+    }
+
+    /** Returns the options from {@code args}, or null when no {@code --net} argument was given. */
+    public static NetPlayOptions parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].equals("--net")) continue;
+            if (i + 3 >= args.length) throw new IllegalArgumentException(USAGE);
+            String remote = args[i + 2];
+            int separator = remote.lastIndexOf(':');
+            if (separator <= 0) throw new IllegalArgumentException(USAGE + ", got remote " + remote);
+            try {
+                int localPort = Integer.parseInt(args[i + 1]);
+                String remoteHost = remote.substring(0, separator);
+                int remotePort = Integer.parseInt(remote.substring(separator + 1));
+                int player = Integer.parseInt(args[i + 3]);
+                if (player != 1 && player != 2) throw new IllegalArgumentException(USAGE + ", got player " + player);
+                int inputDelay = RollbackSession.DEFAULT_INPUT_DELAY;
+                if (i + 4 < args.length && !args[i + 4].startsWith("--")) {
+                    inputDelay = Integer.parseInt(args[i + 4]);
+                }
+                return new NetPlayOptions(localPort, remoteHost, remotePort, player - 1, inputDelay);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(USAGE, e);
+            }
+        }
+        return null;
+    }
+
+    public RollbackSession createSession(MatchSimulation simulation) {
+        return new RollbackSession(simulation, new UdpTransport(localPort, remoteHost, remotePort), localPlayer, inputDelay);
+    }
+}
@@ -8,68 +8,102 @@ import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.platformer.ai.AiOpponent;
 
 public class OptionsScreen implements Screen {
 
     private final MyPlatformerGame game;
-    private final MainMenuScreen mainMenuScreen;
 
     private SpriteBatch batch;
     private BitmapFont font;
 
-    private Texture backButtonNormal;
-    private Texture backButtonHovered;
+    private TextureRegion backButtonNormal;
+    private TextureRegion backButtonHovered;
     private Texture background;
 
     private Rectangle backButtonRect;
     private boolean isBackButtonHovered = false;
 
-    // Placeholder values for the options
-    private float soundVolume = 1.0f; // Max volume by default
+    // Sound volume is the mixer's master volume, graphics quality picks the match render scale
+    private float soundVolume;
     private String graphicsQuality = "High"; // Default graphics setting
-
-    public OptionsScreen(MyPlatformerGame game, MainMenuScreen mainMenuScreen) {
+    private static final float LOW_QUALITY_SCALE = 0.5f;
+    // C cycles the CPU opponent through off and every difficulty
+    private int aiDifficulty = AiOpponent.OFF;
+    private static final String[] OPPONENT_LABELS = {
+        "CPU Opponent: Off", "CPU Opponent: Easy", "CPU Opponent: Normal", "CPU Opponent: Hard"
+    };
+
+    // Option labels, only laid out again when their value changes
+    private final CachedText volumeLabel;
+    private final CachedText qualityLabel;
+    private final CachedText opponentLabel;
+
+    private final BatchStats batchStats = new BatchStats("OptionsScreen");
+    private final FrameMetrics metrics;
+
+    public OptionsScreen(MyPlatformerGame game) {
         this.game = game;
-        this.mainMenuScreen = mainMenuScreen;
 
-        batch = new SpriteBatch();
-        font = new BitmapFont(Gdx.files.internal("font.fnt"));
-        font.setColor(Color.WHITE);
+        batch = game.getBatch();
+        metrics = game.getMetrics();
+        font = game.getFont();
+        volumeLabel = new CachedText(font, 1f, "%");
+        qualityLabel = new CachedText(font, 1f);
+        opponentLabel = new CachedText(font, 1f);
+        AssetCache assets = game.getAssets();
 
         // Load textures
-        backButtonNormal = new Texture("back_button_normal.png");
-        backButtonHovered = new Texture("back_button_hovered.png");
-        background = new Texture("background.png");
+        TextureAtlas atlas = assets.atlas(AssetCache.UI_ATLAS);
+        backButtonNormal = atlas.findRegion("back_button_normal");
+        backButtonHovered = atlas.findRegion("back_button_hovered");
+        background = assets.texture("background.png");
 
         // Initialize back button rectangle
-        float backButtonX = Gdx.graphics.getWidth() / 2f - backButtonNormal.getWidth() / 2f;
+        float backButtonX = Gdx.graphics.getWidth() / 2f - backButtonNormal.getRegionWidth() / 2f;
         float backButtonY = Gdx.graphics.getHeight() / 4f;
-        backButtonRect = new Rectangle(backButtonX, backButtonY, backButtonNormal.getWidth(), backButtonNormal.getHeight());
+        backButtonRect = new Rectangle(backButtonX, backButtonY, backButtonNormal.getRegionWidth(), backButtonNormal.getRegionHeight());
     }
 
     @Override
-    public void show() {}
+    public void show() {
+        soundVolume = game.getAudio().getMasterVolume();
+        graphicsQuality = game.getPreferredRenderScale() < RenderScale.MAX_SCALE ? "Low" : "High";
+        aiDifficulty = game.getAiDifficulty();
+    }
 
     @Override
     public void render(float delta) {
         // Update logic
+        metrics.begin(FrameMetrics.INPUT);
         update(delta);
+        metrics.end(FrameMetrics.INPUT);
 
         // Clear the screen
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
         // Begin drawing
+        metrics.begin(FrameMetrics.DRAW_WORLD);
         batch.begin();
+        batch.setColor(Color.WHITE); // The batch is shared, do not inherit another screen's fade
         batch.draw(background, 0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
 
         // Draw options text
-        font.getData().setScale(1f); // Set font scale
         //font.draw(batch, "Options Menu", Gdx.graphics.getWidth() / 2f - 100, Gdx.graphics.getHeight() - 50);
 
         // Display options
-        font.draw(batch, "Sound Volume: " + (int) (soundVolume * 100) + "%", Gdx.graphics.getWidth() / 2 - 250, Gdx.graphics.getHeight() / 2f + 50);
-        font.draw(batch, "Graphics Quality: " + graphicsQuality, Gdx.graphics.getWidth() / 2 - 300, Gdx.graphics.getHeight() / 2f);
+        volumeLabel.setText("Sound Volume: ", (int) (soundVolume * 100));
+        volumeLabel.setPosition(Gdx.graphics.getWidth() / 2 - 250, Gdx.graphics.getHeight() / 2f + 50);
+        volumeLabel.draw(batch);
+        qualityLabel.setText("Low".equals(graphicsQuality) ? "Graphics Quality: Low" : "Graphics Quality: High");
+        qualityLabel.setPosition(Gdx.graphics.getWidth() / 2 - 300, Gdx.graphics.getHeight() / 2f);
+        qualityLabel.draw(batch);
+        opponentLabel.setText(OPPONENT_LABELS[aiDifficulty + 1]);
+        opponentLabel.setPosition(Gdx.graphics.getWidth() / 2 - 300, Gdx.graphics.getHeight() / 2f - 50);
+        opponentLabel.draw(batch);
 
         // Draw back button with hover effect
         if (isBackButtonHovered) {
@@ -79,6 +113,8 @@ public class OptionsScreen implements Screen {
         }
 
         batch.end();
+        metrics.end(FrameMetrics.DRAW_WORLD);
+        batchStats.record(batch);
     }
 
     private void update(float delta) {
@@ -90,26 +126,34 @@ public class OptionsScreen implements Screen {
 
         // Handle back button click
         if (isBackButtonHovered && Gdx.input.isButtonJustPressed(Input.Buttons.LEFT)) {
-            game.setScreen(mainMenuScreen);
+            game.showMainMenu();
         }
 
         // Allow ESC to return to the main menu
         if (Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)) {
-            game.setScreen(mainMenuScreen);
+            game.showMainMenu();
         }
 
         // Simulate sound and graphics adjustment using keyboard keys (for demonstration purposes)
         if (Gdx.input.isKeyJustPressed(Input.Keys.UP)) {
             soundVolume = Math.min(1.0f, soundVolume + 0.1f); // Increase volume
+            game.getAudio().setMasterVolume(soundVolume);
         }
         if (Gdx.input.isKeyJustPressed(Input.Keys.DOWN)) {
             soundVolume = Math.max(0.0f, soundVolume - 0.1f); // Decrease volume
+            game.getAudio().setMasterVolume(soundVolume);
         }
         if (Gdx.input.isKeyJustPressed(Input.Keys.LEFT)) {
             graphicsQuality = "Low"; // Set graphics quality to low
+            game.setRenderScale(LOW_QUALITY_SCALE);
         }
         if (Gdx.input.isKeyJustPressed(Input.Keys.RIGHT)) {
             graphicsQuality = "High"; // Set graphics quality to high
+            game.setRenderScale(RenderScale.MAX_SCALE);
+        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.C)) {
+            aiDifficulty = aiDifficulty + 1 < AiOpponent.DIFFICULTY_NAMES.length ? aiDifficulty + 1 : AiOpponent.OFF;
+            game.setAiDifficulty(aiDifficulty);
         }
     }
 
@@ -127,10 +171,8 @@ public class OptionsScreen implements Screen {
 
     @Override
     public void dispose() {
-        batch.dispose();
-        font.dispose();
-        backButtonNormal.dispose();
-        backButtonHovered.dispose();
-        background.dispose();
+        AssetCache assets = game.getAssets();
+        assets.release(AssetCache.UI_ATLAS);
+        assets.release("background.png");
     }
 }
@@ -3,43 +3,59 @@ package com.badlogic.platformer.lwjgl3;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.Screen;
-import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 
 public class PauseScreen implements Screen {
 
     private final MyPlatformerGame game;
-    private final GameScreen gameScreen;
     private SpriteBatch batch;
     private BitmapFont font;
-    private Texture resumeButtonTextureNormal;
-    private Texture resumeButtonTextureHovered;
-    private Texture quitButtonTextureNormal;
-    private Texture quitButtonTextureHovered;
-    private Texture background;
+    private TextureRegion resumeButtonTextureNormal;
+    private TextureRegion resumeButtonTextureHovered;
+    private TextureRegion quitButtonTextureNormal;
+    private TextureRegion quitButtonTextureHovered;
+
+    // Blurred still of the paused match, captured once when pausing
+    private final BlurredBackdrop backdrop;
+    private BlurredBackdrop.Scene pausedScene;
 
     private boolean isResumeButtonHovered = false;
     private boolean isQuitButtonHovered = false;
-    private Sound buttonClickSound;
+    private int buttonClickSound;
+    private final AudioMixer audio;
+
+    private final BatchStats batchStats = new BatchStats("PauseScreen");
+    private final FrameMetrics metrics;
 
-    public PauseScreen(MyPlatformerGame game, GameScreen gameScreen) {
+    public PauseScreen(MyPlatformerGame game) {
         this.game = game;
-        this.gameScreen = gameScreen;
 
-        batch = new SpriteBatch();
-        font = new BitmapFont();
+        batch = game.getBatch();
+        metrics = game.getMetrics();
+        font = game.getFont();
 
         // Normal and Hovered textures for the buttons
-        resumeButtonTextureNormal = new Texture("resume_button_normal.png");
-        resumeButtonTextureHovered = new Texture("resume_button_hovered.png");
-        quitButtonTextureNormal = new Texture("quit_button_normal.png");
-        quitButtonTextureHovered = new Texture("quit_button_hovered.png");
-        background = new Texture("game_background.png");
-        buttonClickSound = Gdx.audio.newSound(Gdx.files.internal("button_click.wav"));
+        AssetCache assets = game.getAssets();
+        TextureAtlas atlas = assets.atlas(AssetCache.UI_ATLAS);
+        resumeButtonTextureNormal = atlas.findRegion("resume_button_normal");
+        resumeButtonTextureHovered = atlas.findRegion("resume_button_hovered");
+        quitButtonTextureNormal = atlas.findRegion("quit_button_normal");
+        quitButtonTextureHovered = atlas.findRegion("quit_button_hovered");
+        backdrop = new BlurredBackdrop();
+        audio = game.getAudio();
+        buttonClickSound = audio.register("button_click.wav", assets.sound("button_click.wav"),
+            AudioMixer.UI, AudioMixer.PRIORITY_NORMAL, 1, 1f, 0.2f);
+    }
+
+    /** Captures {@code scene} as the backdrop, call before showing this screen. */
+    void captureBackdrop(BlurredBackdrop.Scene scene) {
+        pausedScene = scene;
+        backdrop.capture(batch, scene, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
     }
 
     @Override
@@ -50,28 +66,29 @@ public class PauseScreen implements Screen {
         // Clear screen
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
+        metrics.begin(FrameMetrics.DRAW_WORLD);
         batch.begin();
 
-        // Render the transparent background with smooth transparency effect
-        batch.setColor(1, 1, 1, 0.7f); // Set alpha for transparency
-        batch.draw(background, 0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        // Render the blurred, slightly darkened match behind the buttons
+        batch.setColor(0.7f, 0.7f, 0.7f, 1f);
+        backdrop.draw(batch, 0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
         batch.setColor(Color.WHITE); // Reset color
 
 
         // Draw "Resume" button with hover effect
-        float resumeButtonX = Gdx.graphics.getWidth() / 2 - resumeButtonTextureNormal.getWidth() / 2;
-        float resumeButtonY = Gdx.graphics.getHeight() / 2 - resumeButtonTextureNormal.getHeight() / 2 + 50;
-        float quitButtonX = Gdx.graphics.getWidth() / 2 - quitButtonTextureNormal.getWidth() / 2;
-        float quitButtonY = Gdx.graphics.getHeight() / 2 - quitButtonTextureNormal.getHeight() / 2 - 50;
+        float resumeButtonX = Gdx.graphics.getWidth() / 2 - resumeButtonTextureNormal.getRegionWidth() / 2;
+        float resumeButtonY = Gdx.graphics.getHeight() / 2 - resumeButtonTextureNormal.getRegionHeight() / 2 + 50;
+        float quitButtonX = Gdx.graphics.getWidth() / 2 - quitButtonTextureNormal.getRegionWidth() / 2;
+        float quitButtonY = Gdx.graphics.getHeight() / 2 - quitButtonTextureNormal.getRegionHeight() / 2 - 50;
 
         // Check for hover on "Resume" button
         float mouseX = Gdx.input.getX();
         float mouseY = Gdx.graphics.getHeight() - Gdx.input.getY(); // Flip Y-axis
-        isResumeButtonHovered = mouseX > resumeButtonX && mouseX < resumeButtonX + resumeButtonTextureNormal.getWidth()
-            && mouseY > resumeButtonY && mouseY < resumeButtonY + resumeButtonTextureNormal.getHeight();
+        isResumeButtonHovered = mouseX > resumeButtonX && mouseX < resumeButtonX + resumeButtonTextureNormal.getRegionWidth()
+            && mouseY > resumeButtonY && mouseY < resumeButtonY + resumeButtonTextureNormal.getRegionHeight();
 
-        isQuitButtonHovered = mouseX > quitButtonX && mouseX < quitButtonX + quitButtonTextureNormal.getWidth()
-            && mouseY > quitButtonY && mouseY < quitButtonY + quitButtonTextureNormal.getHeight();
+        isQuitButtonHovered = mouseX > quitButtonX && mouseX < quitButtonX + quitButtonTextureNormal.getRegionWidth()
+            && mouseY > quitButtonY && mouseY < quitButtonY + quitButtonTextureNormal.getRegionHeight();
 
         // Draw Resume Button with appropriate texture
         if (isResumeButtonHovered) {
@@ -90,20 +107,27 @@ public class PauseScreen implements Screen {
         batch.setColor(Color.WHITE); // Reset color after highlighting
 
         batch.end();
+        metrics.end(FrameMetrics.DRAW_WORLD);
+        batchStats.record(batch);
 
         // Check for button clicks (resume or quit)
+        metrics.begin(FrameMetrics.INPUT);
         if (Gdx.input.isButtonJustPressed(Input.Buttons.LEFT)) {
             if (isResumeButtonHovered) {
-                buttonClickSound.play();
-                game.setScreen(gameScreen); // Return to the game
+                audio.play(buttonClickSound);
+                game.resumeMatch(); // Return to the game
             } else if (isQuitButtonHovered) {
                 Gdx.app.exit(); // Exit the game
             }
         }
+        metrics.end(FrameMetrics.INPUT);
     }
 
     @Override
-    public void resize(int width, int height) { }
+    public void resize(int width, int height) {
+        // The match is still paused on the same state, so it can simply be captured again at the new size
+        if (pausedScene != null) backdrop.capture(batch, pausedScene, width, height);
+    }
 
     @Override
     public void pause() { }
@@ -116,12 +140,9 @@ public class PauseScreen implements Screen {
 
     @Override
     public void dispose() {
-        batch.dispose();
-        font.dispose();
-        resumeButtonTextureNormal.dispose();
-        resumeButtonTextureHovered.dispose();
-        quitButtonTextureNormal.dispose();
-        quitButtonTextureHovered.dispose();
-        background.dispose();
+        AssetCache assets = game.getAssets();
+        assets.release(AssetCache.UI_ATLAS);
+        assets.release("button_click.wav");
+        backdrop.dispose();
     }
 }
@@ -0,0 +1,108 @@
+package com.badlogic.platformer.lwjgl3;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.viewport.FitViewport;
+
+/**
+ * Draws the game world through a camera that keeps its aspect ratio in any window size, optionally into an
+ * offscreen buffer at a fraction of the window resolution which is then stretched over the window. Lower scales
+ * cut the pixels shaded per frame by the square of the scale. Everything drawn between {@link #end(SpriteBatch)}
+ * and the batch's own {@code end()} is in window pixels at full resolution, which is where the HUD goes.
+ */
+public class RenderScale implements Disposable {
+
+    public static final float MIN_SCALE = 0.5f;
+    public static final float MAX_SCALE = 1f;
+
+    private final OrthographicCamera camera = new OrthographicCamera();
+    private final FitViewport viewport;
+    private final Matrix4 screenProjection = new Matrix4();
+    private final Color savedColor = new Color();
+
+    private FrameBuffer buffer;
+    private float scale = MAX_SCALE;
+    // Whether the current frame goes through the buffer, decided in begin()
+    private boolean offscreen;
+
+    public RenderScale(float worldWidth, float worldHeight) {
+        viewport = new FitViewport(worldWidth, worldHeight, camera);
+        viewport.update(Gdx.graphics.getWidth(), Gdx.graphics.getHeight(), true);
+    }
+
+    public void resize(int width, int height) {
+        viewport.update(width, height, true);
+    }
+
+    public void setScale(float scale) {
+        this.scale = MathUtils.clamp(scale, MIN_SCALE, MAX_SCALE);
+    }
+
+    /** The world camera; move it before {@link #begin(SpriteBatch)} and call {@code update()} after. */
+    public OrthographicCamera getCamera() {
+        return camera;
+    }
+
+    public float getScale() {
+        return scale;
+    }
+
+    /** Begins the batch in world coordinates. */
+    public void begin(SpriteBatch batch) {
+        offscreen = scale < MAX_SCALE;
+        if (offscreen) {
+            int width = Math.max(1, Math.round(viewport.getScreenWidth() * scale));
+            int height = Math.max(1, Math.round(viewport.getScreenHeight() * scale));
+            if (buffer == null || buffer.getWidth() != width || buffer.getHeight() != height) {
+                if (buffer != null) buffer.dispose();
+                buffer = new FrameBuffer(Pixmap.Format.RGB888, width, height, false);
+                buffer.getColorBufferTexture().setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+            }
+            buffer.begin();
+            Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        } else {
+            // Full scale draws straight into the letterboxed part of the window
+            viewport.apply();
+        }
+        batch.setProjectionMatrix(camera.combined);
+        batch.begin();
+    }
+
+    /** Finishes the world and leaves the batch begun in window coordinates, ready for the HUD. */
+    public void end(SpriteBatch batch) {
+        batch.end();
+        int windowWidth = Gdx.graphics.getWidth();
+        int windowHeight = Gdx.graphics.getHeight();
+        screenProjection.setToOrtho2D(0, 0, windowWidth, windowHeight);
+        batch.setProjectionMatrix(screenProjection);
+
+        if (offscreen) {
+            buffer.end();
+            // The fade is already in the buffer, stretch it over the viewport as it is
+            savedColor.set(batch.getColor());
+            batch.setColor(Color.WHITE);
+            batch.begin();
+            batch.draw(buffer.getColorBufferTexture(), viewport.getScreenX(), viewport.getScreenY(),
+                viewport.getScreenWidth(), viewport.getScreenHeight(), 0, 0, 1, 1);
+            batch.setColor(savedColor);
+        } else {
+            Gdx.gl.glViewport(0, 0, Gdx.graphics.getBackBufferWidth(), Gdx.graphics.getBackBufferHeight());
+            batch.begin();
+        }
+    }
+
+    @Override
+    public void dispose() {
+        if (buffer != null) buffer.dispose();
+        buffer = null;
+    }
+}
@@ -0,0 +1,60 @@
+package com.badlogic.platformer.lwjgl3;
+
+import java.util.Arrays;
+
+/** Keeps the last {@code capacity} samples and answers percentile queries over them. Recording never allocates. */
+public class RollingHistogram {
+
+    private final long[] samples;
+    private final long[] sorted;
+    private int count;
+    private int next;
+    private boolean sortedValid;
+
+    public RollingHistogram(int capacity) {
+        samples = new long[capacity];
+        sorted = new long[capacity];
+    }
+
+    public void record(long value) {
+        samples[next] = value;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) count++;
+        sortedValid = false;
+    }
+
+    /** Value below which {@code percentile} (0 to 100) of the recorded samples fall, 0 when empty. */
+    public long percentile(double percentile) {
+        if (count == 0) return 0;
+        if (!sortedValid) {
+            System.arraycopy(samples, 0, sorted, 0, count);
+            Arrays.sort(sorted, 0, count);
+            sortedValid = true;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))];
+    }
+
+    public long max() {
+        return percentile(100);
+    }
+
+    public double mean() {
+        if (count == 0) return 0;
+        long sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += samples[i];
+        }
+        return (double) sum / count;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void clear() {
+        count = 0;
+        next = 0;
+        sortedValid = false;
+    }
+}
@@ -0,0 +1,163 @@
+package com.badlogic.platformer.lwjgl3;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.platformer.stage.TileMap;
+
+import java.util.Arrays;
+
+/**
+ * Draws a {@link TileMap} in vertical chunks of {@link #CHUNK_COLUMNS} columns. Chunks near the camera are baked
+ * into {@link SpriteCache} geometry once, drawn with one call each while visible, and their cache slot is reused
+ * once the camera has moved far enough away. The number of slots only depends on the view width, so a stage of any
+ * length keeps the same GPU memory and per-frame cost as one screen's worth of tiles.
+ */
+public class StageRenderer implements Disposable {
+
+    public static final int CHUNK_COLUMNS = 16;
+    // Chunks within this many chunk widths of the view are baked ahead, ones further out than the release margin
+    // give their slot back, the gap between the two keeps a chunk on the border from reloading every frame
+    private static final int LOAD_MARGIN = 1;
+    private static final int RELEASE_MARGIN = 2;
+
+    private final TileMap map;
+    private final TextureRegion groundTile;
+    private final TextureRegion platformTile;
+    private final float chunkWidth;
+    private final int chunkCount;
+
+    private final SpriteCache cache;
+    // Cache id of each slot, and the chunk baked into it or -1
+    private final int[] slotCache;
+    private final int[] slotChunk;
+    // Slot of each chunk or -1
+    private final int[] chunkSlot;
+
+    private int bakes;
+
+    public StageRenderer(TileMap map, TextureRegion groundTile, TextureRegion platformTile, float viewWidth) {
+        this.map = map;
+        this.groundTile = groundTile;
+        this.platformTile = platformTile;
+        chunkWidth = CHUNK_COLUMNS * map.tileSize;
+        chunkCount = (map.columns + CHUNK_COLUMNS - 1) / CHUNK_COLUMNS;
+
+        // Enough slots for every chunk inside the release margin
+        int slots = Math.min(chunkCount, (int) Math.ceil(viewWidth / chunkWidth) + 1 + RELEASE_MARGIN * 2);
+        int tilesPerChunk = CHUNK_COLUMNS * map.rows;
+        cache = new SpriteCache(slots * tilesPerChunk, false);
+        slotCache = new int[slots];
+        slotChunk = new int[slots];
+        for (int slot = 0; slot < slots; slot++) {
+            // Redefining a cache later needs it to be at least as large as the new contents
+            cache.beginCache();
+            for (int i = 0; i < tilesPerChunk; i++) {
+                cache.add(groundTile, 0, 0, 0, 0);
+            }
+            slotCache[slot] = cache.endCache();
+            slotChunk[slot] = -1;
+        }
+        chunkSlot = new int[chunkCount];
+        Arrays.fill(chunkSlot, -1);
+    }
+
+    /** Bakes the chunks approaching the view and frees the ones left behind. Call once per frame before drawing. */
+    public void update(float viewLeft, float viewRight) {
+        int first = chunkAt(viewLeft);
+        int last = chunkAt(viewRight);
+
+        for (int slot = 0; slot < slotChunk.length; slot++) {
+            int chunk = slotChunk[slot];
+            if (chunk >= 0 && (chunk < first - RELEASE_MARGIN || chunk > last + RELEASE_MARGIN)) {
+                chunkSlot[chunk] = -1;
+                slotChunk[slot] = -1;
+            }
+        }
+
+        int from = Math.max(0, first - LOAD_MARGIN);
+        int to = Math.min(chunkCount - 1, last + LOAD_MARGIN);
+        for (int chunk = from; chunk <= to; chunk++) {
+            if (chunkSlot[chunk] < 0) bake(chunk, freeSlot(first, last));
+        }
+    }
+
+    /** A free slot, or the one holding the chunk furthest from the view if the camera jumped. */
+    private int freeSlot(int first, int last) {
+        int furthest = 0;
+        int furthestDistance = -1;
+        for (int slot = 0; slot < slotChunk.length; slot++) {
+            int chunk = slotChunk[slot];
+            if (chunk < 0) return slot;
+            int distance = Math.max(first - chunk, chunk - last);
+            if (distance > furthestDistance) {
+                furthestDistance = distance;
+                furthest = slot;
+            }
+        }
+        chunkSlot[slotChunk[furthest]] = -1;
+        return furthest;
+    }
+
+    private void bake(int chunk, int slot) {
+        float size = map.tileSize;
+        int firstColumn = chunk * CHUNK_COLUMNS;
+        int lastColumn = Math.min(map.columns, firstColumn + CHUNK_COLUMNS);
+        cache.beginCache(slotCache[slot]);
+        for (int row = 0; row < map.rows; row++) {
+            for (int column = firstColumn; column < lastColumn; column++) {
+                byte tile = map.get(column, row);
+                if (tile == TileMap.EMPTY) continue;
+                TextureRegion region = tile == TileMap.GROUND ? groundTile : platformTile;
+                cache.add(region, column * size, row * size, size, size);
+            }
+        }
+        cache.endCache();
+        slotChunk[slot] = chunk;
+        chunkSlot[chunk] = slot;
+        bakes++;
+    }
+
+    /** Draws the baked chunks overlapping the view. No batch may be drawing. */
+    public void draw(Matrix4 projection, float viewLeft, float viewRight) {
+        int first = Math.max(0, chunkAt(viewLeft));
+        int last = Math.min(chunkCount - 1, chunkAt(viewRight));
+        cache.setProjectionMatrix(projection);
+        cache.begin();
+        for (int chunk = first; chunk <= last; chunk++) {
+            int slot = chunkSlot[chunk];
+            if (slot >= 0) cache.draw(slotCache[slot]);
+        }
+        cache.end();
+    }
+
+    /** Draws the visible tiles one by one into a begun batch, for one-off captures such as the pause backdrop. */
+    public void drawTiles(Batch batch, float viewLeft, float viewRight) {
+        float size = map.tileSize;
+        int first = Math.max(0, (int) Math.floor(viewLeft / size));
+        int last = Math.min(map.columns - 1, (int) Math.floor(viewRight / size));
+        for (int row = 0; row < map.rows; row++) {
+            for (int column = first; column <= last; column++) {
+                byte tile = map.get(column, row);
+                if (tile == TileMap.EMPTY) continue;
+                batch.draw(tile == TileMap.GROUND ? groundTile : platformTile, column * size, row * size, size, size);
+            }
+        }
+    }
+
+    private int chunkAt(float x) {
+        return (int) Math.floor(x / chunkWidth);
+    }
+
+    /** Chunks baked so far, for the metrics overlay and tuning the margins. */
+    public int getBakes() {
+        return bakes;
+    }
+
+    @Override
+    public void dispose() {
+        cache.dispose();
+    }
+}
@@ -0,0 +1,65 @@
+package com.badlogic.platformer.lwjgl3;
+
+import com.badlogic.gdx.Gdx;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Startup milestones for comparing launch variants (plain jar, AppCDS archive, native image): JVM start, entering
+ * {@code main}, entering {@code create()} and the end of the first rendered frame. With
+ * {@code -Dplatformer.startupTiming=true} they are logged once and appended to {@code startup.csv}, labelled with
+ * {@code -Dplatformer.startupVariant}. {@code -Dplatformer.exitAfterFrames=N} closes the game after N frames, for
+ * scripted measurements and for training the class-data archive.
+ */
+public final class StartupTimer {
+
+    private static final boolean ENABLED = Boolean.getBoolean("platformer.startupTiming");
+    private static final String VARIANT = System.getProperty("platformer.startupVariant", "jar");
+    private static final int EXIT_AFTER_FRAMES = Integer.getInteger("platformer.exitAfterFrames", 0);
+    private static final String EXPORT_FILE = "startup.csv";
+
+    // Wall clock milliseconds, the JVM reports its start time that way
+    private static long mainMillis;
+    private static long createMillis;
+    private static int frames;
+
+    private StartupTimer() { }
+
+    public static void mainStarted() {
+        mainMillis = System.currentTimeMillis();
+    }
+
+    public static void createStarted() {
+        createMillis = System.currentTimeMillis();
+    }
+
+    /** Called at the end of every frame; only the first one is timed. */
+    public static void frameRendered() {
+        frames++;
+        if (frames == 1 && ENABLED) report(System.currentTimeMillis());
+        if (EXIT_AFTER_FRAMES > 0 && frames == EXIT_AFTER_FRAMES) Gdx.app.exit();
+    }
+
+    private static void report(long firstFrameMillis) {
+        long jvmMillis = jvmStartMillis();
+        long toMain = mainMillis - jvmMillis;
+        long toCreate = createMillis - mainMillis;
+        long toFrame = firstFrameMillis - createMillis;
+        long total = firstFrameMillis - jvmMillis;
+        Gdx.app.log("Startup", VARIANT + ": jvm->main " + toMain + " ms, main->create " + toCreate
+            + " ms, create->first frame " + toFrame + " ms, total " + total + " ms");
+
+        boolean header = !Gdx.files.local(EXPORT_FILE).exists();
+        Gdx.files.local(EXPORT_FILE).writeString((header ? "variant,jvm_to_main_ms,main_to_create_ms,create_to_frame_ms,total_ms\n" : "")
+            + VARIANT + "," + toMain + "," + toCreate + "," + toFrame + "," + total + "\n", true);
+    }
+
+    private static long jvmStartMillis() {
+        try {
+            return ManagementFactory.getRuntimeMXBean().getStartTime();
+        } catch (Throwable e) {
+            // Native images may not provide the runtime MXBean, main is the earliest point we know then
+            return mainMillis;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.badlogic.platformer.lwjgl3;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.platformer.replay.MatchSnapshot;
+import com.badlogic.platformer.sim.MatchSimulation;
+
+import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps a {@link MatchSnapshot} of the running local match on disk, so a match that was closed or crashed can be
+ * resumed on the next start. Taking the snapshot is a buffer copy on the caller's thread; writing it happens on a
+ * background thread. While a write is still going, further saves are skipped rather than queued.
+ */
+public class SuspendSaver {
+
+    // Longest wait for the last write when the game exits
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 2000;
+
+    private final File file;
+    private final MatchSnapshot pending;
+    private final AtomicBoolean writing = new AtomicBoolean();
+    private final ExecutorService writer;
+    private final Runnable writeTask;
+    private final Runnable deleteTask;
+
+    // Written by the saving thread, read anywhere
+    private volatile long saved;
+    private volatile long skipped;
+
+    public SuspendSaver(File file, int fighterCount) {
+        this.file = file;
+        this.pending = new MatchSnapshot(fighterCount);
+        writer = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "suspend-writer");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        writeTask = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    File parent = SuspendSaver.this.file.getParentFile();
+                    if (parent != null) parent.mkdirs();
+                    pending.save(SuspendSaver.this.file);
+                } catch (GdxRuntimeException e) {
+                    Gdx.app.error("SuspendSaver", "Could not save the match", e);
+                } finally {
+                    writing.set(false);
+                }
+            }
+        };
+        deleteTask = new Runnable() {
+            @Override
+            public void run() {
+                SuspendSaver.this.file.delete();
+            }
+        };
+    }
+
+    /**
+     * Snapshots {@code simulation} and queues the write. From one thread at a time, the one stepping the match.
+     * Returns false if the previous write is still going.
+     */
+    public boolean save(MatchSimulation simulation, int tickRate) {
+        if (!writing.compareAndSet(false, true)) {
+            skipped++;
+            return false;
+        }
+        pending.capture(simulation, tickRate);
+        writer.execute(writeTask);
+        saved++;
+        return true;
+    }
+
+    /**
+     * Restores the saved match into {@code simulation}, false if there is none or it belongs to a match with other
+     * rules. A saved match that cannot be resumed is deleted, so it is not tried again on every start. Only before
+     * the first {@link #save}.
+     */
+    public boolean resume(MatchSimulation simulation, int tickRate) {
+        if (!file.exists()) return false;
+        try {
+            if (pending.load(file) && pending.restore(simulation, tickRate)) return true;
+            Gdx.app.log("SuspendSaver", "Discarding a saved match with other rules");
+        } catch (GdxRuntimeException e) {
+            Gdx.app.error("SuspendSaver", "Discarding an unreadable saved match", e);
+        }
+        file.delete();
+        return false;
+    }
+
+    /** Removes the saved match once it finished or was abandoned, after any write still queued. */
+    public void delete() {
+        writer.execute(deleteTask);
+    }
+
+    /** Saves queued so far, and saves skipped because a write was still going. */
+    public long getSaved() {
+        return saved;
+    }
+
+    public long getSkipped() {
+        return skipped;
+    }
+
+    /** Finishes the queued writes, waiting at most a moment so a stuck disk does not hold up exiting. */
+    public void dispose() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
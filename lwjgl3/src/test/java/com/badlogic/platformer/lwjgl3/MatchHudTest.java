@@ -0,0 +1,111 @@
+package com.badlogic.platformer.lwjgl3;
+
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class MatchHudTest {
+
+    private static final float WIDTH = 1280;
+    private static final float HEIGHT = 720;
+    private static final int MAX_HEALTH = 100;
+    private static final int FRAMES = 1000;
+
+    private final com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private BitmapFont font;
+    private MatchHud hud;
+    private NullBatch batch;
+
+    @Before
+    public void setUp() {
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        font = TestFonts.font();
+        hud = new MatchHud(font, TestFonts.region(), TestFonts.region());
+        hud.resize((int) WIDTH, (int) HEIGHT);
+        batch = new NullBatch();
+    }
+
+    @Test
+    public void unchangedHudAllocatesNothing() {
+        drawFrame(MAX_HEALTH, 80, "Character 1 Wins!");
+        drawFrame(MAX_HEALTH, 80, "Character 1 Wins!");
+
+        long overhead = measurementOverhead();
+        long before = allocatedBytes();
+        for (int i = 0; i < FRAMES; i++) {
+            drawFrame(MAX_HEALTH, 80, "Character 1 Wins!");
+        }
+        long allocated = allocatedBytes() - before - overhead;
+
+        assertEquals("bytes allocated over " + FRAMES + " unchanged frames", 0, allocated);
+    }
+
+    @Test
+    public void hudAllocatesNothingAgainAfterAChange() {
+        for (int health = MAX_HEALTH; health >= 0; health -= 10) {
+            drawFrame(health, MAX_HEALTH - health, "Character 2 Wins!");
+        }
+        drawFrame(0, MAX_HEALTH, "Character 2 Wins!");
+
+        long overhead = measurementOverhead();
+        long before = allocatedBytes();
+        for (int i = 0; i < FRAMES; i++) {
+            drawFrame(0, MAX_HEALTH, "Character 2 Wins!");
+        }
+        long allocated = allocatedBytes() - before - overhead;
+
+        assertEquals("bytes allocated over " + FRAMES + " frames after a change", 0, allocated);
+    }
+
+    @Test
+    public void changedValueIsLaidOutAgain() {
+        CachedText text = new CachedText(font, 1f);
+        text.setText("Player 1: ", MAX_HEALTH);
+        float full = text.getWidth();
+        text.setText("Player 1: ", 5);
+        assertTrue("two digits fewer should be narrower", text.getWidth() < full);
+
+        text.setText("Player 1: ", MAX_HEALTH);
+        assertEquals(full, text.getWidth(), 0f);
+    }
+
+    @Test
+    public void labelsAreDrawnEveryFrame() {
+        drawFrame(MAX_HEALTH, MAX_HEALTH, "Character 1 Wins!");
+        int vertices = batch.vertices;
+        int sprites = batch.sprites;
+        assertTrue(vertices > 0);
+
+        drawFrame(MAX_HEALTH, MAX_HEALTH, "Character 1 Wins!");
+        assertEquals(2 * vertices, batch.vertices);
+        assertEquals(2 * sprites, batch.sprites);
+    }
+
+    private void drawFrame(int health1, int health2, String message) {
+        hud.drawHealthBars(batch, WIDTH, HEIGHT, health1, health2, MAX_HEALTH);
+        hud.drawGameOver(batch, WIDTH, HEIGHT, message);
+    }
+
+    private long allocatedBytes() {
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    // What reading the counter allocates by itself, on some JVMs a small array per call
+    private long measurementOverhead() {
+        long overhead = 0;
+        for (int i = 0; i < 3; i++) {
+            long start = allocatedBytes();
+            overhead = allocatedBytes() - start;
+        }
+        return overhead;
+    }
+}
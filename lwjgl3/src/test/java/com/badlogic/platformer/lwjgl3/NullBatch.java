@@ -0,0 +1,212 @@
+package com.badlogic.platformer.lwjgl3;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Affine2;
+import com.badlogic.gdx.math.Matrix4;
+
+/** A batch without GL that only counts what is drawn, for tests. Allocates nothing per draw. */
+class NullBatch implements Batch {
+
+    private final Color color = new Color(Color.WHITE);
+    private final Matrix4 projection = new Matrix4();
+    private final Matrix4 transform = new Matrix4();
+    private float packedColor = Color.WHITE_FLOAT_BITS;
+    private boolean drawing;
+    private boolean blending = true;
+
+    // Sprites drawn from regions and textures, and floats of vertices drawn by font caches
+    int sprites;
+    int vertices;
+
+    @Override
+    public void begin() {
+        drawing = true;
+    }
+
+    @Override
+    public void end() {
+        drawing = false;
+    }
+
+    @Override
+    public void setColor(Color tint) {
+        color.set(tint);
+        packedColor = tint.toFloatBits();
+    }
+
+    @Override
+    public void setColor(float r, float g, float b, float a) {
+        color.set(r, g, b, a);
+        packedColor = color.toFloatBits();
+    }
+
+    @Override
+    public Color getColor() {
+        return color;
+    }
+
+    @Override
+    public void setPackedColor(float packedColor) {
+        Color.abgr8888ToColor(color, packedColor);
+        this.packedColor = packedColor;
+    }
+
+    @Override
+    public float getPackedColor() {
+        return packedColor;
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y, float originX, float originY, float width, float height,
+                     float scaleX, float scaleY, float rotation, int srcX, int srcY, int srcWidth, int srcHeight,
+                     boolean flipX, boolean flipY) {
+        sprites++;
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y, float width, float height, int srcX, int srcY, int srcWidth,
+                     int srcHeight, boolean flipX, boolean flipY) {
+        sprites++;
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y, int srcX, int srcY, int srcWidth, int srcHeight) {
+        sprites++;
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y, float width, float height, float u, float v, float u2, float v2) {
+        sprites++;
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y) {
+        sprites++;
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y, float width, float height) {
+        sprites++;
+    }
+
+    @Override
+    public void draw(Texture texture, float[] spriteVertices, int offset, int count) {
+        vertices += count;
+    }
+
+    @Override
+    public void draw(TextureRegion region, float x, float y) {
+        sprites++;
+    }
+
+    @Override
+    public void draw(TextureRegion region, float x, float y, float width, float height) {
+        sprites++;
+    }
+
+    @Override
+    public void draw(TextureRegion region, float x, float y, float originX, float originY, float width, float height,
+                     float scaleX, float scaleY, float rotation) {
+        sprites++;
+    }
+
+    @Override
+    public void draw(TextureRegion region, float x, float y, float originX, float originY, float width, float height,
+                     float scaleX, float scaleY, float rotation, boolean clockwise) {
+        sprites++;
+    }
+
+    @Override
+    public void draw(TextureRegion region, float width, float height, Affine2 transform) {
+        sprites++;
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void disableBlending() {
+        blending = false;
+    }
+
+    @Override
+    public void enableBlending() {
+        blending = true;
+    }
+
+    @Override
+    public void setBlendFunction(int srcFunc, int dstFunc) {
+    }
+
+    @Override
+    public void setBlendFunctionSeparate(int srcFuncColor, int dstFuncColor, int srcFuncAlpha, int dstFuncAlpha) {
+    }
+
+    @Override
+    public int getBlendSrcFunc() {
+        return 0;
+    }
+
+    @Override
+    public int getBlendDstFunc() {
+        return 0;
+    }
+
+    @Override
+    public int getBlendSrcFuncAlpha() {
+        return 0;
+    }
+
+    @Override
+    public int getBlendDstFuncAlpha() {
+        return 0;
+    }
+
+    @Override
+    public Matrix4 getProjectionMatrix() {
+        return projection;
+    }
+
+    @Override
+    public Matrix4 getTransformMatrix() {
+        return transform;
+    }
+
+    @Override
+    public void setProjectionMatrix(Matrix4 projection) {
+        this.projection.set(projection);
+    }
+
+    @Override
+    public void setTransformMatrix(Matrix4 transform) {
+        this.transform.set(transform);
+    }
+
+    @Override
+    public void setShader(ShaderProgram shader) {
+    }
+
+    @Override
+    public ShaderProgram getShader() {
+        return null;
+    }
+
+    @Override
+    public boolean isBlendingEnabled() {
+        return blending;
+    }
+
+    @Override
+    public boolean isDrawing() {
+        return drawing;
+    }
+
+    @Override
+    public void dispose() {
+    }
+}
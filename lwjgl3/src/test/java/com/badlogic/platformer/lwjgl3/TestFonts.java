@@ -0,0 +1,136 @@
+package com.badlogic.platformer.lwjgl3;
+
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/** Fonts and regions backed by a texture that is never uploaded, so text can be laid out without a GL context. */
+final class TestFonts {
+
+    private static final int PAGE_SIZE = 256;
+    private static final int GLYPH_SIZE = 16;
+
+    private TestFonts() {
+    }
+
+    /** A monospaced font covering printable ASCII. */
+    static BitmapFont font() {
+        BitmapFont.BitmapFontData data = new BitmapFont.BitmapFontData();
+        data.lineHeight = GLYPH_SIZE;
+        data.down = -GLYPH_SIZE;
+        data.capHeight = GLYPH_SIZE;
+        data.xHeight = GLYPH_SIZE / 2;
+        data.spaceXadvance = GLYPH_SIZE;
+        int perRow = PAGE_SIZE / GLYPH_SIZE;
+        for (char c = ' '; c <= '~'; c++) {
+            BitmapFont.Glyph glyph = new BitmapFont.Glyph();
+            glyph.id = c;
+            glyph.srcX = (c - ' ') % perRow * GLYPH_SIZE;
+            glyph.srcY = (c - ' ') / perRow * GLYPH_SIZE;
+            glyph.width = GLYPH_SIZE;
+            glyph.height = GLYPH_SIZE;
+            glyph.xadvance = GLYPH_SIZE;
+            data.setGlyph(c, glyph);
+        }
+        return new BitmapFont(data, region(), false);
+    }
+
+    static TextureRegion region() {
+        return new TextureRegion(new UnloadedTexture(PAGE_SIZE, PAGE_SIZE));
+    }
+
+    /** Knows its size but never touches GL. */
+    private static class UnloadedTexture extends Texture {
+
+        private final int width;
+        private final int height;
+
+        UnloadedTexture(int width, int height) {
+            super(GL20.GL_TEXTURE_2D, 0, new UnloadedData(width, height));
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public void load(TextureData data) {
+            // Nothing to upload
+        }
+
+        @Override
+        public int getWidth() {
+            return width;
+        }
+
+        @Override
+        public int getHeight() {
+            return height;
+        }
+    }
+
+    private static class UnloadedData implements TextureData {
+
+        private final int width;
+        private final int height;
+
+        UnloadedData(int width, int height) {
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public TextureDataType getType() {
+            return TextureDataType.Custom;
+        }
+
+        @Override
+        public boolean isPrepared() {
+            return true;
+        }
+
+        @Override
+        public void prepare() {
+        }
+
+        @Override
+        public Pixmap consumePixmap() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean disposePixmap() {
+            return false;
+        }
+
+        @Override
+        public void consumeCustomData(int target) {
+        }
+
+        @Override
+        public int getWidth() {
+            return width;
+        }
+
+        @Override
+        public int getHeight() {
+            return height;
+        }
+
+        @Override
+        public Pixmap.Format getFormat() {
+            return Pixmap.Format.RGBA8888;
+        }
+
+        @Override
+        public boolean useMipMaps() {
+            return false;
+        }
+
+        @Override
+        public boolean isManaged() {
+            return false;
+        }
+    }
+}